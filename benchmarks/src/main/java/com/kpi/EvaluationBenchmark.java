@@ -0,0 +1,81 @@
+package com.kpi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks re-evaluating a whole population of packed tours with the {@link TourEvaluator}
+ * of a random city set, against summing the same tours edge by edge through the distance
+ * oracle. The largest sizes exceed the budget of the distance matrices.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+    /** The number of cities in the problem. */
+    @Param({"500", "5000", "50000"})
+    public int cityNum;
+
+    /** The number of tours evaluated at once. */
+    @Param({"100"})
+    public int tourNum;
+
+    private CitySet citySet;
+    private int[] tours;
+    private int[] lengths;
+    private double[] exactLengths;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        citySet = CitySet.generateRandom(cityNum, random);
+        tours = new int[tourNum * cityNum];
+        for (int i = 0; i < tourNum; i++)
+            new IntPath(citySet, random).copyTourTo(tours, i * cityNum);
+        lengths = new int[tourNum];
+        exactLengths = new double[tourNum];
+    }
+
+    @Benchmark
+    public int[] evaluate() {
+        citySet.getTourEvaluator().evaluate(tours, tourNum, lengths);
+        return lengths;
+    }
+
+    @Benchmark
+    public double[] evaluateExact() {
+        citySet.getTourEvaluator().evaluateExact(tours, tourNum, exactLengths);
+        return exactLengths;
+    }
+
+    @Benchmark
+    public int[] evaluateWithOracle() {
+        DistanceOracle oracle = citySet.getDistanceOracle();
+        for (int t = 0; t < tourNum; t++) {
+            int offset = t * cityNum;
+            int dist = 0;
+            int prev = tours[offset + cityNum - 1];
+            for (int i = offset; i < offset + cityNum; i++) {
+                dist += oracle.distance(prev, tours[i]);
+                prev = tours[i];
+            }
+            lengths[t] = dist;
+        }
+        return lengths;
+    }
+}
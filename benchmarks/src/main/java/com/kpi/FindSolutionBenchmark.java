@@ -0,0 +1,53 @@
+package com.kpi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a complete, short run of {@link TravelSolution#findSolution()}, including
+ * the creation of the initial generation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindSolutionBenchmark {
+    /** The number of generations of every run. */
+    private static final int ITERATIONS_NUM = 10;
+    /** The percentage of the population mutated per generation. */
+    private static final int MUTATION_PERCENT = 10;
+
+    /** The number of cities in the problem. */
+    @Param({"50", "500", "5000"})
+    public int cityNum;
+
+    /** The number of paths selected for crossover; a generation holds twice as many. */
+    @Param({"100", "1000"})
+    public int generationSize;
+
+    @Setup
+    public void setUp() {
+        CitySet.getCitySet(cityNum);
+    }
+
+    @Benchmark
+    public Vector<Path> findSolution() {
+        TravelSolution travelSolution = new TravelSolution(cityNum, ITERATIONS_NUM, MUTATION_PERCENT, generationSize);
+        travelSolution.setHistoryPolicy(HistoryPolicy.lastN(1));
+        return travelSolution.findSolution();
+    }
+}
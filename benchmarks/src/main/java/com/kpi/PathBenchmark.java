@@ -0,0 +1,95 @@
+package com.kpi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the operations of a single chromosome: distance evaluation, key computation,
+ * crossover and mutation, for both {@link Path} and {@link IntPath}.
+ * Every parameter combination runs in its own fork, because {@link CitySet} keeps
+ * the number of cities of the first call for the lifetime of the JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathBenchmark {
+    /** The number of cities in the problem. */
+    @Param({"50", "500", "5000"})
+    public int cityNum;
+
+    private Path path1, path2;
+    private IntPath intPath1, intPath2;
+    private int[] tour;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        CitySet.getCitySet(cityNum);
+        random = new Random(42);
+        intPath1 = new IntPath(cityNum, random);
+        intPath2 = new IntPath(cityNum, random);
+        path1 = intPath1.toPath();
+        path2 = intPath2.toPath();
+
+        tour = new int[cityNum];
+        for (int i = 0; i < cityNum; i++)
+            tour[i] = intPath1.cityAt(i);
+    }
+
+    @Benchmark
+    public Path pathCalcDist() {
+        return new Path(path1.cities, cityNum);
+    }
+
+    @Benchmark
+    public double pathGetKey() {
+        return path1.getKey();
+    }
+
+    @Benchmark
+    public Chromosome pathCrossoverWith() {
+        return path1.crossoverWith(path2);
+    }
+
+    @Benchmark
+    public Path pathMutate() {
+        path1.mutate();
+        return path1;
+    }
+
+    @Benchmark
+    public IntPath intPathEvaluate() {
+        return new IntPath(tour, cityNum);
+    }
+
+    @Benchmark
+    public long intPathGetHash() {
+        return intPath1.getHash();
+    }
+
+    @Benchmark
+    public IntPath intPathCrossoverWith() {
+        return intPath1.crossoverWith(intPath2, random);
+    }
+
+    @Benchmark
+    public IntPath intPathMutate() {
+        intPath1.mutate(random);
+        return intPath1;
+    }
+}
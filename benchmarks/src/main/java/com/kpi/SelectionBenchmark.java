@@ -0,0 +1,54 @@
+package com.kpi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the selection step of a generation: picking the best half of a full
+ * generation. The measured time includes copying the unordered generation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectionBenchmark {
+    /** The number of cities in the problem. */
+    @Param({"50", "500", "5000"})
+    public int cityNum;
+
+    /** The number of paths selected for crossover; a generation holds twice as many. */
+    @Param({"100", "1000"})
+    public int generationSize;
+
+    private IntPath[] generation;
+
+    @Setup
+    public void setUp() {
+        CitySet.getCitySet(cityNum);
+        Random random = new Random(42);
+        generation = new IntPath[generationSize * 2];
+        for (int i = 0; i < generation.length; i++)
+            generation[i] = new IntPath(cityNum, random);
+    }
+
+    @Benchmark
+    public IntPath[] selectBest() {
+        IntPath[] paths = generation.clone();
+        TravelSolution.selectBest(paths, generationSize);
+        return paths;
+    }
+}
@@ -0,0 +1,95 @@
+package com.kpi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that checkpoints survive a round trip through their files.
+ */
+class CheckpointTest {
+    /** The directory the files are written to. */
+    @TempDir
+    Path directory;
+
+    /** Writes a checkpoint and reads back every part of it. */
+    @Test
+    void roundTripsThroughFile() throws IOException {
+        SplittableRandom random = new SplittableRandom(5);
+        CitySet citySet = CitySet.generateRandom(30, random);
+        IntPath[] generation = new IntPath[6];
+        int[] tours = new int[generation.length * citySet.size()];
+        for (int i = 0; i < generation.length; i++) {
+            generation[i] = new IntPath(citySet, random);
+            generation[i].copyTourTo(tours, i * citySet.size());
+        }
+        long[] seeds = { 7, -1, Long.MIN_VALUE };
+        String file = directory.resolve("run.ckpt").toString();
+        new Checkpoint(citySet.size(), 42, seeds, generation.length, tours, generation[3].getTour().clone(),
+                5_000_000_000L, 17, 23).write(file);
+
+        Checkpoint checkpoint = Checkpoint.read(file);
+        assertEquals(citySet.size(), checkpoint.getCityNum());
+        assertEquals(42, checkpoint.getIteration());
+        assertEquals(generation.length, checkpoint.getPopulationSize());
+        assertArrayEquals(seeds, checkpoint.getSeeds());
+        assertEquals(5_000_000_000L, checkpoint.getEvaluations());
+        assertEquals(17, checkpoint.getStagnantGenerations());
+        assertEquals(23, checkpoint.getMutationPercent());
+        IntPath[] restored = checkpoint.toGeneration(citySet);
+        for (int i = 0; i < generation.length; i++) {
+            assertArrayEquals(generation[i].getTour(), restored[i].getTour());
+            assertEquals(generation[i].getDistance(), restored[i].getDistance());
+            assertEquals(generation[i].getHash(), restored[i].getHash());
+        }
+        assertArrayEquals(generation[3].getTour(), checkpoint.getBest(citySet).getTour());
+    }
+
+    /** Reads a file of the first version, which holds no progress beyond the iteration. */
+    @Test
+    void readsFirstVersion() throws IOException {
+        int[] tour = { 0, 2, 1 };
+        ByteBuffer buffer = ByteBuffer.allocate(32 + 8 + 2 * tour.length * 4);
+        buffer.putInt(0x47414350).putInt(1).putInt(tour.length).putInt(9).putInt(1).putLong(3).putInt(1);
+        for (int i = 0; i < 2; i++)
+            for (int city : tour)
+                buffer.putInt(city);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+        Path file = directory.resolve("old.ckpt");
+        Files.write(file, buffer.array());
+
+        Checkpoint checkpoint = Checkpoint.read(file.toString());
+        assertEquals(9, checkpoint.getIteration());
+        assertArrayEquals(new long[] { 3 }, checkpoint.getSeeds());
+        assertEquals(0, checkpoint.getEvaluations());
+        assertEquals(0, checkpoint.getStagnantGenerations());
+        assertEquals(-1, checkpoint.getMutationPercent());
+        assertArrayEquals(tour, checkpoint.getBest(CitySet.generateRandom(3, new SplittableRandom(1))).getTour());
+    }
+
+    /** Rejects a checkpoint file whose content was damaged. */
+    @Test
+    void rejectsCorruptedFile() throws IOException {
+        CitySet citySet = CitySet.generateRandom(10, new SplittableRandom(6));
+        IntPath path = new IntPath(citySet, new SplittableRandom(7));
+        Path file = directory.resolve("damaged.ckpt");
+        new Checkpoint(10, 1, new long[] { 1 }, 1, path.getTour().clone(), path.getTour().clone()).write(file.toString());
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x55;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> Checkpoint.read(file.toString()));
+    }
+}
@@ -0,0 +1,54 @@
+package com.kpi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the best and worst places of {@link FitnessHeap} against a full scan of the
+ * population while random places are replaced by new or duplicated paths.
+ */
+class FitnessHeapTest {
+    /** Replaces random places and compares the heap with a scan after every update. */
+    @Test
+    void tracksBestAndWorstAfterRandomUpdates() {
+        SplittableRandom random = new SplittableRandom(1);
+        CitySet citySet = CitySet.generateRandom(12, random);
+
+        for (int size = 1; size <= 40; size++) {
+            IntPath[] population = new IntPath[size];
+            for (int i = 0; i < size; i++)
+                population[i] = new IntPath(citySet, random);
+            FitnessHeap heap = new FitnessHeap(population);
+            assertExtremes(population, heap);
+
+            for (int step = 0; step < 500; step++) {
+                int place = random.nextInt(size);
+                // duplicates make equal distances common, which the order must tolerate
+                population[place] = random.nextBoolean() ? new IntPath(citySet, random)
+                        : population[random.nextInt(size)].copy();
+                heap.update(place);
+                assertExtremes(population, heap);
+            }
+        }
+    }
+
+    /**
+     * Asserts that the heap reports a shortest and a longest path of the population.
+     *
+     * @param population    the population
+     * @param heap          the heap over the population
+     */
+    private static void assertExtremes(IntPath[] population, FitnessHeap heap) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (IntPath path : population) {
+            min = Math.min(min, path.getDistance());
+            max = Math.max(max, path.getDistance());
+        }
+        assertEquals(min, population[heap.best()].getDistance(), "best of " + population.length);
+        assertEquals(max, population[heap.worst()].getDistance(), "worst of " + population.length);
+    }
+}
@@ -0,0 +1,79 @@
+package com.kpi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that every built-in {@link Crossover} and {@link Mutation} leaves valid paths on
+ * small instances: a permutation of all cities starting at city 0, whose inverse,
+ * distance and hash match the tour.
+ */
+class OperatorTest {
+    /** The city counts tried, including the smallest ones where operators hit edge cases. */
+    private static final int[] CITY_NUMS = { 1, 2, 3, 4, 5, 6, 8, 13, 40 };
+    /** The number of children bred or mutations performed per operator and city count. */
+    private static final int TRIALS = 300;
+
+    /** Breeds children of random and of identical parents with every crossover. */
+    @Test
+    void crossoversBreedValidChildren() {
+        SplittableRandom random = new SplittableRandom(9);
+        for (int cityNum : CITY_NUMS) {
+            CitySet citySet = CitySet.generateRandom(cityNum, random);
+            OperatorScratch scratch = new OperatorScratch(cityNum);
+            for (Crossover crossover : Crossover.values()) {
+                IntPath child = IntPath.slot(citySet);
+                for (int trial = 0; trial < TRIALS; trial++) {
+                    IntPath parent1 = new IntPath(citySet, random);
+                    IntPath parent2 = trial % 10 == 0 ? parent1.copy() : new IntPath(citySet, random);
+                    child.setToChild(crossover, parent1, parent2, scratch, random);
+                    assertValid(child, crossover + " with " + cityNum + " cities");
+                }
+            }
+        }
+    }
+
+    /** Mutates paths repeatedly with every mutation. */
+    @Test
+    void mutationsKeepPathsValid() {
+        SplittableRandom random = new SplittableRandom(10);
+        for (int cityNum : CITY_NUMS) {
+            CitySet citySet = CitySet.generateRandom(cityNum, random);
+            OperatorScratch scratch = new OperatorScratch(cityNum);
+            for (Mutation mutation : Mutation.values()) {
+                IntPath path = new IntPath(citySet, random);
+                for (int trial = 0; trial < TRIALS; trial++) {
+                    mutation.mutate(path, scratch, random);
+                    assertValid(path, mutation + " with " + cityNum + " cities");
+                }
+            }
+        }
+    }
+
+    /**
+     * Asserts that a path is a valid tour whose cached state matches a fresh evaluation.
+     *
+     * @param path      the path to check
+     * @param message   the description of the operator and instance
+     */
+    private static void assertValid(IntPath path, String message) {
+        int cityNum = path.getCitySet().size();
+        int[] tour = path.getTour();
+        boolean[] visited = new boolean[cityNum];
+        assertEquals(0, tour[0], message);
+        for (int i = 0; i < cityNum; i++) {
+            int city = tour[i];
+            assertTrue(city >= 0 && city < cityNum && !visited[city], message);
+            visited[city] = true;
+            assertEquals(i, path.positionOf(city), message);
+        }
+
+        IntPath fresh = new IntPath(tour.clone(), path.getCitySet());
+        assertEquals(fresh.getDistance(), path.getDistance(), message);
+        assertEquals(fresh.getHash(), path.getHash(), message);
+    }
+}
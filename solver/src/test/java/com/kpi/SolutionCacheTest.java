@@ -0,0 +1,54 @@
+package com.kpi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the {@link SolutionCache} merges the results of runs and restores them by
+ * the fingerprint of their cities.
+ */
+class SolutionCacheTest {
+    /** The directory of the cache. */
+    @TempDir
+    Path directory;
+
+    /** Stores the results of two runs and looks up the merged elites, shortest first. */
+    @Test
+    void roundTripsElites() throws IOException {
+        SplittableRandom random = new SplittableRandom(8);
+        CitySet citySet = CitySet.generateRandom(25, random);
+        SolutionCache cache = new SolutionCache(directory.resolve("cache").toString(), 1 << 20);
+        assertNull(cache.lookup(citySet));
+
+        IntPath[] population = new IntPath[10];
+        for (int i = 0; i < population.length; i++)
+            population[i] = new IntPath(citySet, random);
+        IntPath best = TravelSolution.findBest(population);
+        cache.store(citySet, best, population);
+
+        Checkpoint stored = cache.lookup(citySet);
+        assertNotNull(stored);
+        assertArrayEquals(best.getTour(), stored.getBest(citySet).getTour());
+        IntPath[] elites = stored.toGeneration(citySet);
+        assertEquals(population.length, elites.length);
+        for (int i = 1; i < elites.length; i++)
+            assertTrue(elites[i - 1].getDistance() <= elites[i].getDistance());
+
+        // a better tour of a later run, for the same coordinates loaded again, becomes the new best
+        IntPath better = elites[0].copy();
+        new LocalSearch(citySet, 5).improve(better, Long.MAX_VALUE);
+        CitySet sameCities = CitySet.generateRandom(25, new SplittableRandom(8));
+        cache.store(sameCities, better, new IntPath[0]);
+        assertEquals(better.getDistance(), cache.lookup(sameCities).getBest(sameCities).getDistance());
+    }
+}
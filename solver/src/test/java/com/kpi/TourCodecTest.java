@@ -0,0 +1,52 @@
+package com.kpi;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that {@link TourCodec} restores tours, distances and hashes exactly for every
+ * width of a city index.
+ */
+class TourCodecTest {
+    /** Encodes and decodes tours whose indices take one, two and three bytes. */
+    @Test
+    void roundTripsEveryIndexWidth() throws IOException {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int cityNum : new int[] { 2, 256, 257, 65536, 65537 }) {
+            CitySet citySet = CitySet.generateRandom(cityNum, random);
+            IntPath path = new IntPath(citySet, random);
+            TourCodec codec = new TourCodec(cityNum);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            codec.write(new DataOutputStream(bytes), path);
+            IntPath restored = IntPath.slot(citySet);
+            codec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), restored, new int[cityNum]);
+
+            assertArrayEquals(path.getTour(), restored.getTour(), "tour of " + cityNum);
+            assertEquals(path.getDistance(), restored.getDistance());
+            assertEquals(path.getHash(), restored.getHash());
+            for (int city = 0; city < cityNum; city++)
+                assertEquals(path.positionOf(city), restored.positionOf(city));
+        }
+    }
+
+    /** Rejects a city index beyond the number of cities. */
+    @Test
+    void rejectsInvalidCityIndex() {
+        CitySet citySet = CitySet.generateRandom(3, new SplittableRandom(4));
+        byte[] bytes = { 0, 1, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+
+        assertThrows(IOException.class, () -> new TourCodec(3).read(
+                new DataInputStream(new ByteArrayInputStream(bytes)), IntPath.slot(citySet), new int[3]));
+    }
+}
@@ -0,0 +1,99 @@
+package com.kpi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link TourHashSet} against a {@link HashSet}, also under mixed insertions and removals.
+ */
+class TourHashSetTest {
+    /**
+     * Adds and looks up hashes that share one home slot, growing the set from its smallest
+     * capacity, so that probe sequences get long and wrap around the table.
+     */
+    @Test
+    void matchesHashSetWhileGrowing() {
+        SplittableRandom random = new SplittableRandom(2);
+        TourHashSet set = new TourHashSet(1);
+        Set<Long> expected = new HashSet<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            // multiples of 2^32 + 1 all fold to home slot 0, and 0 takes the substitute path
+            long hash = random.nextInt(5000) * 0x1_0000_0001L;
+            assertEquals(expected.add(hash), set.add(hash), "add " + hash);
+            assertEquals(expected.size(), set.size());
+
+            long probe = random.nextInt(5000) * 0x1_0000_0001L;
+            assertEquals(expected.contains(probe), set.contains(probe), "contains " + probe);
+        }
+    }
+
+    /** Clears the set, which then accepts the same hashes anew. */
+    @Test
+    void clearKeepsSetUsable() {
+        TourHashSet set = new TourHashSet(8);
+        for (long hash = 0; hash < 100; hash++)
+            assertTrue(set.add(hash));
+        set.clear();
+
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(99));
+        assertTrue(set.add(99));
+        assertFalse(set.add(99));
+    }
+
+    /**
+     * Mixes additions, removals and lookups of a few hundred hashes that pile up at the
+     * first and the last home slots of the table, so that the backward shift of removals
+     * runs across long probe sequences and across the wrap-around of the table.
+     */
+    @Test
+    void matchesHashSetUnderMixedAddAndRemove() {
+        SplittableRandom random = new SplittableRandom(2);
+        long[] pool = new long[300];
+        for (int k = 0; k < 100; k++) {
+            // multiples of 2^32 + 1 all fold to home slot 0, and 0 takes the substitute path
+            pool[k] = k * 0x1_0000_0001L;
+            // these fold to the k-th slot from the end of any table
+            pool[100 + k] = 0xFFFF_FFFFL - k;
+            pool[200 + k] = random.nextLong();
+        }
+        TourHashSet set = new TourHashSet(4);
+        Set<Long> expected = new HashSet<>();
+
+        for (int step = 0; step < 200_000; step++) {
+            long hash = pool[random.nextInt(pool.length)];
+            if (random.nextBoolean())
+                assertEquals(expected.add(hash), set.add(hash), "add " + hash);
+            else
+                assertEquals(expected.remove(hash), set.remove(hash), "remove " + hash);
+            assertEquals(expected.size(), set.size());
+
+            long probe = pool[random.nextInt(pool.length)];
+            assertEquals(expected.contains(probe), set.contains(probe), "contains " + probe);
+        }
+    }
+
+    /** Removes every hash again, leaving an empty set that accepts them anew. */
+    @Test
+    void removesEveryHash() {
+        TourHashSet set = new TourHashSet(16);
+        for (long hash = 0; hash < 1000; hash++)
+            assertTrue(set.add(hash * 31));
+        for (long hash = 0; hash < 1000; hash++)
+            assertTrue(set.remove(hash * 31));
+
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0));
+        assertFalse(set.remove(31));
+        assertTrue(set.add(31));
+    }
+}
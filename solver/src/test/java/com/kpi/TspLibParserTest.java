@@ -0,0 +1,119 @@
+package com.kpi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that {@link TspLibParser} reads the same distances from every explicit edge
+ * weight format and from coordinates.
+ */
+class TspLibParserTest {
+    /** The number of cities of the explicit instances. */
+    private static final int CITY_NUM = 7;
+
+    /** The directory the instances are written to. */
+    @TempDir
+    Path directory;
+
+    /** Parses the matrix in every EDGE_WEIGHT_FORMAT and compares all distances. */
+    @Test
+    void readsEveryEdgeWeightFormat() throws IOException {
+        String[] formats = { "FULL_MATRIX", "UPPER_ROW", "LOWER_ROW", "UPPER_DIAG_ROW", "LOWER_DIAG_ROW",
+                "UPPER_COL", "LOWER_COL", "UPPER_DIAG_COL", "LOWER_DIAG_COL" };
+        for (String format : formats) {
+            CitySet citySet = parse(format, "TYPE: TSP\nDIMENSION: " + CITY_NUM + "\nEDGE_WEIGHT_TYPE: EXPLICIT\n" +
+                    "EDGE_WEIGHT_FORMAT: " + format + "\nEDGE_WEIGHT_SECTION\n" + weights(format) + "EOF\n");
+
+            assertEquals(DistanceMetric.EXPLICIT, citySet.getMetric());
+            assertEquals(CITY_NUM, citySet.size());
+            for (int i = 0; i < CITY_NUM; i++)
+                for (int j = 0; j < CITY_NUM; j++)
+                    assertEquals(distance(i, j), citySet.getDistanceOracle().distance(i, j), format + " " + i + "-" + j);
+        }
+    }
+
+    /** Parses coordinates and rounds their distances by the edge weight type. */
+    @Test
+    void readsCoordinates() throws IOException {
+        CitySet citySet = parse("coords", "NAME: square\nTYPE: TSP\nDIMENSION: 3\nEDGE_WEIGHT_TYPE: EUC_2D\n" +
+                "NODE_COORD_SECTION\n1 0 0\n2 3.0 4\n3 1e1 0\nEOF\n");
+
+        assertEquals("square", citySet.getName());
+        assertEquals(DistanceMetric.EUC_2D, citySet.getMetric());
+        assertEquals(3.0, citySet.getX(1));
+        assertEquals(10.0, citySet.getX(2));
+        assertEquals(5, citySet.getDistanceOracle().distance(0, 1));
+        assertEquals(8, citySet.getDistanceOracle().distance(1, 2));
+    }
+
+    /** Rejects an edge weight section that ends early. */
+    @Test
+    void rejectsIncompleteSection() throws IOException {
+        assertThrows(IOException.class, () -> parse("short", "TYPE: TSP\nDIMENSION: 3\nEDGE_WEIGHT_TYPE: EXPLICIT\n" +
+                "EDGE_WEIGHT_FORMAT: UPPER_ROW\nEDGE_WEIGHT_SECTION\n1 2\nEOF\n"));
+    }
+
+    /**
+     * Returns the distance of the symmetric test matrix, distinct for every edge so that a
+     * number read into the wrong cell is noticed.
+     *
+     * @param i the first city
+     * @param j the second city
+     * @return the distance
+     */
+    private static int distance(int i, int j) {
+        return i == j ? 0 : 10 * Math.max(i, j) + Math.min(i, j) + 1;
+    }
+
+    /**
+     * Lists the test matrix in an edge weight format as TSPLIB defines it, three numbers per line.
+     *
+     * @param format    the EDGE_WEIGHT_FORMAT
+     * @return the content of the edge weight section
+     */
+    private static String weights(String format) {
+        boolean columns = format.endsWith("_COL");
+        boolean diagonal = format.contains("DIAG") || format.equals("FULL_MATRIX");
+        List<Integer> numbers = new ArrayList<>();
+        for (int outer = 0; outer < CITY_NUM; outer++) {
+            for (int inner = 0; inner < CITY_NUM; inner++) {
+                int row = columns ? inner : outer;
+                int col = columns ? outer : inner;
+                boolean listed = format.equals("FULL_MATRIX")
+                        || (format.startsWith("UPPER") ? col > row : col < row)
+                        || (diagonal && col == row);
+                if (listed)
+                    numbers.add(distance(row, col));
+            }
+        }
+
+        StringBuilder section = new StringBuilder();
+        for (int i = 0; i < numbers.size(); i++)
+            section.append(' ').append(numbers.get(i)).append(i % 3 == 2 ? "\n" : "");
+        return section.append('\n').toString();
+    }
+
+    /**
+     * Writes an instance to a file and parses it.
+     *
+     * @param name      the name of the file
+     * @param content   the content of the instance
+     * @return the parsed set
+     * @throws IOException if the instance is invalid
+     */
+    private CitySet parse(String name, String content) throws IOException {
+        Path file = directory.resolve(name + ".tsp");
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return TspLibParser.parse(file);
+    }
+}
@@ -0,0 +1,66 @@
+package com.kpi;
+
+/**
+ * Adapts the mutation percentage of a run between two bounds. When the diversity of the
+ * population collapses, either because few tours are distinct or because the mean distance
+ * has almost reached the best one, the percentage is raised to push the population out of
+ * its basin; while the best distance keeps improving it is lowered again so that good
+ * children are not destroyed.
+ */
+final class AdaptiveMutation {
+    /** The share of distinct tours below which the diversity counts as collapsed. */
+    private static final double MIN_DISTINCT_SHARE = 0.95;
+    /** The relative gap between mean and best distance below which the diversity counts as collapsed. */
+    private static final double MIN_RELATIVE_SPREAD = 0.002;
+    /** The factor the percentage grows by while the diversity is collapsed. */
+    private static final double RAISE_FACTOR = 1.5;
+    /** The factor the percentage shrinks by after an improving generation. */
+    private static final double LOWER_FACTOR = 0.8;
+
+    /** The smallest mutation percentage. */
+    private final int minPercent;
+    /** The largest mutation percentage. */
+    private final int maxPercent;
+
+    /**
+     * Constructs a controller.
+     *
+     * @param minPercent    the smallest mutation percentage
+     * @param maxPercent    the largest mutation percentage
+     */
+    AdaptiveMutation(int minPercent, int maxPercent) {
+        this.minPercent = minPercent;
+        this.maxPercent = maxPercent;
+    }
+
+    /**
+     * Computes the mutation percentage of the next generation from the last one.
+     *
+     * @param progress  the progress of the run, holding the statistics of the last generation
+     * @return the mutation percentage of the next generation
+     */
+    int nextPercent(RunProgress progress) {
+        GenerationStats stats = progress.getLastStats();
+        int percent = progress.getMutationPercent();
+        if (stats == null)
+            return clamp(percent);
+
+        double spread = (stats.getMeanDistance() - stats.getBestDistance()) / Math.max(stats.getMeanDistance(), 1);
+        if (stats.getDiversity() < MIN_DISTINCT_SHARE || spread < MIN_RELATIVE_SPREAD)
+            percent = (int) Math.ceil(Math.max(percent, 1) * RAISE_FACTOR);
+        else if (progress.getStagnantGenerations() == 0)
+            percent = (int) (percent * LOWER_FACTOR);
+
+        return clamp(percent);
+    }
+
+    /**
+     * Limits a percentage to the bounds of the controller.
+     *
+     * @param percent   the percentage
+     * @return the percentage within the bounds
+     */
+    private int clamp(int percent) {
+        return Math.max(minPercent, Math.min(maxPercent, percent));
+    }
+}
@@ -0,0 +1,290 @@
+package com.kpi;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Solves many independent TSP instances concurrently on a fixed number of threads. Every
+ * problem gets its own {@link TravelSolution} from a factory and runs single-threaded
+ * from start to end on one thread, so solves share no mutable state and the throughput
+ * grows with the number of threads up to the number of cores. At most
+ * {@code threadNum + queueCapacity} problems are accepted but not yet finished; further
+ * submissions block until one of them is finished, which keeps a fast producer from
+ * queueing an unbounded number of instances. Every problem has a deadline measured from
+ * its submission: a problem still queued when its deadline passes is never run, and a
+ * running one stops after the generation in which the deadline passes.
+ *
+ * <pre>
+ * try (BatchSolver solver = new BatchSolver(8, 64, cities -&gt; new TravelSolution(cities, 500, 5))) {
+ *     solver.solveAll(problems, Duration.ofMillis(200), result -&gt; System.out.println(result));
+ * }
+ * </pre>
+ *
+ * An instance is safe for use by several threads.
+ */
+public final class BatchSolver implements AutoCloseable {
+    /** The threads running the problems. */
+    private final ExecutorService executor;
+    /** The permits of the problems that may be accepted but not yet finished. */
+    private final Semaphore slots;
+    /** Creates the solution of every problem. */
+    private final Function<CitySet, TravelSolution> factory;
+
+    /**
+     * Constructs a solver and starts its threads.
+     *
+     * @param threadNum     the number of problems solved at once
+     * @param queueCapacity the number of further problems that may wait for a thread
+     * @param factory       creates a configured solution for the cities of every problem; it is
+     *                      called on the solving thread and must return a new instance every time
+     * @throws IllegalArgumentException if threadNum is less than 1 or queueCapacity is negative
+     */
+    public BatchSolver(int threadNum, int queueCapacity, Function<CitySet, TravelSolution> factory) {
+        if (threadNum < 1)
+            throw new IllegalArgumentException("Method BatchSolver() in class \"BatchSolver\". Number of threads must be at least 1.");
+        if (queueCapacity < 0)
+            throw new IllegalArgumentException("Method BatchSolver() in class \"BatchSolver\". Queue capacity must not be negative.");
+
+        this.factory = factory;
+        this.slots = new Semaphore(threadNum + queueCapacity);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threadNum, runnable -> {
+            Thread thread = new Thread(runnable, "batch-solver-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submits a problem, waiting while the solver is full. Cancelling the returned future
+     * stops the run after its current generation.
+     *
+     * @param citySet   the cities to visit
+     * @param deadline  the longest time from now until the problem is finished
+     * @return the future result of the problem
+     * @throws IllegalArgumentException if the deadline is negative
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public CompletableFuture<SolveResult> submit(CitySet citySet, Duration deadline) throws InterruptedException {
+        if (deadline.isNegative())
+            throw new IllegalArgumentException("Method submit() in class \"BatchSolver\". The deadline must not be negative.");
+
+        long submitNanos = System.nanoTime();
+        slots.acquire();
+        return start(citySet, submitNanos, deadline.toNanos());
+    }
+
+    /**
+     * Submits a problem unless the solver is full.
+     *
+     * @param citySet   the cities to visit
+     * @param deadline  the longest time from now until the problem is finished
+     * @return the future result of the problem, or null if the solver is full
+     * @throws IllegalArgumentException if the deadline is negative
+     */
+    public CompletableFuture<SolveResult> trySubmit(CitySet citySet, Duration deadline) {
+        if (deadline.isNegative())
+            throw new IllegalArgumentException("Method trySubmit() in class \"BatchSolver\". The deadline must not be negative.");
+
+        long submitNanos = System.nanoTime();
+        return slots.tryAcquire() ? start(citySet, submitNanos, deadline.toNanos()) : null;
+    }
+
+    /**
+     * Solves a stream of problems and passes every result to a consumer as soon as it is
+     * finished, so the results arrive in the order of completion. The stream is consumed
+     * only as fast as the solver accepts problems. The consumer is never called by two
+     * threads at once. After the first failure no further problems are submitted.
+     *
+     * @param problems  the cities of the problems
+     * @param deadline  the longest time from its submission until every problem is finished
+     * @param consumer  receives the results
+     * @throws IllegalArgumentException if the deadline is negative
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws RuntimeException the first failure of a problem or of the consumer
+     */
+    public void solveAll(Stream<CitySet> problems, Duration deadline, Consumer<SolveResult> consumer) throws InterruptedException {
+        Object lock = new Object();
+        int[] outstanding = new int[1];
+        Throwable[] failure = new Throwable[1];
+
+        Iterator<CitySet> iterator = problems.iterator();
+        while (iterator.hasNext()) {
+            synchronized (lock) {
+                if (failure[0] != null)
+                    break;
+            }
+            CompletableFuture<SolveResult> future = submit(iterator.next(), deadline);
+            synchronized (lock) {
+                outstanding[0]++;
+            }
+            future.whenComplete((result, error) -> {
+                synchronized (lock) {
+                    Throwable problem = error;
+                    try {
+                        if (problem == null && failure[0] == null)
+                            consumer.accept(result);
+                    } catch (RuntimeException e) {
+                        problem = e;
+                    }
+                    if (problem != null && failure[0] == null)
+                        failure[0] = problem;
+                    outstanding[0]--;
+                    lock.notifyAll();
+                }
+            });
+        }
+
+        synchronized (lock) {
+            while (outstanding[0] > 0)
+                lock.wait();
+        }
+        Throwable error = failure[0];
+        if (error instanceof CompletionException && error.getCause() != null)
+            error = error.getCause();
+        if (error instanceof RuntimeException)
+            throw (RuntimeException) error;
+        if (error instanceof Error)
+            throw (Error) error;
+        if (error != null)
+            throw new CompletionException(error);
+    }
+
+    /**
+     * Queues a problem whose slot has been acquired.
+     *
+     * @param citySet       the cities to visit
+     * @param submitNanos   the time of the submission
+     * @param deadlineNanos the longest time from the submission until the problem is finished
+     * @return the future result of the problem
+     */
+    private CompletableFuture<SolveResult> start(CitySet citySet, long submitNanos, long deadlineNanos) {
+        CompletableFuture<SolveResult> future = new CompletableFuture<>();
+        RunControl control = new RunControl();
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled())
+                control.cancel();
+        });
+
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!future.isDone())
+                        future.complete(solve(citySet, control, submitNanos, deadlineNanos));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * Runs the solution of a problem until it ends or its deadline passes.
+     *
+     * @param citySet       the cities to visit
+     * @param control       the control cancelling the run
+     * @param submitNanos   the time of the submission
+     * @param deadlineNanos the longest time from the submission until the problem is finished
+     * @return the result of the problem
+     */
+    private SolveResult solve(CitySet citySet, RunControl control, long submitNanos, long deadlineNanos) {
+        long startNanos = System.nanoTime();
+        long waitNanos = startNanos - submitNanos;
+        long remainingNanos = deadlineNanos - waitNanos;
+        if (remainingNanos <= 0)
+            return new SolveResult(citySet, null, SolveResult.Status.EXPIRED, waitNanos, 0, 0);
+
+        TravelSolution solution = factory.apply(citySet);
+        DeadlineCondition deadline = new DeadlineCondition(remainingNanos);
+        StopCondition own = solution.getStopCondition();
+        solution.setStopCondition(own != null ? own.or(deadline) : deadline);
+        solution.setRunControl(control);
+        solution.setHistoryPolicy(HistoryPolicy.none());
+        BestListener listener = new BestListener();
+        solution.addGenerationListener(listener);
+        solution.findSolution();
+
+        SolveResult.Status status = deadline.reached ? SolveResult.Status.DEADLINE_REACHED : SolveResult.Status.SOLVED;
+        return new SolveResult(citySet, listener.getBest(), status, waitNanos, System.nanoTime() - startNanos, listener.getGenerations());
+    }
+
+    /**
+     * Stops the threads once the problems already accepted are finished and waits for them.
+     * Problems submitted afterwards are rejected.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting; every accepted problem ends by its deadline
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops a run once its time budget is used up and remembers that it did.
+     */
+    private static final class DeadlineCondition implements StopCondition {
+        /** The time budget of the run in nanoseconds. */
+        private final long limitNanos;
+        /** Whether the condition has stopped the run. */
+        private boolean reached;
+
+        /**
+         * Constructs the condition.
+         *
+         * @param limitNanos    the time budget of the run in nanoseconds
+         */
+        DeadlineCondition(long limitNanos) {
+            this.limitNanos = limitNanos;
+        }
+
+        @Override
+        public boolean isMet(RunProgress progress) {
+            if (progress.getElapsedNanos() >= limitNanos)
+                reached = true;
+            return reached;
+        }
+    }
+
+    /**
+     * Keeps the shortest path and the number of generations of a run.
+     */
+    private static final class BestListener implements GenerationListener {
+        /** The shortest path reported so far, or null. */
+        private IntPath best;
+        /** The number of generations reported so far. */
+        private int generations;
+
+        @Override
+        public synchronized void onGeneration(GenerationStats stats) {
+            generations++;
+            if (best == null || stats.getBestDistance() < best.getDistance())
+                best = stats.getBest();
+        }
+
+        synchronized IntPath getBest() { return best; }
+
+        synchronized int getGenerations() { return generations; }
+    }
+}
@@ -0,0 +1,173 @@
+package com.kpi;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.SplittableRandom;
+
+/**
+ * Entry point of a worker process breeding children for a {@link TravelSolution} running
+ * in another JVM on the same machine; see {@link RemoteBreeding}. The worker connects to
+ * the coordinator, receives the city set and the crossover once, the parents once per
+ * generation, and then answers every batch of parent pairs with the children, their
+ * distances and their hashes. Batches are answered in the order they arrive. The worker
+ * exits when the coordinator closes the connection.
+ *
+ * <pre>
+ * java -cp genetic-algorithm.jar com.kpi.BreedingWorker PORT TOKEN
+ * </pre>
+ */
+public final class BreedingWorker {
+    /** Message carrying the city set, the crossover and the seed. */
+    static final int SETUP = 1;
+    /** Message carrying the parents of a generation. */
+    static final int PARENTS = 2;
+    /** Message carrying a batch of parent pairs to breed. */
+    static final int BATCH = 3;
+    /** Message ending the session. */
+    static final int CLOSE = 4;
+    /** The size of the socket stream buffers. */
+    static final int BUFFER_SIZE = 1 << 16;
+
+    /** The set of cities of the tours. */
+    private CitySet citySet;
+    /** The crossover applied to the parent pairs. */
+    private CrossoverOperator crossover;
+    /** The random number generator of the crossover. */
+    private SplittableRandom random;
+    /** The scratch memory of the crossover. */
+    private OperatorScratch scratch;
+    /** The codec of the tours. */
+    private TourCodec codec;
+    /** The decoding buffer of the tours. */
+    private int[] tour;
+    /** The parents of the current generation; only the first parentNum are valid. */
+    private IntPath[] parents = new IntPath[0];
+    /** The number of parents of the current generation. */
+    private int parentNum;
+    /** The path every child is bred into before it is written. */
+    private IntPath child;
+
+    private BreedingWorker() {}
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: BreedingWorker PORT TOKEN");
+            System.exit(2);
+        }
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]))) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE));
+            out.writeLong(Long.parseLong(args[1]));
+            out.flush();
+            new BreedingWorker().serve(in, out);
+        } catch (EOFException e) {
+            // the coordinator went away without saying goodbye
+        } catch (IOException e) {
+            System.err.println("Breeding worker failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Answers the messages of the coordinator until it ends the session.
+     *
+     * @param in    the input from the coordinator
+     * @param out   the output to the coordinator
+     * @throws IOException if the connection fails or a message is invalid
+     */
+    private void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        while (true) {
+            int message = in.readByte();
+            switch (message) {
+                case SETUP:
+                    readSetup(in);
+                    break;
+                case PARENTS:
+                    readParents(in);
+                    break;
+                case BATCH:
+                    breedBatch(in, out);
+                    break;
+                case CLOSE:
+                    return;
+                default:
+                    throw new IOException("Unknown message " + message + ".");
+            }
+        }
+    }
+
+    /**
+     * Reads the city set, the crossover and the seed of the session.
+     *
+     * @param in    the input from the coordinator
+     * @throws IOException if the message cannot be read or is invalid
+     */
+    private void readSetup(DataInputStream in) throws IOException {
+        citySet = CitySet.readFrom(in);
+        int crossoverIndex = in.readInt();
+        if (crossoverIndex < 0 || crossoverIndex >= Crossover.values().length)
+            throw new IOException("Unknown crossover " + crossoverIndex + ".");
+        crossover = Crossover.values()[crossoverIndex];
+        random = new SplittableRandom(in.readLong());
+
+        int cityNum = citySet.size();
+        scratch = new OperatorScratch(cityNum);
+        codec = new TourCodec(cityNum);
+        tour = new int[cityNum];
+        child = IntPath.slot(citySet);
+    }
+
+    /**
+     * Reads the parents of a generation, reusing the paths of earlier generations.
+     *
+     * @param in    the input from the coordinator
+     * @throws IOException if the message cannot be read or is invalid
+     */
+    private void readParents(DataInputStream in) throws IOException {
+        if (citySet == null)
+            throw new IOException("Parents received before the setup.");
+
+        parentNum = in.readInt();
+        if (parentNum > parents.length) {
+            IntPath[] grown = new IntPath[parentNum];
+            System.arraycopy(parents, 0, grown, 0, parents.length);
+            for (int i = parents.length; i < parentNum; i++)
+                grown[i] = IntPath.slot(citySet);
+            parents = grown;
+        }
+        for (int i = 0; i < parentNum; i++)
+            codec.read(in, parents[i], tour);
+    }
+
+    /**
+     * Breeds one child per parent pair of a batch and writes the children back, followed
+     * by the time spent breeding them, which the coordinator uses to size later batches.
+     *
+     * @param in    the input from the coordinator
+     * @param out   the output to the coordinator
+     * @throws IOException if the connection fails or a pair is invalid
+     */
+    private void breedBatch(DataInputStream in, DataOutputStream out) throws IOException {
+        int childNum = in.readInt();
+        long start = System.nanoTime();
+        for (int i = 0; i < childNum; i++) {
+            int parent1 = in.readInt();
+            int parent2 = in.readInt();
+            if (parent1 < 0 || parent1 >= parentNum || parent2 < 0 || parent2 >= parentNum)
+                throw new IOException("Invalid parent pair " + parent1 + ", " + parent2 + ".");
+
+            child.setToChild(crossover, parents[parent1], parents[parent2], scratch, random);
+            codec.write(out, child);
+        }
+        out.writeLong(System.nanoTime() - start);
+        out.flush();
+    }
+}
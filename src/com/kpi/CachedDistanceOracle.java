@@ -0,0 +1,73 @@
+package com.kpi;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A {@link DistanceOracle} that computes distances from the city coordinates on demand
+ * and remembers recently used edges in a small direct-mapped cache. It is meant for
+ * instances too large for any precomputed matrix.
+ * <p>
+ * Every cache slot packs the edge key and its distance into a single {@code long}, which
+ * is read and written in opaque mode. Opaque accesses are atomic even for longs, so
+ * concurrent readers never observe a key paired with another edge's distance, while they
+ * cost no more than plain accesses on 64-bit platforms.
+ */
+final class CachedDistanceOracle implements DistanceOracle {
+    /** The number of bits used for the distance part of a cache slot. */
+    private static final int DIST_BITS = 30;
+    /** The mask selecting the distance part of a cache slot. */
+    private static final long DIST_MASK = (1L << DIST_BITS) - 1;
+    /** Edge keys from this value on do not fit into a cache slot and are never cached. */
+    private static final long MAX_KEY = 1L << (Long.SIZE - DIST_BITS);
+    /** The handle through which the cache slots are accessed atomically. */
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /** The set of cities the distances are computed for. */
+    private final CitySet citySet;
+    /** The number of cities in the set. */
+    private final int cityNum;
+    /** The cache slots, only accessed through {@link #SLOT}; 0 marks an empty slot. */
+    private final long[] cache;
+    /** The mask selecting a slot from an edge hash. */
+    private final int slotMask;
+
+    /**
+     * Constructs the oracle for the cities of a set.
+     *
+     * @param citySet       the set of cities
+     * @param cacheBytes    the memory the edge cache may use
+     */
+    CachedDistanceOracle(CitySet citySet, long cacheBytes) {
+        this.citySet = citySet;
+        this.cityNum = citySet.size();
+
+        // round the slot count down to a power of two, at least one slot
+        long slots = Math.max(1, Math.min(1 << 24, cacheBytes / Long.BYTES));
+        cache = new long[Integer.highestOneBit((int) slots)];
+        slotMask = cache.length - 1;
+    }
+
+    @Override
+    public int distance(int from, int to) {
+        if (from == to)
+            return 0;
+
+        // key is the unordered edge, offset by one so that 0 never denotes a valid slot
+        long key = (long) Math.min(from, to) * cityNum + Math.max(from, to) + 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & slotMask;
+
+        long entry = (long) SLOT.getOpaque(cache, slot);
+        if (entry >>> DIST_BITS == key)
+            return (int) (entry & DIST_MASK);
+
+        int dist = citySet.calcDist(from, to);
+        if (key < MAX_KEY && dist <= DIST_MASK)
+            SLOT.setOpaque(cache, slot, key << DIST_BITS | dist);
+
+        return dist;
+    }
+
+    @Override
+    public Backend getBackend() { return Backend.ON_THE_FLY; }
+}
@@ -0,0 +1,261 @@
+package com.kpi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * A snapshot of a running {@link TravelSolution}: the tours of the whole generation,
+ * the seeds of the random number generators of the workers, the number of completed
+ * iterations, the best path found so far and the rest of the {@link RunProgress} the stop
+ * condition and the adaptive mutation depend on. Checkpoints are stored in a compact binary
+ * file guarded by a CRC-32 checksum and can be used to resume the run they were taken
+ * from or to warm-start a new run.
+ */
+public final class Checkpoint {
+    /** The first four bytes of every checkpoint file. */
+    private static final int MAGIC = 0x47414350;
+    /** The version of the file format; version 1 files hold no progress beyond the iteration. */
+    private static final int VERSION = 2;
+    /** The size of the fixed fields of version 1: six ints of header and the long checksum. */
+    private static final int FIXED_BYTES = 32;
+    /** The size of the progress fields added in version 2: one long and two ints. */
+    private static final int PROGRESS_BYTES = 16;
+
+    /** The number of cities of every tour. */
+    private final int cityNum;
+    /** The number of completed iterations. */
+    private final int iteration;
+    /** The seeds the random number generators of the workers continue with. */
+    private final long[] seeds;
+    /** The number of tours in the generation. */
+    private final int populationSize;
+    /** The tours of the generation, one after another. */
+    private final int[] tours;
+    /** The tour of the best path found so far. */
+    private final int[] bestTour;
+    /** The number of paths evaluated so far. */
+    private final long evaluations;
+    /** The number of generations since the best distance last improved. */
+    private final int stagnantGenerations;
+    /** The mutation percentage of the next generation, or -1 if unknown. */
+    private final int mutationPercent;
+
+    /**
+     * Constructs a checkpoint.
+     *
+     * @param cityNum           the number of cities of every tour
+     * @param iteration         the number of completed iterations
+     * @param seeds             the seeds the random number generators of the workers continue with
+     * @param populationSize    the number of tours in the generation
+     * @param tours             the tours of the generation, one after another
+     * @param bestTour          the tour of the best path found so far
+     */
+    Checkpoint(int cityNum, int iteration, long[] seeds, int populationSize, int[] tours, int[] bestTour) {
+        this(cityNum, iteration, seeds, populationSize, tours, bestTour, 0, 0, -1);
+    }
+
+    /**
+     * Constructs a checkpoint of a run together with its progress.
+     *
+     * @param cityNum               the number of cities of every tour
+     * @param iteration             the number of completed iterations
+     * @param seeds                 the seeds the random number generators of the workers continue with
+     * @param populationSize        the number of tours in the generation
+     * @param tours                 the tours of the generation, one after another
+     * @param bestTour              the tour of the best path found so far
+     * @param evaluations           the number of paths evaluated so far
+     * @param stagnantGenerations   the number of generations since the best distance last improved
+     * @param mutationPercent       the mutation percentage of the next generation, or -1 if unknown
+     */
+    Checkpoint(int cityNum, int iteration, long[] seeds, int populationSize, int[] tours, int[] bestTour,
+               long evaluations, int stagnantGenerations, int mutationPercent) {
+        this.cityNum = cityNum;
+        this.iteration = iteration;
+        this.seeds = seeds;
+        this.populationSize = populationSize;
+        this.tours = tours;
+        this.bestTour = bestTour;
+        this.evaluations = evaluations;
+        this.stagnantGenerations = stagnantGenerations;
+        this.mutationPercent = mutationPercent;
+    }
+
+    /**
+     * Reads a checkpoint from a file.
+     *
+     * @param fileName  the name of the checkpoint file
+     * @return the checkpoint stored in the file
+     * @throws IOException if the file cannot be read, is not a checkpoint or is corrupted
+     */
+    public static Checkpoint read(String fileName) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Checkpoint file " + fileName + " is too large.");
+
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining())
+                if (channel.read(buffer) < 0)
+                    break;
+            buffer.flip();
+        }
+
+        if (buffer.remaining() < FIXED_BYTES || buffer.getInt(0) != MAGIC)
+            throw new IOException("File " + fileName + " is not a checkpoint.");
+        int version = buffer.getInt(4);
+        if (version != 1 && version != VERSION)
+            throw new IOException("Checkpoint file " + fileName + " has unsupported version " + version + ".");
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.limit() - 8);
+        if (crc.getValue() != buffer.getLong(buffer.limit() - 8))
+            throw new IOException("Checkpoint file " + fileName + " is corrupted.");
+
+        buffer.position(8);
+        int cityNum = buffer.getInt();
+        int iteration = buffer.getInt();
+        long evaluations = version > 1 ? buffer.getLong() : 0;
+        int stagnantGenerations = version > 1 ? buffer.getInt() : 0;
+        int mutationPercent = version > 1 ? buffer.getInt() : -1;
+        long[] seeds = new long[buffer.getInt()];
+        for (int i = 0; i < seeds.length; i++)
+            seeds[i] = buffer.getLong();
+        int populationSize = buffer.getInt();
+        int[] tours = new int[populationSize * cityNum];
+        buffer.asIntBuffer().get(tours);
+        buffer.position(buffer.position() + tours.length * 4);
+        int[] bestTour = new int[cityNum];
+        buffer.asIntBuffer().get(bestTour);
+
+        return new Checkpoint(cityNum, iteration, seeds, populationSize, tours, bestTour,
+                evaluations, stagnantGenerations, mutationPercent);
+    }
+
+    /**
+     * Writes the checkpoint to a file atomically: the data goes to a temporary file next
+     * to the target, is forced to the disk and then replaces the target in one move, so
+     * a crash never leaves a partially written checkpoint behind.
+     *
+     * @param fileName  the name of the checkpoint file
+     * @throws IOException if the file cannot be written
+     */
+    void write(String fileName) throws IOException {
+        java.nio.file.Path file = Paths.get(fileName);
+        java.nio.file.Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_BYTES + PROGRESS_BYTES + seeds.length * 8 + (tours.length + bestTour.length) * 4);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(cityNum).putInt(iteration);
+        buffer.putLong(evaluations).putInt(stagnantGenerations).putInt(mutationPercent);
+        buffer.putInt(seeds.length);
+        for (long seed : seeds)
+            buffer.putLong(seed);
+        buffer.putInt(populationSize);
+        buffer.asIntBuffer().put(tours);
+        buffer.position(buffer.position() + tours.length * 4);
+        buffer.asIntBuffer().put(bestTour);
+        buffer.position(buffer.position() + bestTour.length * 4);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(true);
+        }
+
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns the number of cities of every tour.
+     *
+     * @return the number of cities
+     */
+    public int getCityNum() { return cityNum; }
+
+    /**
+     * Returns the number of iterations completed when the checkpoint was taken.
+     *
+     * @return the number of completed iterations
+     */
+    public int getIteration() { return iteration; }
+
+    /**
+     * Returns the number of tours in the stored generation.
+     *
+     * @return the size of the generation
+     */
+    public int getPopulationSize() { return populationSize; }
+
+    /**
+     * Returns the number of paths evaluated until the checkpoint was taken.
+     *
+     * @return the number of evaluations, 0 for checkpoints of version 1
+     */
+    long getEvaluations() { return evaluations; }
+
+    /**
+     * Returns the number of generations since the best distance last improved.
+     *
+     * @return the number of generations without improvement, 0 for checkpoints of version 1
+     */
+    int getStagnantGenerations() { return stagnantGenerations; }
+
+    /**
+     * Returns the mutation percentage of the generation after the checkpoint.
+     *
+     * @return the mutation percentage, or -1 if the checkpoint does not know it
+     */
+    int getMutationPercent() { return mutationPercent; }
+
+    /**
+     * Returns the seeds the random number generators of the workers continue with.
+     *
+     * @return the seeds, one per worker
+     */
+    long[] getSeeds() { return seeds; }
+
+    /**
+     * Creates the paths of the stored generation. The distances of all tours are
+     * evaluated at once, straight from the packed tours.
+     *
+     * @param citySet   the set of cities the tours visit
+     * @return the paths of the generation
+     */
+    IntPath[] toGeneration(CitySet citySet) {
+        int[] distances = new int[populationSize];
+        citySet.getTourEvaluator().evaluate(tours, populationSize, distances);
+
+        IntPath[] generation = new IntPath[populationSize];
+        for (int i = 0; i < populationSize; i++)
+            generation[i] = new IntPath(Arrays.copyOfRange(tours, i * cityNum, (i + 1) * cityNum), citySet, distances[i]);
+
+        return generation;
+    }
+
+    /**
+     * Creates the best path found until the checkpoint was taken.
+     *
+     * @param citySet   the set of cities the tour visits
+     * @return the best path
+     */
+    public IntPath getBest(CitySet citySet) {
+        return new IntPath(bestTour.clone(), citySet);
+    }
+}
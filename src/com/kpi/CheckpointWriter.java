@@ -0,0 +1,99 @@
+package com.kpi;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes the checkpoints of a run on a background thread, so the generation loop only
+ * pays for copying the tours into a snapshot. At most one checkpoint is written at a
+ * time; snapshots taken while a write is still in progress are skipped rather than queued.
+ */
+final class CheckpointWriter {
+    /** The name of the checkpoint file. */
+    private final String fileName;
+    /** The single background thread writing the checkpoints. */
+    private final ExecutorService executor;
+    /** Whether a checkpoint is being written. */
+    private final AtomicBoolean busy = new AtomicBoolean();
+    /** The first failure of a background write, or null. */
+    private volatile IOException failure;
+
+    /**
+     * Constructs a writer for a checkpoint file.
+     *
+     * @param fileName  the name of the checkpoint file
+     */
+    CheckpointWriter(String fileName) {
+        this.fileName = fileName;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Tells whether no checkpoint is being written, i.e. whether a new snapshot would be written.
+     *
+     * @return true if the writer is idle
+     */
+    boolean isIdle() { return !busy.get(); }
+
+    /**
+     * Starts writing a checkpoint in the background unless another one is still being written.
+     *
+     * @param checkpoint    the checkpoint to write
+     * @return true if the checkpoint is being written, false if it was skipped
+     */
+    boolean submit(Checkpoint checkpoint) {
+        if (!busy.compareAndSet(false, true))
+            return false;
+
+        executor.execute(() -> {
+            try {
+                checkpoint.write(fileName);
+            } catch (IOException e) {
+                if (failure == null)
+                    failure = e;
+            } finally {
+                busy.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Waits for the pending background write, then writes the final checkpoint of the run
+     * on the calling thread and stops the background thread.
+     *
+     * @param checkpoint    the final checkpoint
+     * @throws UncheckedIOException if this or an earlier checkpoint could not be written
+     */
+    void finish(Checkpoint checkpoint) {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null)
+            throw new UncheckedIOException("Method finish() in class \"CheckpointWriter\". Unable to write checkpoint " + fileName + ".", failure);
+
+        try {
+            checkpoint.write(fileName);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Method finish() in class \"CheckpointWriter\". Unable to write checkpoint " + fileName + ".", e);
+        }
+    }
+
+    /**
+     * Stops the background thread without waiting for the pending write, e.g. after the run failed.
+     */
+    void abort() {
+        executor.shutdownNow();
+    }
+}
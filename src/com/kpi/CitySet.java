@@ -1,7 +1,13 @@
 package com.kpi;
 
-import java.util.Random;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Vector;
+import java.util.random.RandomGenerator;
 
 import static java.lang.Math.PI;
 import static java.lang.Math.cos;
@@ -10,68 +16,389 @@ import static java.lang.Math.sin;
 /**
  * Represents a set of cities used in the Traveling Salesman Problem.
  * The cities are immutable during the program's execution and can be generated
- * either randomly or positioned on a circle.
+ * either randomly or positioned on a circle, or loaded from a TSPLIB file.
+ * Any number of independent sets can exist at once; {@link #getCitySet(int)} additionally
+ * provides a process-wide set used by the GUI.
  */
 public final class CitySet {
+    /** The default amount of memory, in bytes, a distance oracle may use. */
+    public static final long DEFAULT_DISTANCE_BUDGET = 64L << 20;
+    /** The largest edge cache, in bytes, used by the on-the-fly distance oracle. */
+    private static final long EDGE_CACHE_BYTES = 1L << 20;
+    /** The radius of the idealized sphere used by the GEO metric, in kilometres. */
+    private static final double GEO_RADIUS = 6378.388;
+
     /** Singleton instance of the CitySet. */
-    private static CitySet citySet;
+    private static volatile CitySet citySet;
     /** A collection of City objects representing the city set. */
     public Vector<City> cities;
+    /** The name of the set. */
+    private final String name;
+    /** The metric defining the distance between two cities. */
+    private final DistanceMetric metric;
+    /** The x-coordinates of the cities, indexed by their position in {@link #cities}. */
+    final double[] xCoord;
+    /** The y-coordinates of the cities, indexed by their position in {@link #cities}. */
+    final double[] yCoord;
+    /** The full distance matrix of an EXPLICIT set, null otherwise. */
+    private final int[] explicitDistances;
+    /** The latitudes of the cities in radians, only for the GEO metric. */
+    private final double[] latitudes;
+    /** The longitudes of the cities in radians, only for the GEO metric. */
+    private final double[] longitudes;
+    /** The distance oracle picked for this set from {@link #DEFAULT_DISTANCE_BUDGET}. */
+    private final DistanceOracle distanceOracle;
+    /** The evaluator of whole tours over this set. */
+    private final TourEvaluator tourEvaluator;
+    /** The nearest neighbours of every city, built on first use. */
+    private NeighborLists neighborLists;
+    /** The spatial index over the coordinates, built on first use. */
+    private KdTree spatialIndex;
+    /** The fingerprint of the set, computed on first use. */
+    private volatile String fingerprint;
 
     /**
-     * Private constructor to initialize the CitySet with a specified number of cities.
-     * Cities are positioned on a circle by default.
+     * Constructs a CitySet from the coordinates of its cities.
      *
-     * @param cityNum   the number of cities to generate
+     * @param name              the name of the set
+     * @param metric            the metric defining the distance between two cities
+     * @param xCoord            the x-coordinates of the cities
+     * @param yCoord            the y-coordinates of the cities
+     * @param explicitDistances the full distance matrix for the EXPLICIT metric, null otherwise
      */
-    private CitySet(int cityNum) {
+    CitySet(String name, DistanceMetric metric, double[] xCoord, double[] yCoord, int[] explicitDistances) {
+        int cityNum = xCoord.length;
+        this.name = name;
+        this.metric = metric;
+        this.xCoord = xCoord;
+        this.yCoord = yCoord;
+        this.explicitDistances = explicitDistances;
+
         cities = new Vector<>(cityNum);
-        generateCircPos(cityNum);
+        for (int i = 0; i < cityNum; i++)
+            cities.add(new City(i+1, (int) Math.round(xCoord[i]), (int) Math.round(yCoord[i])));
+
+        if (metric == DistanceMetric.GEO) {
+            latitudes = new double[cityNum];
+            longitudes = new double[cityNum];
+            for (int i = 0; i < cityNum; i++) {
+                latitudes[i] = geoRadians(xCoord[i]);
+                longitudes[i] = geoRadians(yCoord[i]);
+            }
+        } else {
+            latitudes = null;
+            longitudes = null;
+        }
+
+        distanceOracle = metric == DistanceMetric.EXPLICIT
+                ? new DenseDistanceMatrix(explicitDistances, cityNum)
+                : createDistanceOracle(chooseBackend(cityNum, DEFAULT_DISTANCE_BUDGET));
+        tourEvaluator = new TourEvaluator(this);
     }
 
     /**
-     * Generates city positions randomly within a 960x960 grid.
+     * Generates a set of cities positioned on a circle.
      *
      * @param cityNum   the number of cities to generate
+     * @return a new CitySet
      */
-    private void generateRandPos(int cityNum) {
-        Random random = new Random();
+    public static CitySet generateCircle(int cityNum) {
+        double rotAngle = 2 * PI / cityNum;
+        int radius = 300;
+        double[] xCoord = new double[cityNum];
+        double[] yCoord = new double[cityNum];
 
         for (int i = 0; i < cityNum; i++) {
-            cities.add(i, new City(i+1, random.nextInt(960) + 20, random.nextInt(960)+20));
+            xCoord[i] = (int) (500 + radius * cos(i*rotAngle));
+            yCoord[i] = (int) (500 + radius * sin(i*rotAngle));
         }
+        return new CitySet("circle" + cityNum, DistanceMetric.FLOOR_2D, xCoord, yCoord, null);
     }
 
     /**
-     * Generates city positions arranged in a circular formation.
+     * Generates a set of cities positioned randomly within a 960x960 grid.
      *
      * @param cityNum   the number of cities to generate
+     * @param random    the random number generator to use
+     * @return a new CitySet
      */
-    private void generateCircPos(int cityNum) {
-        double rotAngle = 2 * PI / cityNum;
-        int radius = 300;
-        int xPos, yPos;
+    public static CitySet generateRandom(int cityNum, RandomGenerator random) {
+        double[] xCoord = new double[cityNum];
+        double[] yCoord = new double[cityNum];
+
+        for (int i = 0; i < cityNum; i++) {
+            xCoord[i] = random.nextInt(960) + 20;
+            yCoord[i] = random.nextInt(960) + 20;
+        }
+        return new CitySet("random" + cityNum, DistanceMetric.FLOOR_2D, xCoord, yCoord, null);
+    }
+
+    /**
+     * Loads a symmetric TSP instance from a TSPLIB file. See {@link TspLibParser}.
+     *
+     * @param fileName  the name of the .tsp file
+     * @return a new CitySet
+     * @throws IOException if the file cannot be read or is not a supported TSPLIB instance
+     */
+    public static CitySet loadTspLib(String fileName) throws IOException {
+        return TspLibParser.parse(java.nio.file.Paths.get(fileName));
+    }
+
+    /**
+     * Writes the set in a binary form that {@link #readFrom(DataInput)} restores exactly,
+     * so that another process computes the same distances.
+     *
+     * @param out   the output to write to
+     * @throws IOException if the output cannot be written
+     */
+    void writeTo(DataOutput out) throws IOException {
+        int cityNum = size();
+        out.writeUTF(name);
+        out.writeInt(metric.ordinal());
+        out.writeInt(cityNum);
+        for (int i = 0; i < cityNum; i++) {
+            out.writeDouble(xCoord[i]);
+            out.writeDouble(yCoord[i]);
+        }
+        if (metric == DistanceMetric.EXPLICIT)
+            for (int distance : explicitDistances)
+                out.writeInt(distance);
+    }
 
+    /**
+     * Reads a set written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in    the input to read from
+     * @return the restored set
+     * @throws IOException if the input cannot be read or holds no valid set
+     */
+    static CitySet readFrom(DataInput in) throws IOException {
+        String name = in.readUTF();
+        int metricIndex = in.readInt();
+        int cityNum = in.readInt();
+        if (metricIndex < 0 || metricIndex >= DistanceMetric.values().length || cityNum < 1)
+            throw new IOException("Invalid city set " + name + ".");
+
+        DistanceMetric metric = DistanceMetric.values()[metricIndex];
+        double[] xCoord = new double[cityNum];
+        double[] yCoord = new double[cityNum];
         for (int i = 0; i < cityNum; i++) {
-            xPos = (int) (500 + radius * cos(i*rotAngle));
-            yPos = (int) (500 + radius * sin(i*rotAngle));
+            xCoord[i] = in.readDouble();
+            yCoord[i] = in.readDouble();
+        }
+        int[] explicitDistances = null;
+        if (metric == DistanceMetric.EXPLICIT) {
+            explicitDistances = new int[cityNum * cityNum];
+            for (int i = 0; i < explicitDistances.length; i++)
+                explicitDistances[i] = in.readInt();
+        }
+        return new CitySet(name, metric, xCoord, yCoord, explicitDistances);
+    }
+
+    /**
+     * Converts a coordinate in the TSPLIB DDD.MM format to radians.
+     *
+     * @param coord the coordinate, degrees before and minutes after the decimal point
+     * @return the coordinate in radians
+     */
+    private static double geoRadians(double coord) {
+        // TSPLIB prescribes this exact approximation of pi
+        int deg = (int) coord;
+        double min = coord - deg;
+        return 3.141592 * (deg + 5.0 * min / 3.0) / 180.0;
+    }
+
+    /**
+     * Calculates the distance between two cities according to the metric of the set.
+     *
+     * @param from  the index of the first city
+     * @param to    the index of the second city
+     * @return the distance between the cities
+     */
+    int calcDist(int from, int to) {
+        if (metric == DistanceMetric.EXPLICIT)
+            return explicitDistances[from * xCoord.length + to];
 
-            cities.add(i, new City(i+1, xPos, yPos));
+        if (metric == DistanceMetric.GEO) {
+            double q1 = Math.cos(longitudes[from] - longitudes[to]);
+            double q2 = Math.cos(latitudes[from] - latitudes[to]);
+            double q3 = Math.cos(latitudes[from] + latitudes[to]);
+            return (int) (GEO_RADIUS * Math.acos(0.5 * ((1.0 + q1) * q2 - (1.0 - q1) * q3)) + 1.0);
         }
+
+        double dx = xCoord[from] - xCoord[to];
+        double dy = yCoord[from] - yCoord[to];
+        return metric.round(dx * dx + dy * dy);
+    }
+
+    /**
+     * Returns the number of cities in the set.
+     *
+     * @return the number of cities
+     */
+    public int size() { return xCoord.length; }
+
+    /**
+     * Returns the exact x-coordinate of a city.
+     *
+     * @param city  the index of the city
+     * @return the x-coordinate, 0 for EXPLICIT sets
+     */
+    public double getX(int city) { return xCoord[city]; }
+
+    /**
+     * Returns the exact y-coordinate of a city.
+     *
+     * @param city  the index of the city
+     * @return the y-coordinate, 0 for EXPLICIT sets
+     */
+    public double getY(int city) { return yCoord[city]; }
+
+    /**
+     * Returns the name of the set.
+     *
+     * @return the name of the set
+     */
+    public String getName() { return name; }
+
+    /**
+     * Returns the metric defining the distance between two cities.
+     *
+     * @return the distance metric
+     */
+    public DistanceMetric getMetric() { return metric; }
+
+    /**
+     * Picks the most lookup-efficient distance oracle backend that fits into a memory budget.
+     *
+     * @param cityNum       the number of cities
+     * @param memoryBudget  the memory, in bytes, the oracle may use
+     * @return the backend to use
+     */
+    public static DistanceOracle.Backend chooseBackend(int cityNum, long memoryBudget) {
+        if (DenseDistanceMatrix.footprint(cityNum) <= memoryBudget)
+            return DistanceOracle.Backend.DENSE;
+        if (TriangularDistanceMatrix.footprint(cityNum) <= memoryBudget)
+            return DistanceOracle.Backend.TRIANGULAR;
+
+        return DistanceOracle.Backend.ON_THE_FLY;
+    }
+
+    /**
+     * Creates a new distance oracle over the cities of this set.
+     *
+     * @param backend   the backend to use
+     * @return a new distance oracle
+     */
+    public DistanceOracle createDistanceOracle(DistanceOracle.Backend backend) {
+        switch (backend) {
+            case DENSE:
+                return new DenseDistanceMatrix(this);
+            case TRIANGULAR:
+                return new TriangularDistanceMatrix(this);
+            default:
+                return new CachedDistanceOracle(this, EDGE_CACHE_BYTES);
+        }
+    }
+
+    /**
+     * Returns a fingerprint of the content of the set: a SHA-256 digest of the metric,
+     * the coordinates and, for the EXPLICIT metric, the distance matrix, truncated to
+     * 128 bits and written as 32 hexadecimal digits. Sets with the same cities in the
+     * same order have the same fingerprint regardless of their names or origin.
+     *
+     * @return the fingerprint, computed on first use
+     */
+    public String getFingerprint() {
+        String result = fingerprint;
+        if (result == null) {
+            int cityNum = size();
+            ByteBuffer buffer = ByteBuffer.allocate(8 + cityNum * 16 + (explicitDistances != null ? explicitDistances.length * 4 : 0));
+            buffer.putInt(metric.ordinal()).putInt(cityNum);
+            for (int i = 0; i < cityNum; i++)
+                buffer.putDouble(xCoord[i]).putDouble(yCoord[i]);
+            if (explicitDistances != null)
+                buffer.asIntBuffer().put(explicitDistances);
+
+            byte[] digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256").digest(buffer.array());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Method getFingerprint() in class \"CitySet\". SHA-256 is not available.", e);
+            }
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++)
+                hex.append(String.format("%02x", digest[i]));
+            fingerprint = result = hex.toString();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the distance oracle of this set, picked automatically from the
+     * {@link #DEFAULT_DISTANCE_BUDGET}.
+     *
+     * @return the distance oracle of this set
+     */
+    public DistanceOracle getDistanceOracle() { return distanceOracle; }
+
+    /**
+     * Returns the evaluator computing the lengths of whole tours over this set.
+     *
+     * @return the tour evaluator of this set
+     */
+    public TourEvaluator getTourEvaluator() { return tourEvaluator; }
+
+    /**
+     * Returns the k-d tree over the coordinates of the cities, building it on first use
+     * in O(n log n) time. Its nearest neighbours agree with the distance oracle only for
+     * {@link DistanceMetric#isPlanar() planar} metrics.
+     *
+     * @return the spatial index of this set
+     */
+    synchronized KdTree getSpatialIndex() {
+        if (spatialIndex == null)
+            spatialIndex = new KdTree(xCoord, yCoord);
+
+        return spatialIndex;
+    }
+
+    /**
+     * Returns the nearest neighbours of every city, building them on first use.
+     * Lists built for a larger number of neighbours are reused.
+     *
+     * @param k the number of neighbours needed per city, at most the number of cities minus one
+     * @return the neighbour lists of this set
+     */
+    synchronized NeighborLists getNeighborLists(int k) {
+        if (neighborLists == null || neighborLists.size() < k)
+            neighborLists = new NeighborLists(this, k);
+
+        return neighborLists;
     }
 
     /**
      * Provides access to the singleton instance of CitySet. If the instance does not exist,
-     * it is created with the specified number of cities.
+     * it is created with the specified number of cities positioned on a circle.
      *
      * @param cityNum   the number of cities to generate (only used when creating the instance)
      * @return  the singleton instance of CitySet
+     * @throws  IllegalArgumentException if the instance already exists with a different number of cities
      */
     public static CitySet getCitySet(int cityNum) {
-        if (citySet == null)
-            citySet = new CitySet(cityNum);
+        CitySet instance = citySet;
+        if (instance == null) {
+            synchronized (CitySet.class) {
+                instance = citySet;
+                if (instance == null)
+                    citySet = instance = generateCircle(cityNum);
+            }
+        }
+        if (instance.size() != cityNum)
+            throw new IllegalArgumentException("Method getCitySet() in class \"CitySet\". The city set already exists with " +
+                    instance.size() + " cities, unable to provide one with " + cityNum + ".");
 
-        return citySet;
+        return instance;
     }
 
     /**
@@ -0,0 +1,44 @@
+package com.kpi;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The built-in crossover operators.
+ */
+public enum Crossover implements CrossoverOperator {
+    /** Cycle crossover, the original crossover of the algorithm. */
+    CYCLE {
+        @Override
+        public void crossover(IntPath parent1, IntPath parent2, int[] child, OperatorScratch scratch, RandomGenerator random) {
+            Crossovers.cycle(parent1, parent2, child, scratch, random);
+        }
+    },
+    /** Order crossover (OX), keeping a range of the first parent and the relative order of the second. */
+    ORDER {
+        @Override
+        public void crossover(IntPath parent1, IntPath parent2, int[] child, OperatorScratch scratch, RandomGenerator random) {
+            Crossovers.order(parent1, parent2, child, scratch, random);
+        }
+    },
+    /** Partially mapped crossover (PMX), keeping a range of the first parent and the positions of the second. */
+    PARTIALLY_MAPPED {
+        @Override
+        public void crossover(IntPath parent1, IntPath parent2, int[] child, OperatorScratch scratch, RandomGenerator random) {
+            Crossovers.partiallyMapped(parent1, parent2, child, scratch, random);
+        }
+    },
+    /** Edge recombination crossover (ERX), building the child from the edges of both parents. */
+    EDGE_RECOMBINATION {
+        @Override
+        public void crossover(IntPath parent1, IntPath parent2, int[] child, OperatorScratch scratch, RandomGenerator random) {
+            Crossovers.edgeRecombination(parent1, parent2, child, scratch, random);
+        }
+    },
+    /** Edge assembly crossover (EAX) with a single AB-cycle, see {@link EdgeAssembly}. */
+    EDGE_ASSEMBLY {
+        @Override
+        public void crossover(IntPath parent1, IntPath parent2, int[] child, OperatorScratch scratch, RandomGenerator random) {
+            EdgeAssembly.crossover(parent1, parent2, child, scratch, random);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.kpi;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A recombination operator of {@link TravelSolution}. The built-in operators are the
+ * constants of {@link Crossover}; other operators can be plugged in with
+ * {@link TravelSolution#setOperators(CrossoverOperator, MutationOperator)}.
+ * An operator is shared by all worker threads and must keep its state in the
+ * {@link OperatorScratch} it is given.
+ */
+@FunctionalInterface
+public interface CrossoverOperator {
+    /**
+     * Recombines two parents into a child tour.
+     *
+     * @param parent1   the first parent
+     * @param parent2   the second parent
+     * @param child     receives the child, a permutation of all cities beginning with city 0
+     * @param scratch   the scratch memory of the calling worker
+     * @param random    the random number generator of the calling worker
+     */
+    void crossover(IntPath parent1, IntPath parent2, int[] child, OperatorScratch scratch, RandomGenerator random);
+}
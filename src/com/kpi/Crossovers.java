@@ -0,0 +1,235 @@
+package com.kpi;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The permutation crossovers behind {@link Crossover}. Every operator works on the tours
+ * and inverses of the parents and on the scratch memory of the worker only, so it allocates
+ * nothing. Ranges copied from a parent never include position 0, which keeps city 0 at
+ * the front of every child. Below three cities only one such tour exists, and the child
+ * is a copy of the first parent.
+ */
+final class Crossovers {
+    private Crossovers() {}
+
+    /**
+     * Cycle crossover: the child is a copy of the first parent in which one cycle of
+     * positions, starting at a random position, is taken from the second parent.
+     * Draws the same random numbers as {@link IntPath#crossoverWith(IntPath, RandomGenerator)}
+     * and yields the same child.
+     *
+     * @param parent1   the first parent
+     * @param parent2   the second parent
+     * @param child     receives the child
+     * @param scratch   the scratch memory of the worker
+     * @param random    the random number generator of the worker
+     */
+    static void cycle(IntPath parent1, IntPath parent2, int[] child, OperatorScratch scratch, RandomGenerator random) {
+        parent1.copyTourTo(child, 0);
+        if (scratch.size() < 3)
+            return;
+
+        int index = random.nextInt(scratch.size() - 1) + 1;
+        int startVal = parent1.cityAt(index);
+        int path2Val = parent2.cityAt(index);
+        while (path2Val != startVal) {
+            child[index] = path2Val;
+            index = parent1.positionOf(path2Val);
+            path2Val = parent2.cityAt(index);
+        }
+        child[index] = path2Val;
+    }
+
+    /**
+     * Order crossover: a random range of the first parent is kept in place and the other
+     * positions are filled from left to right with the remaining cities in the order of
+     * the second parent.
+     *
+     * @param parent1   the first parent
+     * @param parent2   the second parent
+     * @param child     receives the child
+     * @param scratch   the scratch memory of the worker
+     * @param random    the random number generator of the worker
+     */
+    static void order(IntPath parent1, IntPath parent2, int[] child, OperatorScratch scratch, RandomGenerator random) {
+        int cityNum = scratch.size();
+        if (cityNum < 3) {
+            parent1.copyTourTo(child, 0);
+            return;
+        }
+
+        int index1 = random.nextInt(cityNum - 1) + 1;
+        int index2 = random.nextInt(cityNum - 1) + 1;
+        int from = Math.min(index1, index2), to = Math.max(index1, index2);
+
+        int[] marks = scratch.marks();
+        int mark = scratch.newMark();
+        for (int i = from; i <= to; i++) {
+            child[i] = parent1.cityAt(i);
+            marks[child[i]] = mark;
+        }
+
+        int source = 0;
+        for (int i = 0; i < cityNum; i++) {
+            if (i == from) {
+                i = to;
+                continue;
+            }
+            while (marks[parent2.cityAt(source)] == mark)
+                source++;
+            child[i] = parent2.cityAt(source++);
+        }
+    }
+
+    /**
+     * Partially mapped crossover: a random range of the first parent is kept in place and
+     * the other positions take the city of the second parent, following the mapping between
+     * the parents inside the range whenever that city is already in the range.
+     *
+     * @param parent1   the first parent
+     * @param parent2   the second parent
+     * @param child     receives the child
+     * @param scratch   the scratch memory of the worker
+     * @param random    the random number generator of the worker
+     */
+    static void partiallyMapped(IntPath parent1, IntPath parent2, int[] child, OperatorScratch scratch, RandomGenerator random) {
+        int cityNum = scratch.size();
+        if (cityNum < 3) {
+            parent1.copyTourTo(child, 0);
+            return;
+        }
+
+        int index1 = random.nextInt(cityNum - 1) + 1;
+        int index2 = random.nextInt(cityNum - 1) + 1;
+        int from = Math.min(index1, index2), to = Math.max(index1, index2);
+
+        int[] marks = scratch.marks();
+        int mark = scratch.newMark();
+        for (int i = from; i <= to; i++) {
+            child[i] = parent1.cityAt(i);
+            marks[child[i]] = mark;
+        }
+
+        for (int i = 0; i < cityNum; i++) {
+            if (i == from) {
+                i = to;
+                continue;
+            }
+            int city = parent2.cityAt(i);
+            while (marks[city] == mark)
+                city = parent2.cityAt(parent1.positionOf(city));
+            child[i] = city;
+        }
+    }
+
+    /**
+     * Edge recombination crossover: the child starts at city 0 and always continues to the
+     * neighbour, in either parent, with the fewest unvisited neighbours left, breaking ties
+     * at random. When no neighbour is left, it continues to a random unvisited city.
+     *
+     * @param parent1   the first parent
+     * @param parent2   the second parent
+     * @param child     receives the child
+     * @param scratch   the scratch memory of the worker
+     * @param random    the random number generator of the worker
+     */
+    static void edgeRecombination(IntPath parent1, IntPath parent2, int[] child, OperatorScratch scratch, RandomGenerator random) {
+        int cityNum = scratch.size();
+        // up to four distinct neighbours per city, one buffer per slot
+        if (scratch.adjacency == null)
+            scratch.adjacency = new int[][] { scratch.buffer(0), scratch.buffer(1), scratch.buffer(2), scratch.buffer(3) };
+        int[][] adjacency = scratch.adjacency;
+        int[] adjacencySize = scratch.buffer(4);
+        // the unvisited cities in no particular order and the place of every city in that list
+        int[] unvisited = scratch.buffer(5);
+        int[] places = scratch.buffer(6);
+
+        for (int c = 0; c < cityNum; c++) {
+            adjacencySize[c] = 0;
+            unvisited[c] = c;
+            places[c] = c;
+        }
+        for (int c = 0; c < cityNum; c++) {
+            addNeighbor(adjacency, adjacencySize, c, parent1.cityAt(wrap(parent1.positionOf(c) + 1, cityNum)));
+            addNeighbor(adjacency, adjacencySize, c, parent1.cityAt(wrap(parent1.positionOf(c) + cityNum - 1, cityNum)));
+            addNeighbor(adjacency, adjacencySize, c, parent2.cityAt(wrap(parent2.positionOf(c) + 1, cityNum)));
+            addNeighbor(adjacency, adjacencySize, c, parent2.cityAt(wrap(parent2.positionOf(c) + cityNum - 1, cityNum)));
+        }
+
+        int unvisitedNum = cityNum;
+        int city = 0;
+        for (int i = 0; i < cityNum; i++) {
+            child[i] = city;
+
+            // drop the city from the unvisited list and from the lists of its neighbours
+            int place = places[city];
+            int last = unvisited[--unvisitedNum];
+            unvisited[place] = last;
+            places[last] = place;
+            for (int k = 0; k < adjacencySize[city]; k++)
+                removeNeighbor(adjacency, adjacencySize, adjacency[k][city], city);
+            if (unvisitedNum == 0)
+                break;
+
+            int next = -1;
+            int fewest = Integer.MAX_VALUE;
+            int ties = 0;
+            for (int k = 0; k < adjacencySize[city]; k++) {
+                int neighbor = adjacency[k][city];
+                int size = adjacencySize[neighbor];
+                if (size < fewest) {
+                    fewest = size;
+                    next = neighbor;
+                    ties = 1;
+                } else if (size == fewest && random.nextInt(++ties) == 0) {
+                    next = neighbor;
+                }
+            }
+            city = next >= 0 ? next : unvisited[random.nextInt(unvisitedNum)];
+        }
+    }
+
+    /**
+     * Adds a neighbour to the adjacency of a city unless it is already there.
+     *
+     * @param adjacency     the neighbour slots
+     * @param adjacencySize the number of neighbours of every city
+     * @param city          the city
+     * @param neighbor      the neighbour to add
+     */
+    private static void addNeighbor(int[][] adjacency, int[] adjacencySize, int city, int neighbor) {
+        for (int k = 0; k < adjacencySize[city]; k++)
+            if (adjacency[k][city] == neighbor)
+                return;
+
+        adjacency[adjacencySize[city]++][city] = neighbor;
+    }
+
+    /**
+     * Removes a neighbour from the adjacency of a city by moving the last neighbour into its slot.
+     *
+     * @param adjacency     the neighbour slots
+     * @param adjacencySize the number of neighbours of every city
+     * @param city          the city
+     * @param neighbor      the neighbour to remove
+     */
+    private static void removeNeighbor(int[][] adjacency, int[] adjacencySize, int city, int neighbor) {
+        for (int k = 0; k < adjacencySize[city]; k++) {
+            if (adjacency[k][city] == neighbor) {
+                adjacency[k][city] = adjacency[--adjacencySize[city]][city];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Maps a position in the range [0, 2 * cityNum) onto the tour.
+     *
+     * @param index     the position
+     * @param cityNum   the number of cities
+     * @return the position modulo the number of cities
+     */
+    private static int wrap(int index, int cityNum) {
+        return index >= cityNum ? index - cityNum : index;
+    }
+}
@@ -0,0 +1,62 @@
+package com.kpi;
+
+/**
+ * A {@link DistanceOracle} that precomputes the distance of every ordered pair of cities
+ * into a flat row-major array. Lookups are a single array access.
+ */
+final class DenseDistanceMatrix implements DistanceOracle {
+    /** The distances, distances[from * cityNum + to]. */
+    private final int[] distances;
+    /** The number of cities in the matrix. */
+    private final int cityNum;
+
+    /**
+     * Constructs the matrix for the cities of a set.
+     *
+     * @param citySet   the set of cities
+     */
+    DenseDistanceMatrix(CitySet citySet) {
+        cityNum = citySet.size();
+        if (footprint(cityNum) / Integer.BYTES > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Unable to build a dense distance matrix for " + cityNum + " cities.");
+
+        distances = new int[cityNum * cityNum];
+
+        for (int i = 0; i < cityNum; i++) {
+            for (int j = 0; j < i; j++) {
+                int dist = citySet.calcDist(i, j);
+                distances[i * cityNum + j] = dist;
+                distances[j * cityNum + i] = dist;
+            }
+        }
+    }
+
+    /**
+     * Wraps an already computed matrix.
+     *
+     * @param distances the distances, distances[from * cityNum + to]
+     * @param cityNum   the number of cities in the matrix
+     */
+    DenseDistanceMatrix(int[] distances, int cityNum) {
+        this.distances = distances;
+        this.cityNum = cityNum;
+    }
+
+    /**
+     * Returns the number of bytes the matrix needs for the given number of cities.
+     *
+     * @param cityNum   the number of cities
+     * @return the size of the matrix in bytes
+     */
+    static long footprint(int cityNum) {
+        return (long) cityNum * cityNum * Integer.BYTES;
+    }
+
+    @Override
+    public int distance(int from, int to) {
+        return distances[from * cityNum + to];
+    }
+
+    @Override
+    public Backend getBackend() { return Backend.DENSE; }
+}
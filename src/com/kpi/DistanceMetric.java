@@ -0,0 +1,56 @@
+package com.kpi;
+
+/**
+ * The ways the distance between two cities of a {@link CitySet} can be defined.
+ * Apart from {@link #FLOOR_2D} they follow the edge weight types of TSPLIB.
+ */
+public enum DistanceMetric {
+    /** Euclidean distance truncated to an integer, used by the generated city sets. */
+    FLOOR_2D,
+    /** Euclidean distance rounded to the nearest integer (TSPLIB EUC_2D). */
+    EUC_2D,
+    /** Euclidean distance rounded up to the next integer (TSPLIB CEIL_2D). */
+    CEIL_2D,
+    /** Geographical distance on an idealized sphere, coordinates in DDD.MM format (TSPLIB GEO). */
+    GEO,
+    /** Pseudo-Euclidean distance (TSPLIB ATT). */
+    ATT,
+    /** Distances given explicitly as a matrix (TSPLIB EXPLICIT). */
+    EXPLICIT;
+
+    /**
+     * Tells whether the distance grows with the Euclidean distance of the coordinates, so
+     * that a spatial index over the coordinates finds the nearest cities under this metric.
+     *
+     * @return true for the Euclidean metrics, false for GEO and EXPLICIT
+     */
+    public boolean isPlanar() {
+        return this != GEO && this != EXPLICIT;
+    }
+
+    /**
+     * Rounds the Euclidean length of an edge to the integer distance of this metric. This is
+     * the only place the rounding rules live; every planar distance goes through it.
+     *
+     * @param squared   the squared Euclidean length of the edge
+     * @return the rounded length
+     * @throws IllegalStateException if the metric is not planar
+     */
+    int round(double squared) {
+        switch (this) {
+            case FLOOR_2D:
+                return (int) Math.sqrt(squared);
+            case EUC_2D:
+                return (int) (Math.sqrt(squared) + 0.5);
+            case CEIL_2D:
+                return (int) Math.ceil(Math.sqrt(squared));
+            case ATT:
+                double rij = Math.sqrt(squared / 10.0);
+                int tij = (int) (rij + 0.5);
+                return tij < rij ? tij + 1 : tij;
+            default:
+                throw new IllegalStateException("Method round() in class \"DistanceMetric\". Distances of " + this +
+                        " are not computed from coordinates.");
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.kpi;
+
+/**
+ * Provides the distance between two cities of a {@link CitySet}.
+ * Cities are referred to by their index in {@link CitySet#cities}. Implementations differ
+ * only in how much memory they spend to avoid recomputing distances.
+ */
+public interface DistanceOracle {
+    /**
+     * The storage strategies a distance oracle can use.
+     */
+    enum Backend {
+        /** A full n x n matrix of precomputed distances. */
+        DENSE,
+        /** The lower triangle of the distance matrix, packed into 16-bit cells when possible. */
+        TRIANGULAR,
+        /** Distances computed on demand and kept in a small edge cache. */
+        ON_THE_FLY
+    }
+
+    /**
+     * Returns the distance between two cities.
+     *
+     * @param from  the index of the first city
+     * @param to    the index of the second city
+     * @return the distance between the cities
+     */
+    int distance(int from, int to);
+
+    /**
+     * Returns the backend used by this oracle.
+     *
+     * @return the backend of this oracle
+     */
+    Backend getBackend();
+}
@@ -0,0 +1,354 @@
+package com.kpi;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * An edge assembly crossover (EAX) in its single-cycle form. The edges in which the
+ * parents differ are walked alternately, an edge of the first parent followed by one of
+ * the second, until the walk closes a cycle (an AB-cycle). The child is the first parent
+ * with the first-parent edges of that cycle replaced by its second-parent edges, which
+ * keeps every city at degree two but may split the tour into subtours. The subtours are
+ * then merged, smallest first, by the cheapest exchange of two edges towards a nearest
+ * neighbour in another subtour. Children therefore consist almost entirely of parent
+ * edges plus a few short connecting ones.
+ */
+final class EdgeAssembly {
+    /** The number of nearest neighbours tried when merging subtours. */
+    private static final int MERGE_NEIGHBORS = 10;
+
+    private EdgeAssembly() {}
+
+    /**
+     * Recombines two parents.
+     *
+     * @param parent1   the first parent, the base of the child
+     * @param parent2   the second parent, the source of the AB-cycle's new edges
+     * @param child     receives the child
+     * @param scratch   the scratch memory of the worker
+     * @param random    the random number generator of the worker
+     */
+    static void crossover(IntPath parent1, IntPath parent2, int[] child, OperatorScratch scratch, RandomGenerator random) {
+        int cityNum = scratch.size();
+        parent1.copyTourTo(child, 0);
+        if (cityNum < 5)
+            return;
+
+        // the child as two links per city, initially the first parent
+        int[] link1 = scratch.buffer(0);
+        int[] link2 = scratch.buffer(1);
+        for (int c = 0; c < cityNum; c++) {
+            int pos = parent1.positionOf(c);
+            link1[c] = parent1.cityAt(pos == 0 ? cityNum - 1 : pos - 1);
+            link2[c] = parent1.cityAt(pos == cityNum - 1 ? 0 : pos + 1);
+        }
+
+        if (!applyCycle(parent1, parent2, link1, link2, scratch, random))
+            return;
+        mergeSubtours(parent1.getCitySet(), link1, link2, scratch);
+
+        // walk the single remaining tour from city 0
+        int prev = -1;
+        int city = 0;
+        for (int i = 0; i < cityNum; i++) {
+            child[i] = city;
+            int next = link1[city] != prev ? link1[city] : link2[city];
+            prev = city;
+            city = next;
+        }
+    }
+
+    /**
+     * Finds a random AB-cycle and applies it to the links of the child.
+     *
+     * @param parent1   the first parent
+     * @param parent2   the second parent
+     * @param link1     the first links of the child
+     * @param link2     the second links of the child
+     * @param scratch   the scratch memory of the worker
+     * @param random    the random number generator of the worker
+     * @return false if the parents are the same tour, so there is no AB-cycle
+     */
+    private static boolean applyCycle(IntPath parent1, IntPath parent2, int[] link1, int[] link2,
+                                      OperatorScratch scratch, RandomGenerator random) {
+        int cityNum = scratch.size();
+        int[] marks = scratch.marks();
+        int mark = scratch.newMark();
+        // the first and second place of every city in the walk, valid while it carries the mark
+        int[] firstVisit = scratch.buffer(4);
+        int[] secondVisit = scratch.buffer(5);
+        // the used edges of every city: bit 0 and 1 for the edges of the first parent, 2 and 3 for the second
+        int[] used = scratch.buffer(6);
+        if (scratch.walk == null)
+            scratch.walk = new int[2 * cityNum + 2];
+        int[] walk = scratch.walk;
+
+        // start at a random city with an edge the second parent lacks
+        int start = random.nextInt(cityNum);
+        int checked = 0;
+        while (differingEdges(parent1, parent2, start, cityNum) == 0) {
+            if (++checked == cityNum)
+                return false;
+            start = start + 1 == cityNum ? 0 : start + 1;
+        }
+
+        int length = 0;
+        int city = start;
+        marks[city] = mark;
+        firstVisit[city] = 0;
+        secondVisit[city] = -1;
+        used[city] = 0;
+        walk[length++] = city;
+
+        int cycleStart;
+        while (true) {
+            // even steps follow an edge of the first parent, odd steps one of the second
+            boolean firstParent = (length - 1) % 2 == 0;
+            IntPath from = firstParent ? parent1 : parent2;
+            IntPath other = firstParent ? parent2 : parent1;
+            int shift = firstParent ? 0 : 2;
+
+            int pos = from.positionOf(city);
+            int prevCity = from.cityAt(pos == 0 ? cityNum - 1 : pos - 1);
+            int nextCity = from.cityAt(pos == cityNum - 1 ? 0 : pos + 1);
+            boolean prevFree = (used[city] >> shift & 1) == 0 && !hasEdge(other, city, prevCity, cityNum);
+            boolean nextFree = (used[city] >> shift & 2) == 0 && !hasEdge(other, city, nextCity, cityNum);
+            if (!prevFree && !nextFree)
+                return false;
+
+            boolean takePrev = prevFree && (!nextFree || random.nextBoolean());
+            int next = takePrev ? prevCity : nextCity;
+            used[city] |= (takePrev ? 1 : 2) << shift;
+
+            if (marks[next] != mark) {
+                marks[next] = mark;
+                firstVisit[next] = -1;
+                secondVisit[next] = -1;
+                used[next] = 0;
+            }
+            // the edge as seen from the other end is the opposite slot
+            int nextPos = from.positionOf(next);
+            boolean backIsPrev = from.cityAt(nextPos == 0 ? cityNum - 1 : nextPos - 1) == city;
+            used[next] |= (backIsPrev ? 1 : 2) << shift;
+
+            int place = length;
+            walk[length++] = next;
+            city = next;
+
+            // the walk closes an AB-cycle when it returns to a city an even number of steps later
+            if (firstVisit[next] >= 0 && (place - firstVisit[next]) % 2 == 0) {
+                cycleStart = firstVisit[next];
+                break;
+            }
+            if (secondVisit[next] >= 0 && (place - secondVisit[next]) % 2 == 0) {
+                cycleStart = secondVisit[next];
+                break;
+            }
+            if (firstVisit[next] < 0)
+                firstVisit[next] = place;
+            else
+                secondVisit[next] = place;
+        }
+
+        // remove the first-parent edges of the cycle, then add its second-parent edges;
+        // the edge leaving place i of the walk belongs to the first parent if i is even
+        int firstParentEdge = cycleStart % 2 == 0 ? cycleStart : cycleStart + 1;
+        int secondParentEdge = cycleStart % 2 == 0 ? cycleStart + 1 : cycleStart;
+        for (int i = firstParentEdge; i < length - 1; i += 2)
+            unlink(link1, link2, walk[i], walk[i + 1]);
+        for (int i = secondParentEdge; i < length - 1; i += 2)
+            link(link1, link2, walk[i], walk[i + 1]);
+        return true;
+    }
+
+    /**
+     * Merges the subtours of the child into one tour. The smallest subtour is joined with
+     * another one by the exchange of two edges that adds the least length, trying the
+     * nearest neighbours of its cities first and all other cities if none of them lies
+     * in another subtour.
+     *
+     * @param citySet   the set of cities
+     * @param link1     the first links of the child
+     * @param link2     the second links of the child
+     * @param scratch   the scratch memory of the worker
+     */
+    private static void mergeSubtours(CitySet citySet, int[] link1, int[] link2, OperatorScratch scratch) {
+        int cityNum = scratch.size();
+        int[] labels = scratch.buffer(7);
+        // a city and the size of every subtour, indexed by label
+        int[] starts = scratch.buffer(2);
+        int[] sizes = scratch.buffer(3);
+
+        int[] marks = scratch.marks();
+        int mark = scratch.newMark();
+        int subtourNum = 0;
+        for (int c = 0; c < cityNum; c++) {
+            if (marks[c] == mark)
+                continue;
+            starts[subtourNum] = c;
+            sizes[subtourNum] = relabel(link1, link2, c, labels, subtourNum, marks, mark);
+            subtourNum++;
+        }
+        if (subtourNum == 1)
+            return;
+
+        DistanceOracle oracle = citySet.getDistanceOracle();
+        if (scratch.neighborLists == null)
+            scratch.neighborLists = citySet.getNeighborLists(Math.min(MERGE_NEIGHBORS, cityNum - 1));
+        NeighborLists neighborLists = scratch.neighborLists;
+        int neighborNum = Math.min(MERGE_NEIGHBORS, neighborLists.size());
+
+        for (int remaining = subtourNum; remaining > 1; remaining--) {
+            int smallest = -1;
+            for (int s = 0; s < subtourNum; s++)
+                if (sizes[s] > 0 && (smallest < 0 || sizes[s] < sizes[smallest]))
+                    smallest = s;
+
+            // the best exchange found: remove (u, u2) and (v, v2), add (u, v) and (u2, v2)
+            long bestDelta = Long.MAX_VALUE;
+            int bestU = -1, bestU2 = -1, bestV = -1, bestV2 = -1;
+            for (int pass = 0; pass < 2 && bestU < 0; pass++) {
+                int prev = -1;
+                int u = starts[smallest];
+                for (int i = 0; i < sizes[smallest]; i++) {
+                    int candidateNum = pass == 0 ? neighborNum : cityNum;
+                    for (int rank = 0; rank < candidateNum; rank++) {
+                        int v = pass == 0 ? neighborLists.neighbor(u, rank) : rank;
+                        if (labels[v] == smallest)
+                            continue;
+                        for (int a = 0; a < 2; a++) {
+                            int u2 = a == 0 ? link1[u] : link2[u];
+                            int removedU = oracle.distance(u, u2);
+                            for (int b = 0; b < 2; b++) {
+                                int v2 = b == 0 ? link1[v] : link2[v];
+                                long base = (long) oracle.distance(u, v) - removedU - oracle.distance(v, v2);
+                                long delta = base + oracle.distance(u2, v2);
+                                if (delta < bestDelta) {
+                                    bestDelta = delta;
+                                    bestU = u; bestU2 = u2; bestV = v; bestV2 = v2;
+                                }
+                                // the mirrored exchange adds (u, v2) and (u2, v) instead
+                                delta = (long) oracle.distance(u, v2) + oracle.distance(u2, v) - removedU - oracle.distance(v, v2);
+                                if (delta < bestDelta) {
+                                    bestDelta = delta;
+                                    bestU = u; bestU2 = u2; bestV = v2; bestV2 = v;
+                                }
+                            }
+                        }
+                    }
+                    int next = link1[u] != prev ? link1[u] : link2[u];
+                    prev = u;
+                    u = next;
+                }
+            }
+
+            // the smallest subtour joins the other one before the links change
+            int target = labels[bestV];
+            sizes[target] += sizes[smallest];
+            sizes[smallest] = 0;
+            relabel(link1, link2, starts[smallest], labels, target, marks, scratch.newMark());
+
+            unlink(link1, link2, bestU, bestU2);
+            unlink(link1, link2, bestV, bestV2);
+            link(link1, link2, bestU, bestV);
+            link(link1, link2, bestU2, bestV2);
+        }
+    }
+
+    /**
+     * Assigns a label to every city of a subtour.
+     *
+     * @param link1     the first links of the child
+     * @param link2     the second links of the child
+     * @param start     a city of the subtour
+     * @param labels    the labels of the cities
+     * @param label     the label to assign
+     * @param marks     the marks of the cities, set for every city of the subtour
+     * @param mark      the current mark
+     * @return the number of cities in the subtour
+     */
+    private static int relabel(int[] link1, int[] link2, int start, int[] labels, int label, int[] marks, int mark) {
+        int size = 0;
+        int prev = -1;
+        int city = start;
+        do {
+            labels[city] = label;
+            marks[city] = mark;
+            size++;
+            int next = link1[city] != prev ? link1[city] : link2[city];
+            prev = city;
+            city = next;
+        } while (city != start);
+        return size;
+    }
+
+    /**
+     * Counts the edges of a city in the first parent that the second parent lacks.
+     *
+     * @param parent1   the first parent
+     * @param parent2   the second parent
+     * @param city      the city
+     * @param cityNum   the number of cities
+     * @return the number of differing edges, 0 to 2
+     */
+    private static int differingEdges(IntPath parent1, IntPath parent2, int city, int cityNum) {
+        int pos = parent1.positionOf(city);
+        int count = 0;
+        if (!hasEdge(parent2, city, parent1.cityAt(pos == 0 ? cityNum - 1 : pos - 1), cityNum))
+            count++;
+        if (!hasEdge(parent2, city, parent1.cityAt(pos == cityNum - 1 ? 0 : pos + 1), cityNum))
+            count++;
+        return count;
+    }
+
+    /**
+     * Checks whether two cities are neighbours in a tour.
+     *
+     * @param path      the tour
+     * @param a         the first city
+     * @param b         the second city
+     * @param cityNum   the number of cities
+     * @return true if the tour contains the edge (a, b)
+     */
+    private static boolean hasEdge(IntPath path, int a, int b, int cityNum) {
+        int pos = path.positionOf(a);
+        return path.cityAt(pos == 0 ? cityNum - 1 : pos - 1) == b || path.cityAt(pos == cityNum - 1 ? 0 : pos + 1) == b;
+    }
+
+    /**
+     * Removes the edge between two cities from the links of the child.
+     *
+     * @param link1 the first links of the child
+     * @param link2 the second links of the child
+     * @param a     the first city
+     * @param b     the second city
+     */
+    private static void unlink(int[] link1, int[] link2, int a, int b) {
+        if (link1[a] == b)
+            link1[a] = -1;
+        else
+            link2[a] = -1;
+        if (link1[b] == a)
+            link1[b] = -1;
+        else
+            link2[b] = -1;
+    }
+
+    /**
+     * Adds an edge between two cities to the free links of the child.
+     *
+     * @param link1 the first links of the child
+     * @param link2 the second links of the child
+     * @param a     the first city
+     * @param b     the second city
+     */
+    private static void link(int[] link1, int[] link2, int a, int b) {
+        if (link1[a] < 0)
+            link1[a] = b;
+        else
+            link2[a] = b;
+        if (link1[b] < 0)
+            link1[b] = a;
+        else
+            link2[b] = a;
+    }
+}
@@ -0,0 +1,187 @@
+package com.kpi;
+
+/**
+ * An indexed min-max heap over the distances of a fixed population, used by the
+ * steady-state scheme of {@link TravelSolution}. The heap holds the indices of the
+ * population's places; even levels are ordered by the shortest and odd levels by the
+ * longest distance, so both the best and the worst path are found in constant time.
+ * When the path at a place is replaced, {@link #update(int)} restores the order in
+ * O(log n) through the position of the place in the heap.
+ * A heap is only used by the thread evolving its population.
+ */
+final class FitnessHeap {
+    /** The population whose places are ordered. */
+    private final IntPath[] population;
+    /** The places of the population in heap order. */
+    private final int[] heap;
+    /** The position of every place in the heap. */
+    private final int[] position;
+
+    /**
+     * Builds a heap over all places of a population in linear time.
+     *
+     * @param population    the population; the heap reads it but never changes it
+     */
+    FitnessHeap(IntPath[] population) {
+        this.population = population;
+        int size = population.length;
+        heap = new int[size];
+        position = new int[size];
+        for (int i = 0; i < size; i++) {
+            heap[i] = i;
+            position[i] = i;
+        }
+        for (int i = size / 2 - 1; i >= 0; i--)
+            trickleDown(i);
+    }
+
+    /**
+     * Returns the place of the shortest path.
+     *
+     * @return the index in the population
+     */
+    int best() { return heap[0]; }
+
+    /**
+     * Returns the place of the longest path.
+     *
+     * @return the index in the population
+     */
+    int worst() {
+        if (heap.length == 1)
+            return heap[0];
+        if (heap.length == 2)
+            return heap[1];
+        return distanceAt(1) >= distanceAt(2) ? heap[1] : heap[2];
+    }
+
+    /**
+     * Restores the order after the path at a place of the population was replaced.
+     *
+     * @param place the index in the population whose path changed
+     */
+    void update(int place) {
+        int i = position[place];
+        if (!pushUp(i))
+            trickleDown(i);
+    }
+
+    /**
+     * Moves the entry at a heap position up while it violates the order of its ancestors.
+     * If it swaps with its parent, the parent lands on a level of the other kind above
+     * descendants it may not bound, so it is moved down again.
+     *
+     * @param i the heap position
+     * @return true if the entry moved
+     */
+    private boolean pushUp(int i) {
+        if (i == 0)
+            return false;
+
+        int parent = (i - 1) / 2;
+        if (isMinLevel(i)) {
+            if (distanceAt(i) > distanceAt(parent)) {
+                swap(i, parent);
+                pushUp(parent, false);
+                trickleDown(i);
+                return true;
+            }
+            return pushUp(i, true);
+        }
+        if (distanceAt(i) < distanceAt(parent)) {
+            swap(i, parent);
+            pushUp(parent, true);
+            trickleDown(i);
+            return true;
+        }
+        return pushUp(i, false);
+    }
+
+    /**
+     * Moves the entry at a heap position up through its grandparents on the levels of
+     * the same kind.
+     *
+     * @param i     the heap position
+     * @param min   true on min levels, false on max levels
+     * @return true if the entry moved
+     */
+    private boolean pushUp(int i, boolean min) {
+        boolean moved = false;
+        while (i > 2) {
+            int grandparent = ((i - 1) / 2 - 1) / 2;
+            if (min ? distanceAt(i) >= distanceAt(grandparent) : distanceAt(i) <= distanceAt(grandparent))
+                break;
+            swap(i, grandparent);
+            i = grandparent;
+            moved = true;
+        }
+        return moved;
+    }
+
+    /**
+     * Moves the entry at a heap position down while it violates the order of its descendants.
+     *
+     * @param i the heap position
+     */
+    private void trickleDown(int i) {
+        boolean min = isMinLevel(i);
+        int size = heap.length;
+        while (2 * i + 1 < size) {
+            // the most extreme of the up to two children and four grandchildren
+            int m = 2 * i + 1;
+            int last = Math.min(4 * i + 6, size - 1);
+            for (int j = 2 * i + 2; j <= last; j++) {
+                if (j > 2 * i + 2 && j < 4 * i + 3)
+                    continue;
+                if (min ? distanceAt(j) < distanceAt(m) : distanceAt(j) > distanceAt(m))
+                    m = j;
+            }
+
+            if (min ? distanceAt(m) >= distanceAt(i) : distanceAt(m) <= distanceAt(i))
+                return;
+            swap(m, i);
+            if (m <= 2 * i + 2)
+                return;
+
+            // a grandchild moved up; the entry may now violate the order of its new parent
+            int parent = (m - 1) / 2;
+            if (min ? distanceAt(m) > distanceAt(parent) : distanceAt(m) < distanceAt(parent))
+                swap(m, parent);
+            i = m;
+        }
+    }
+
+    /**
+     * Tells whether a heap position lies on a min level.
+     *
+     * @param i the heap position
+     * @return true on even levels
+     */
+    private static boolean isMinLevel(int i) {
+        return (31 - Integer.numberOfLeadingZeros(i + 1)) % 2 == 0;
+    }
+
+    /**
+     * Returns the distance of the path whose place is at a heap position.
+     *
+     * @param i the heap position
+     * @return the distance
+     */
+    private int distanceAt(int i) {
+        return population[heap[i]].getDistance();
+    }
+
+    /**
+     * Swaps the entries at two heap positions.
+     *
+     * @param i the first heap position
+     * @param j the second heap position
+     */
+    private void swap(int i, int j) {
+        int place = heap[i];
+        heap[i] = heap[j];
+        heap[j] = place;
+        position[heap[i]] = i;
+        position[heap[j]] = j;
+    }
+}
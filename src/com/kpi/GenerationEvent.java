@@ -0,0 +1,77 @@
+package com.kpi;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A JDK Flight Recorder event spanning one generation, with the time spent in each of its
+ * phases. It is only filled in while a recording has the event enabled, e.g. after starting
+ * the JVM with {@code -XX:StartFlightRecording}.
+ */
+@Name("com.kpi.Generation")
+@Label("Generation")
+@Category("Genetic Algorithm")
+@Description("Breeding, mutation and evaluation of one generation")
+@StackTrace(false)
+final class GenerationEvent extends Event {
+    /** The island the generation belongs to, 0 for a single population. */
+    @Label("Island")
+    int island;
+
+    /** The one-based number of the iteration. */
+    @Label("Iteration")
+    int iteration;
+
+    /** The time spent selecting the parents. */
+    @Label("Selection Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long selectionNanos;
+
+    /** The time spent breeding children and rejecting duplicates. */
+    @Label("Crossover Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long crossoverNanos;
+
+    /** The time spent mutating paths. */
+    @Label("Mutation Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long mutationNanos;
+
+    /** The time spent in the local search stage. */
+    @Label("Local Search Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long localSearchNanos;
+
+    /** The number of children bred, including rejected duplicates. */
+    @Label("Children Bred")
+    int childrenBred;
+
+    /** The number of children rejected as duplicates. */
+    @Label("Duplicates Rejected")
+    int duplicatesRejected;
+
+    /** The memory allocated for the generation. */
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    /** The shortest distance in the generation. */
+    @Label("Best Distance")
+    int bestDistance;
+
+    /** The mean distance of the generation. */
+    @Label("Mean Distance")
+    double meanDistance;
+
+    /** The share of distinct tours in the generation, between 0 and 1. */
+    @Label("Diversity")
+    @Percentage
+    double diversity;
+}
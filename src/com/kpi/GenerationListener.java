@@ -0,0 +1,16 @@
+package com.kpi;
+
+/**
+ * Receives the statistics of every generation while {@link TravelSolution#findSolution()} runs.
+ * Listeners are called on the thread that produced the generation; in the island model
+ * that is the island's own thread, so listeners must then be thread-safe.
+ */
+@FunctionalInterface
+public interface GenerationListener {
+    /**
+     * Called once a generation has been bred, mutated and evaluated.
+     *
+     * @param stats the statistics of the generation
+     */
+    void onGeneration(GenerationStats stats);
+}
@@ -0,0 +1,154 @@
+package com.kpi;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the per-phase measurements of one generation for {@link SolverMetrics} and the
+ * {@link GenerationEvent} of the flight recorder. A profile is only created while one of
+ * them is listening, so an uninstrumented run merely checks for null once per phase.
+ */
+final class GenerationProfile {
+    /** The flight recorder event of the generation. */
+    private final GenerationEvent event;
+    /** The metrics the generation is recorded in, or null. */
+    private final SolverMetrics metrics;
+    /** The {@link System#nanoTime()} at which the generation started. */
+    private final long startNanos;
+    /** The bytes allocated by the generation thread before the generation started. */
+    private final long startAllocated;
+    /** The bytes allocated by worker threads for the generation. */
+    private final LongAdder workerAllocated = new LongAdder();
+
+    /** The time spent selecting the parents. */
+    long selectionNanos;
+    /** The time spent breeding children and rejecting duplicates. */
+    long crossoverNanos;
+    /** The time spent mutating paths. */
+    long mutationNanos;
+    /** The time spent in the local search stage. */
+    long localSearchNanos;
+    /** The number of children bred, including rejected duplicates. */
+    int childrenBred;
+    /** The number of children rejected as duplicates. */
+    int duplicatesRejected;
+
+    /**
+     * Constructs a started profile.
+     *
+     * @param event     the started flight recorder event
+     * @param metrics   the metrics the generation is recorded in, or null
+     */
+    private GenerationProfile(GenerationEvent event, SolverMetrics metrics) {
+        this.event = event;
+        this.metrics = metrics;
+        this.startNanos = System.nanoTime();
+        this.startAllocated = allocatedBytes();
+    }
+
+    /**
+     * Starts profiling a generation if metrics are collected or the flight recorder has
+     * the generation event enabled.
+     *
+     * @param metrics   the metrics of the run, or null
+     * @return a started profile, or null if nobody is listening
+     */
+    static GenerationProfile start(SolverMetrics metrics) {
+        GenerationEvent event = new GenerationEvent();
+        if (metrics == null && !event.isEnabled())
+            return null;
+
+        event.begin();
+        return new GenerationProfile(event, metrics);
+    }
+
+    /**
+     * Returns the bytes allocated so far by the current thread.
+     *
+     * @return the allocated bytes, or 0 if the JVM cannot measure them
+     */
+    static long allocatedBytes() {
+        com.sun.management.ThreadMXBean bean = AllocationBean.BEAN;
+        return bean != null ? bean.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /**
+     * Starts measuring the allocations of a task. Tasks that the generation thread runs
+     * itself are already covered by its own measurement and are skipped.
+     *
+     * @return the bytes allocated by the current thread so far, or -1 on the generation thread
+     */
+    long workerStart() {
+        return Thread.currentThread() instanceof ForkJoinWorkerThread ? allocatedBytes() : -1;
+    }
+
+    /**
+     * Adds the allocations of a task to the generation.
+     *
+     * @param start the value returned by {@link #workerStart()} when the task began
+     */
+    void workerEnd(long start) {
+        if (start >= 0)
+            workerAllocated.add(allocatedBytes() - start);
+    }
+
+    /**
+     * Completes the profile with the statistics of the generation, records it in the
+     * metrics and commits the flight recorder event.
+     *
+     * @param stats the statistics of the generation
+     */
+    void finish(GenerationStats stats) {
+        long generationNanos = System.nanoTime() - startNanos;
+        long allocated = allocatedBytes() - startAllocated + workerAllocated.sum();
+
+        if (metrics != null)
+            metrics.record(this, stats, generationNanos, allocated);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.island = stats.getIsland();
+            event.iteration = stats.getIteration();
+            event.selectionNanos = selectionNanos;
+            event.crossoverNanos = crossoverNanos;
+            event.mutationNanos = mutationNanos;
+            event.localSearchNanos = localSearchNanos;
+            event.childrenBred = childrenBred;
+            event.duplicatesRejected = duplicatesRejected;
+            event.allocatedBytes = allocated;
+            event.bestDistance = stats.getBestDistance();
+            event.meanDistance = stats.getMeanDistance();
+            event.diversity = stats.getDiversity();
+            event.commit();
+        }
+    }
+
+    /**
+     * Holds the thread bean measuring allocations; it is only looked up, and the management
+     * classes only loaded, once the first profile is started.
+     */
+    private static final class AllocationBean {
+        /** The thread bean measuring allocations, or null if the JVM cannot measure them. */
+        static final com.sun.management.ThreadMXBean BEAN = lookUp();
+
+        /**
+         * Looks up the thread bean if it can measure per-thread allocations and enables it.
+         *
+         * @return the thread bean, or null if allocations cannot be measured
+         */
+        private static com.sun.management.ThreadMXBean lookUp() {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean))
+                return null;
+
+            com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+            if (!allocationBean.isThreadAllocatedMemorySupported())
+                return null;
+            if (!allocationBean.isThreadAllocatedMemoryEnabled())
+                allocationBean.setThreadAllocatedMemoryEnabled(true);
+            return allocationBean;
+        }
+    }
+}
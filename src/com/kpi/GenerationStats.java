@@ -0,0 +1,125 @@
+package com.kpi;
+
+/**
+ * A snapshot of the statistics of one generation, passed to every {@link GenerationListener}.
+ */
+public final class GenerationStats {
+    /** The island the generation belongs to, 0 for a single population. */
+    private final int island;
+    /** The one-based number of the iteration that produced the generation. */
+    private final int iteration;
+    /** A copy of the shortest path of the generation. */
+    private final IntPath best;
+    /** The mean total distance of the generation. */
+    private final double meanDistance;
+    /** The largest total distance in the generation. */
+    private final int worstDistance;
+    /** The share of distinct tours in the generation. */
+    private final double diversity;
+
+    /**
+     * Constructs the statistics of a generation.
+     *
+     * @param island        the island the generation belongs to, 0 for a single population
+     * @param iteration     the one-based number of the iteration
+     * @param best          a copy of the shortest path of the generation
+     * @param meanDistance  the mean total distance of the generation
+     * @param worstDistance the largest total distance in the generation
+     * @param diversity     the share of distinct tours in the generation
+     */
+    GenerationStats(int island, int iteration, IntPath best, double meanDistance, int worstDistance, double diversity) {
+        this.island = island;
+        this.iteration = iteration;
+        this.best = best;
+        this.meanDistance = meanDistance;
+        this.worstDistance = worstDistance;
+        this.diversity = diversity;
+    }
+
+    /**
+     * Computes the statistics of a generation.
+     *
+     * @param island        the island the generation belongs to, 0 for a single population
+     * @param iteration     the one-based number of the iteration
+     * @param generation    the paths of the generation
+     * @param scratch       a set used to count distinct tours; cleared before use
+     * @return the statistics of the generation
+     */
+    static GenerationStats of(int island, int iteration, IntPath[] generation, TourHashSet scratch) {
+        IntPath best = generation[0];
+        int worst = 0;
+        long sum = 0;
+        scratch.clear();
+
+        for (IntPath path : generation) {
+            if (path.getDistance() < best.getDistance())
+                best = path;
+            worst = Math.max(worst, path.getDistance());
+            sum += path.getDistance();
+            scratch.add(path.getHash());
+        }
+
+        return new GenerationStats(island, iteration, best.copy(), (double) sum / generation.length,
+                worst, (double) scratch.size() / generation.length);
+    }
+
+    /**
+     * Returns the island the generation belongs to.
+     *
+     * @return the island index, 0 for a single population
+     */
+    public int getIsland() { return island; }
+
+    /**
+     * Returns the number of the iteration that produced the generation.
+     *
+     * @return the one-based iteration number
+     */
+    public int getIteration() { return iteration; }
+
+    /**
+     * Returns a copy of the shortest path of the generation.
+     *
+     * @return the best path
+     */
+    public IntPath getBest() { return best; }
+
+    /**
+     * Returns the total distance of the shortest path of the generation.
+     *
+     * @return the best distance
+     */
+    public int getBestDistance() { return best.getDistance(); }
+
+    /**
+     * Returns the mean total distance of the generation.
+     *
+     * @return the mean distance
+     */
+    public double getMeanDistance() { return meanDistance; }
+
+    /**
+     * Returns the largest total distance in the generation.
+     *
+     * @return the worst distance
+     */
+    public int getWorstDistance() { return worstDistance; }
+
+    /**
+     * Returns the share of distinct tours in the generation, between 0 and 1.
+     *
+     * @return the diversity of the generation
+     */
+    public double getDiversity() { return diversity; }
+
+    /**
+     * Returns a string representation of the statistics.
+     *
+     * @return a string representation of the GenerationStats
+     */
+    @Override
+    public String toString() {
+        return "Generation [" + iteration + "]\tisland=" + island + " best=" + getBestDistance() +
+                " mean=" + meanDistance + " worst=" + worstDistance + " diversity=" + diversity + "\n";
+    }
+}
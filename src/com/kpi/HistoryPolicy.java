@@ -0,0 +1,106 @@
+package com.kpi;
+
+/**
+ * Decides which generations' best paths {@link TravelSolution#findSolution()} keeps in the
+ * history it returns. Bounded policies keep long runs from holding a path per iteration.
+ */
+public final class HistoryPolicy {
+    /**
+     * The kinds of retention policies.
+     */
+    private enum Kind { ALL, NONE, LAST, EVERY, IMPROVEMENTS }
+
+    /** The kind of the policy. */
+    private final Kind kind;
+    /** The number of paths kept (LAST) or the sampling interval (EVERY). */
+    private final int param;
+
+    /**
+     * Constructs a policy.
+     *
+     * @param kind  the kind of the policy
+     * @param param the number of paths kept or the sampling interval
+     */
+    private HistoryPolicy(Kind kind, int param) {
+        this.kind = kind;
+        this.param = param;
+    }
+
+    /**
+     * Keeps the best path of every generation.
+     *
+     * @return the policy
+     */
+    public static HistoryPolicy all() { return new HistoryPolicy(Kind.ALL, 0); }
+
+    /**
+     * Keeps no history at all; results are only available through listeners.
+     *
+     * @return the policy
+     */
+    public static HistoryPolicy none() { return new HistoryPolicy(Kind.NONE, 0); }
+
+    /**
+     * Keeps the best paths of the last n generations.
+     *
+     * @param n the number of generations to keep
+     * @return the policy
+     * @throws IllegalArgumentException if n is not positive
+     */
+    public static HistoryPolicy lastN(int n) {
+        if (n < 1)
+            throw new IllegalArgumentException("Method lastN() in class \"HistoryPolicy\". The number of paths must be positive.");
+
+        return new HistoryPolicy(Kind.LAST, n);
+    }
+
+    /**
+     * Keeps the best path of every k-th iteration.
+     *
+     * @param k the sampling interval in iterations
+     * @return the policy
+     * @throws IllegalArgumentException if k is not positive
+     */
+    public static HistoryPolicy everyKth(int k) {
+        if (k < 1)
+            throw new IllegalArgumentException("Method everyKth() in class \"HistoryPolicy\". The interval must be positive.");
+
+        return new HistoryPolicy(Kind.EVERY, k);
+    }
+
+    /**
+     * Keeps a generation's best path only if it is shorter than every path kept before.
+     *
+     * @return the policy
+     */
+    public static HistoryPolicy improvements() { return new HistoryPolicy(Kind.IMPROVEMENTS, 0); }
+
+    /**
+     * Checks whether the best path of a generation is kept.
+     *
+     * @param stats         the statistics of the generation
+     * @param bestSoFar     the shortest distance seen before this generation
+     * @return true if the path is kept
+     */
+    boolean retains(GenerationStats stats, int bestSoFar) {
+        switch (kind) {
+            case NONE:
+                return false;
+            case EVERY:
+                return stats.getIteration() % param == 0;
+            case IMPROVEMENTS:
+                return stats.getBestDistance() < bestSoFar;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Returns the maximum number of paths kept.
+     *
+     * @return the capacity of the history, or Integer.MAX_VALUE if unbounded
+     */
+    int capacity() {
+        return kind == Kind.LAST ? param : Integer.MAX_VALUE;
+    }
+}
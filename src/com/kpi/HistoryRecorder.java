@@ -0,0 +1,76 @@
+package com.kpi;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * Collects the statistics of every generation of a run, notifies the listeners and keeps
+ * the history selected by a {@link HistoryPolicy}. Generations may be recorded from
+ * several threads at once.
+ */
+final class HistoryRecorder {
+    /** The policy deciding which paths are kept. */
+    private final HistoryPolicy policy;
+    /** The listeners notified of every generation. */
+    private final List<GenerationListener> listeners;
+    /** The kept paths, oldest first. */
+    private final ArrayDeque<IntPath> history = new ArrayDeque<>();
+    /** The shortest distance recorded so far. */
+    private int bestSoFar = Integer.MAX_VALUE;
+    /** The shortest path recorded so far, or null. */
+    private IntPath best;
+
+    /**
+     * Constructs a recorder.
+     *
+     * @param policy    the policy deciding which paths are kept
+     * @param listeners the listeners notified of every generation
+     */
+    HistoryRecorder(HistoryPolicy policy, List<GenerationListener> listeners) {
+        this.policy = policy;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Records a generation: keeps its best path if the policy says so and notifies the listeners.
+     *
+     * @param stats the statistics of the generation
+     */
+    void record(GenerationStats stats) {
+        synchronized (this) {
+            if (policy.retains(stats, bestSoFar)) {
+                if (history.size() == policy.capacity())
+                    history.pollFirst();
+                history.addLast(stats.getBest());
+            }
+            if (stats.getBestDistance() < bestSoFar) {
+                bestSoFar = stats.getBestDistance();
+                best = stats.getBest();
+            }
+        }
+
+        for (GenerationListener listener : listeners)
+            listener.onGeneration(stats);
+    }
+
+    /**
+     * Returns the shortest path recorded so far, whether or not the policy kept it.
+     *
+     * @return the best path, or null if no generation was recorded
+     */
+    synchronized IntPath getBest() { return best; }
+
+    /**
+     * Returns the kept history as paths over the cities of the {@link CitySet}.
+     *
+     * @return the kept paths, oldest first
+     */
+    synchronized Vector<Path> toPaths() {
+        Vector<Path> paths = new Vector<>(history.size());
+        for (IntPath path : history)
+            paths.add(path.toPath());
+
+        return paths;
+    }
+}
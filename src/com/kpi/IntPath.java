@@ -0,0 +1,635 @@
+package com.kpi;
+
+import java.util.Vector;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Represents a path in the Traveling Salesman Problem backed by a flat permutation of
+ * city indices. Alongside the tour it keeps the inverse permutation, so the position of
+ * any city in the tour can be looked up in constant time. Crossover, mutation and distance
+ * evaluation work on primitive arrays only and never touch {@link City} objects.
+ * City indices are positions in {@link CitySet#cities}, i.e. the city identifier minus one.
+ */
+public class IntPath implements Chromosome {
+    /** The ordered sequence of city indices in this path. */
+    final private int[] tour;
+    /** The inverse of the tour: position[c] is the index of city c in the tour. */
+    final private int[] position;
+    /** The set of cities the path visits. */
+    final private CitySet citySet;
+    /** The total number of cities in the path. */
+    final private int cityNum;
+    /** The total distance of the path. */
+    private int totalDistance;
+    /** The Zobrist-style hash of the tour, see {@link #getHash()}. */
+    private long hash;
+
+    /**
+     * Constructs a new IntPath with a randomly shuffled sequence of cities, drawn from
+     * the random number generator of the current thread.
+     *
+     * @param cityNum   the number of cities in the path
+     */
+    public IntPath(int cityNum) {
+        this(CitySet.getCitySet(cityNum), ThreadLocalRandom.current());
+    }
+
+    /**
+     * Constructs a new IntPath with a sequence of cities shuffled by the given
+     * random number generator.
+     *
+     * @param cityNum   the number of cities in the path
+     * @param random    the random number generator to use
+     */
+    public IntPath(int cityNum, RandomGenerator random) {
+        this(CitySet.getCitySet(cityNum), random);
+    }
+
+    /**
+     * Constructs a new IntPath over the cities of a set, shuffled by the given
+     * random number generator.
+     *
+     * @param citySet   the set of cities the path visits
+     * @param random    the random number generator to use
+     */
+    public IntPath(CitySet citySet, RandomGenerator random) {
+        this.citySet = citySet;
+        this.cityNum = citySet.size();
+        this.tour = generateTour(random);
+        this.position = invert(tour);
+        this.totalDistance = this.calcDist();
+        this.hash = this.calcHash();
+    }
+
+    /**
+     * Constructs an IntPath with a specified sequence of city indices.
+     *
+     * @param tour      the sequence of city indices
+     * @param cityNum   the number of cities in the path
+     */
+    public IntPath(int[] tour, int cityNum) {
+        this(tour, CitySet.getCitySet(cityNum));
+    }
+
+    /**
+     * Constructs an IntPath with a specified sequence of city indices of a set.
+     *
+     * @param tour      the sequence of city indices
+     * @param citySet   the set of cities the path visits
+     */
+    public IntPath(int[] tour, CitySet citySet) {
+        this(tour, invert(tour), citySet);
+    }
+
+    /**
+     * Constructs an IntPath from a tour whose distance is already known, e.g. from a
+     * {@link TourEvaluator}.
+     *
+     * @param tour          the sequence of city indices
+     * @param citySet       the set of cities the path visits
+     * @param totalDistance the total distance of the tour
+     */
+    IntPath(int[] tour, CitySet citySet, int totalDistance) {
+        this(tour, invert(tour), citySet, totalDistance, 0);
+        this.hash = calcHash();
+        verifyDistance();
+    }
+
+    /**
+     * Constructs an IntPath from a tour and its already computed inverse.
+     *
+     * @param tour      the sequence of city indices
+     * @param position  the inverse permutation of the tour
+     * @param citySet   the set of cities the path visits
+     */
+    private IntPath(int[] tour, int[] position, CitySet citySet) {
+        this.citySet = citySet;
+        this.cityNum = citySet.size();
+        this.tour = tour;
+        this.position = position;
+        this.totalDistance = this.calcDist();
+        this.hash = this.calcHash();
+    }
+
+    /**
+     * Constructs an IntPath from already known state, without recomputing anything.
+     *
+     * @param tour          the sequence of city indices
+     * @param position      the inverse permutation of the tour
+     * @param citySet       the set of cities the path visits
+     * @param totalDistance the total distance of the tour
+     * @param hash          the hash of the tour
+     */
+    private IntPath(int[] tour, int[] position, CitySet citySet, int totalDistance, long hash) {
+        this.citySet = citySet;
+        this.cityNum = citySet.size();
+        this.tour = tour;
+        this.position = position;
+        this.totalDistance = totalDistance;
+        this.hash = hash;
+    }
+
+    /**
+     * Creates a path whose tour is not yet set, to be overwritten through
+     * {@link #setToChild} or {@link #setTour} before it is read.
+     *
+     * @param citySet   the set of cities the path visits
+     * @return a new path with an unset tour
+     */
+    static IntPath slot(CitySet citySet) {
+        int cityNum = citySet.size();
+        return new IntPath(new int[cityNum], new int[cityNum], citySet, 0, 0);
+    }
+
+    /**
+     * Generates a random tour by shuffling city indices.
+     * The first city remains fixed to avoid issues with equivalent cyclic permutations.
+     *
+     * @param random    the random number generator to use
+     * @return a new randomly generated tour
+     */
+    private int[] generateTour(RandomGenerator random) {
+        int[] newTour = new int[cityNum];
+        for (int i = 0; i < cityNum; i++)
+            newTour[i] = i;
+
+        // Fisher-Yates shuffle of every index except for the first one
+        for (int i = cityNum - 1; i > 1; i--) {
+            int j = random.nextInt(i) + 1;
+            int temp = newTour[i];
+            newTour[i] = newTour[j];
+            newTour[j] = temp;
+        }
+        return newTour;
+    }
+
+    /**
+     * Builds the inverse permutation of a tour.
+     *
+     * @param tour  the sequence of city indices
+     * @return an array mapping each city index to its position in the tour
+     */
+    private static int[] invert(int[] tour) {
+        int[] position = new int[tour.length];
+        for (int i = 0; i < tour.length; i++)
+            position[tour[i]] = i;
+
+        return position;
+    }
+
+    /**
+     * Calculates the total distance of the path, including the return to the starting city.
+     *
+     * @return the total distance of the path
+     */
+    private int calcDist() {
+        return citySet.getTourEvaluator().length(tour, 0);
+    }
+
+    /**
+     * Returns the hash contribution of a city placed at a position of the tour.
+     * The values behave like the random entries of a Zobrist table without storing one.
+     *
+     * @param index the position in the tour
+     * @param city  the city index
+     * @return the hash contribution
+     */
+    private static long zobrist(int index, int city) {
+        // SplitMix64 finalizer over the (position, city) pair
+        long z = ((long) index << 32 | city) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Calculates the hash of the tour from scratch.
+     *
+     * @return the hash of the tour
+     */
+    private long calcHash() {
+        long newHash = 0;
+        for (int i = 0; i < cityNum; i++)
+            newHash ^= zobrist(i, tour[i]);
+
+        return newHash;
+    }
+
+    /**
+     * Returns a 64-bit hash of the city order. Unlike {@link #getKey()} it is maintained
+     * incrementally, requires no boxing and distinct tours collide only with negligible probability.
+     *
+     * @return the hash of the tour
+     */
+    public long getHash() { return hash; }
+
+    /**
+     * Returns an independent copy of this path.
+     *
+     * @return a new IntPath with the same city order
+     */
+    public IntPath copy() {
+        return new IntPath(tour.clone(), position.clone(), citySet, totalDistance, hash);
+    }
+
+    /**
+     * Overwrites this path with the child of two parents, reusing its arrays.
+     * Neither parent may be this path.
+     *
+     * @param crossover the operator combining the parents
+     * @param parent1   the first parent
+     * @param parent2   the second parent
+     * @param scratch   the scratch memory of the calling worker
+     * @param random    the random number generator of the calling worker
+     */
+    void setToChild(CrossoverOperator crossover, IntPath parent1, IntPath parent2, OperatorScratch scratch,
+                    RandomGenerator random) {
+        crossover.crossover(parent1, parent2, tour, scratch, random);
+        refresh();
+    }
+
+    /**
+     * Overwrites this path with a rotation of a tour, reusing its arrays.
+     *
+     * @param source    the tour to copy
+     * @param start     the position of the source that becomes the first position of the path
+     */
+    void setTour(int[] source, int start) {
+        System.arraycopy(source, start, tour, 0, cityNum - start);
+        System.arraycopy(source, 0, tour, cityNum - start, start);
+        refresh();
+    }
+
+    /**
+     * Overwrites this path with a tour whose distance and hash are already known, e.g.
+     * because another process evaluated it, reusing its arrays.
+     *
+     * @param source    the tour to copy
+     * @param distance  the total distance of the tour
+     * @param hash      the hash of the tour
+     */
+    void setState(int[] source, int distance, long hash) {
+        System.arraycopy(source, 0, tour, 0, cityNum);
+        for (int i = 0; i < cityNum; i++)
+            position[tour[i]] = i;
+        this.totalDistance = distance;
+        this.hash = hash;
+        verifyDistance();
+    }
+
+    /**
+     * Recomputes the inverse, the distance and the hash after the tour was overwritten.
+     */
+    private void refresh() {
+        for (int i = 0; i < cityNum; i++)
+            position[tour[i]] = i;
+        totalDistance = calcDist();
+        hash = calcHash();
+    }
+
+    /**
+     * Returns the total distance of the path.
+     *
+     * @return the total distance of the path
+     */
+    public int getDistance() { return totalDistance; }
+
+    /**
+     * Returns the city index stored at the given position of the tour.
+     *
+     * @param index the position in the tour
+     * @return the city index at that position
+     */
+    public int cityAt(int index) { return tour[index]; }
+
+    /**
+     * Returns the array holding the tour, without copying it.
+     *
+     * @return the tour, which must not be modified
+     */
+    int[] getTour() { return tour; }
+
+    /**
+     * Copies the tour into an array.
+     *
+     * @param dest      the array to copy into
+     * @param offset    the position in the array the first city is copied to
+     */
+    void copyTourTo(int[] dest, int offset) {
+        System.arraycopy(tour, 0, dest, offset, cityNum);
+    }
+
+    /**
+     * Returns the position of the given city in the tour.
+     *
+     * @param city  the city index
+     * @return the position of the city in the tour
+     */
+    public int positionOf(int city) { return position[city]; }
+
+    /**
+     * Generates a key for the path based on its city order.
+     * The key is computed the same way as {@link Path#getKey()}.
+     *
+     * @return a double value representing the path's key
+     */
+    public double getKey() {
+        double hash = 0.0;
+        for (int i = 0; i < cityNum; i++)
+            hash += (double) i / (tour[i] + 1);
+
+        return hash;
+    }
+
+    /**
+     * Converts this path into a {@link Path} over the cities of its {@link CitySet}.
+     *
+     * @return a new Path visiting the cities in the same order
+     */
+    public Path toPath() {
+        Vector<City> cities = new Vector<>(cityNum);
+        for (int city : tour)
+            cities.add(citySet.cities.elementAt(city));
+
+        return new Path(cities, citySet);
+    }
+
+    /**
+     * Returns the set of cities the path visits.
+     *
+     * @return the city set of the path
+     */
+    public CitySet getCitySet() { return citySet; }
+
+    /**
+     * Performs a cyclic crossover with another path to produce an offspring path.
+     * Every step of the cycle looks the next position up in the inverse permutation,
+     * so the whole crossover is linear in the number of cities. The start of the cycle
+     * is drawn from the random number generator of the current thread.
+     *
+     * @param chromosome    the other chromosome (IntPath) to crossover with
+     * @return  a new IntPath resulting from the crossover
+     * @throws  ClassCastException if the provided chromosome is not an IntPath
+     */
+    @Override
+    public Chromosome crossoverWith(Chromosome chromosome) {
+        if (! (chromosome instanceof IntPath))
+            throw new ClassCastException("Method crossoverWith() in class \"IntPath\". Unable to crossover objects with different types.");
+
+        return crossoverWith((IntPath) chromosome, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Performs a cyclic crossover with another path, drawing the start of the cycle
+     * from the given random number generator.
+     *
+     * @param other     the other path to crossover with
+     * @param random    the random number generator to use
+     * @return  a new IntPath resulting from the crossover
+     */
+    public IntPath crossoverWith(IntPath other, RandomGenerator random) {
+        // the child is initially a copy of the current tour and its inverse
+        int[] parentTour2 = other.tour;
+        int[] childTour = tour.clone();
+        int[] childPosition = position.clone();
+
+        // select a random index (excluding the starting city at index 0) to begin the crossover cycle
+        int index = random.nextInt(cityNum-1)+1;
+        int startVal = tour[index];
+        int path2Val = parentTour2[index];
+
+        // replace cities in the child with values from the second parent
+        // until the cycle is complete (path2Val matches the startVal)
+        while (path2Val != startVal) {
+            childTour[index] = path2Val;
+            childPosition[path2Val] = index;
+            index = position[path2Val];
+            path2Val = parentTour2[index];
+        }
+        // place the final city of the cycle back into the child
+        childTour[index] = path2Val;
+        childPosition[path2Val] = index;
+
+        return new IntPath(childTour, childPosition, citySet);
+    }
+
+    /**
+     * Mutates the path by swapping two random cities, excluding the starting city, drawn
+     * from the random number generator of the current thread.
+     */
+    @Override
+    public void mutate() {
+        mutate(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Mutates the path by swapping two random cities, excluding the starting city,
+     * drawing the positions from the given random number generator. Tours of fewer than
+     * three cities stay as they are.
+     *
+     * @param random    the random number generator to use
+     */
+    public void mutate(RandomGenerator random) {
+        if (cityNum < 3)
+            return;
+
+        int index1, index2;
+        do {
+            index1 = random.nextInt(cityNum-1)+1;
+            index2 = random.nextInt(cityNum-1)+1;
+        } while (index1 == index2);
+
+        swap(index1, index2);
+    }
+
+    /**
+     * Swaps the cities at two positions of the tour. The total distance is updated
+     * from the change of the (at most four) affected edges instead of re-walking the tour.
+     *
+     * @param index1    the position of the first city
+     * @param index2    the position of the second city
+     */
+    public void swap(int index1, int index2) {
+        if (index1 == index2)
+            return;
+
+        DistanceOracle oracle = citySet.getDistanceOracle();
+        int before = swapEdgesCost(oracle, index1, index2);
+
+        int temp = tour[index1];
+        tour[index1] = tour[index2];
+        tour[index2] = temp;
+        position[tour[index1]] = index1;
+        position[tour[index2]] = index2;
+
+        hash ^= zobrist(index1, tour[index2]) ^ zobrist(index2, tour[index1])
+                ^ zobrist(index1, tour[index1]) ^ zobrist(index2, tour[index2]);
+        totalDistance += swapEdgesCost(oracle, index1, index2) - before;
+        verifyDistance();
+    }
+
+    /**
+     * Reverses the order of the cities between two positions of the tour, both included.
+     * Only the two edges at the ends of the range change, so the total distance is updated
+     * in constant time; the hash and the inverse are updated along the range.
+     *
+     * @param from  the first position of the range, at least 1
+     * @param to    the last position of the range
+     */
+    public void reverse(int from, int to) {
+        if (from >= to)
+            return;
+
+        DistanceOracle oracle = citySet.getDistanceOracle();
+        int before = tour[from - 1];
+        int after = tour[to == cityNum - 1 ? 0 : to + 1];
+        totalDistance += oracle.distance(before, tour[to]) + oracle.distance(tour[from], after)
+                - oracle.distance(before, tour[from]) - oracle.distance(tour[to], after);
+
+        for (int i = from; i <= to; i++)
+            hash ^= zobrist(i, tour[i]);
+        for (int i = from, j = to; i < j; i++, j--) {
+            int temp = tour[i];
+            tour[i] = tour[j];
+            tour[j] = temp;
+        }
+        for (int i = from; i <= to; i++) {
+            position[tour[i]] = i;
+            hash ^= zobrist(i, tour[i]);
+        }
+        verifyDistance();
+    }
+
+    /**
+     * Shuffles the cities between two positions of the tour, both included. The distance
+     * is updated from the edges of the range only.
+     *
+     * @param from      the first position of the range, at least 1
+     * @param to        the last position of the range
+     * @param random    the random number generator to use
+     */
+    public void scramble(int from, int to, RandomGenerator random) {
+        if (from >= to)
+            return;
+
+        DistanceOracle oracle = citySet.getDistanceOracle();
+        int before = rangeEdgesCost(oracle, from, to);
+        for (int i = from; i <= to; i++)
+            hash ^= zobrist(i, tour[i]);
+
+        // Fisher-Yates shuffle of the range
+        for (int i = to; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            int temp = tour[i];
+            tour[i] = tour[j];
+            tour[j] = temp;
+        }
+        for (int i = from; i <= to; i++) {
+            position[tour[i]] = i;
+            hash ^= zobrist(i, tour[i]);
+        }
+        totalDistance += rangeEdgesCost(oracle, from, to) - before;
+        verifyDistance();
+    }
+
+    /**
+     * Sums the lengths of the edges inside a range of positions and of the two edges
+     * connecting it to the rest of the tour.
+     *
+     * @param oracle    the distance oracle to use
+     * @param from      the first position of the range, at least 1
+     * @param to        the last position of the range
+     * @return the total length of the edges
+     */
+    private int rangeEdgesCost(DistanceOracle oracle, int from, int to) {
+        int cost = 0;
+        for (int i = from - 1; i <= to; i++)
+            cost += edgeCost(oracle, i);
+
+        return cost;
+    }
+
+    /**
+     * Sums the lengths of the edges touching two positions of the tour, counting
+     * every edge once even if the positions are adjacent.
+     *
+     * @param oracle    the distance oracle to use
+     * @param index1    the first position
+     * @param index2    the second position
+     * @return the total length of the edges touching the positions
+     */
+    private int swapEdgesCost(DistanceOracle oracle, int index1, int index2) {
+        // an edge is identified by the position it starts at
+        int edge1 = index1 == 0 ? cityNum - 1 : index1 - 1;
+        int edge2 = index2 == 0 ? cityNum - 1 : index2 - 1;
+
+        int cost = edgeCost(oracle, edge1) + edgeCost(oracle, index1);
+        if (edge2 != edge1 && edge2 != index1)
+            cost += edgeCost(oracle, edge2);
+        if (index2 != edge1 && index2 != index1)
+            cost += edgeCost(oracle, index2);
+
+        return cost;
+    }
+
+    /**
+     * Returns the length of the edge leaving the given position of the tour.
+     *
+     * @param oracle    the distance oracle to use
+     * @param index     the position the edge starts at
+     * @return the length of the edge
+     */
+    private int edgeCost(DistanceOracle oracle, int index) {
+        return oracle.distance(tour[index], tour[index == cityNum - 1 ? 0 : index + 1]);
+    }
+
+    /**
+     * Cross-checks the incrementally maintained distance and hash against a full recompute
+     * when delta verification is enabled (see {@link Path#VERIFY_DELTA}).
+     *
+     * @throws IllegalStateException if the distances or hashes differ
+     */
+    private void verifyDistance() {
+        if (!Path.VERIFY_DELTA)
+            return;
+
+        if (totalDistance != calcDist())
+            throw new IllegalStateException("Method verifyDistance() in class \"IntPath\". Incremental distance " +
+                    totalDistance + " differs from the recomputed distance " + calcDist() + ".");
+        if (hash != calcHash())
+            throw new IllegalStateException("Method verifyDistance() in class \"IntPath\". Incremental hash " +
+                    "differs from the recomputed hash.");
+    }
+
+    /**
+     * Compares this path with another chromosome based on their total distances.
+     *
+     * @param o the chromosome to compare with
+     * @return  1 if this path's distance is greater, -1 if less, and 0 if equal
+     * @throws  ClassCastException if the provided chromosome is not an IntPath
+     */
+    @Override
+    public int compareTo(Chromosome o) {
+        if (! (o instanceof IntPath))
+            throw new ClassCastException("Method compareTo() in class \"IntPath\". Unable to compare objects with different types.");
+
+        return Integer.compare(totalDistance, ((IntPath) o).totalDistance);
+    }
+
+    /**
+     * Returns a string representation of the path, including the city sequence and total distance.
+     *
+     * @return a string representation of the IntPath
+     */
+    @Override
+    public String toString() {
+        StringBuilder resStr = new StringBuilder("Path [ ");
+        for (int city : tour)
+            resStr.append(city + 1).append(' ');
+
+        resStr.append("]\tdistance = ").append(totalDistance).append('\n');
+
+        return resStr.toString();
+    }
+}
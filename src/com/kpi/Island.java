@@ -0,0 +1,137 @@
+package com.kpi;
+
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A sub-population of the island model of {@link TravelSolution}. An island evolves its own
+ * generation on a single thread and exchanges its best paths with other islands through a
+ * lock-free inbox. Migrants are always copies, so no path is ever shared between islands.
+ */
+final class Island {
+    /** The solution whose generation step the island uses. */
+    private final TravelSolution solution;
+    /** The index of the island in the model. */
+    private final int index;
+    /** The random number generator of the island. */
+    private final SplittableRandom random;
+    /** The migrants sent to this island by other islands. */
+    private final Queue<IntPath> inbox = new ConcurrentLinkedQueue<>();
+    /** The recorder the island reports its generations to. */
+    private final HistoryRecorder recorder;
+    /** The checkpoint whose paths seed the initial generation, or null. */
+    private final Checkpoint start;
+
+    /**
+     * Constructs an island.
+     *
+     * @param solution  the solution whose generation step the island uses
+     * @param index     the index of the island in the model
+     * @param random    the random number generator of the island
+     * @param recorder  the recorder the island reports its generations to
+     * @param start     the checkpoint whose paths seed the initial generation, or null
+     */
+    Island(TravelSolution solution, int index, SplittableRandom random, HistoryRecorder recorder, Checkpoint start) {
+        this.solution = solution;
+        this.index = index;
+        this.random = random;
+        this.recorder = recorder;
+        this.start = start;
+    }
+
+    /**
+     * Evolves the island for a number of iterations, migrating paths at regular intervals,
+     * until the stop condition of the solution is met by the island's own progress or the
+     * run is cancelled.
+     *
+     * @param islands           all islands of the model, including this one
+     * @param iterationsNum     the number of iterations to run
+     * @param migrationInterval the number of generations between two migrations
+     * @param migrantNum        the number of paths to send per migration
+     * @param topology          the topology deciding which islands receive the migrants
+     */
+    void evolve(Island[] islands, int iterationsNum, int migrationInterval, int migrantNum, MigrationTopology topology) {
+        Worker[] workers = solution.createWorkers(new SplittableRandom[] { random });
+        PopulationArena arena = solution.createArena();
+        TourHashSet tourHashes = new TourHashSet(solution.getGenerationMaxSize());
+        TourHashSet scratch = new TourHashSet(solution.getGenerationMaxSize());
+        RunProgress progress = new RunProgress(0, Integer.MAX_VALUE, solution.getMutationPercent());
+        IntPath[] generation = solution.createGeneration(tourHashes, random, start);
+        progress.addEvaluations(generation.length);
+
+        for (int iter = 1; iter <= iterationsNum && solution.awaitGeneration(); iter++) {
+            GenerationProfile profile = GenerationProfile.start(solution.getMetrics());
+            generation = solution.nextGeneration(generation, tourHashes, null, null, workers, arena, profile, progress);
+
+            if (iter % migrationInterval == 0) {
+                emigrate(generation, islands, migrantNum, topology);
+                immigrate(generation);
+            }
+
+            GenerationStats stats = GenerationStats.of(index, iter, generation, scratch);
+            if (profile != null)
+                profile.finish(stats);
+            recorder.record(stats);
+            if (solution.endGeneration(progress, stats))
+                break;
+        }
+    }
+
+    /**
+     * Sends copies of the best paths of a generation to the neighbours of this island.
+     *
+     * @param generation    the current generation of the island
+     * @param islands       all islands of the model, including this one
+     * @param migrantNum    the number of paths to send
+     * @param topology      the topology deciding which islands receive the migrants
+     */
+    private void emigrate(IntPath[] generation, Island[] islands, int migrantNum, MigrationTopology topology) {
+        TravelSolution.selectBest(generation, migrantNum);
+
+        switch (topology) {
+            case RING:
+                islands[(index + 1) % islands.length].receive(generation, migrantNum);
+                break;
+            case FULLY_CONNECTED:
+                for (Island island : islands)
+                    if (island != this)
+                        island.receive(generation, migrantNum);
+                break;
+            default:
+                int target = random.nextInt(islands.length - 1);
+                islands[target >= index ? target + 1 : target].receive(generation, migrantNum);
+        }
+    }
+
+    /**
+     * Puts copies of the first paths of a generation into the inbox of this island.
+     *
+     * @param generation    the generation the migrants are taken from
+     * @param migrantNum    the number of paths to copy
+     */
+    private void receive(IntPath[] generation, int migrantNum) {
+        for (int i = 0; i < migrantNum; i++)
+            inbox.offer(generation[i].copy());
+    }
+
+    /**
+     * Replaces the worst paths of a generation with the migrants waiting in the inbox.
+     * At most half of the generation is replaced; surplus migrants are dropped.
+     *
+     * @param generation    the current generation of the island
+     */
+    private void immigrate(IntPath[] generation) {
+        int arrived = inbox.size();
+        if (arrived == 0)
+            return;
+
+        int replaceNum = Math.min(arrived, generation.length / 2);
+        TravelSolution.selectBest(generation, generation.length - replaceNum);
+        for (int i = generation.length - replaceNum; i < generation.length; i++)
+            generation[i] = inbox.poll();
+
+        while (arrived-- > replaceNum)
+            inbox.poll();
+    }
+}
@@ -0,0 +1,367 @@
+package com.kpi;
+
+/**
+ * A two-dimensional k-d tree over the coordinates of the cities of a {@link CitySet}.
+ * The tree is stored implicitly: the cities are permuted so that the median of every range
+ * is the splitting city of that range, with the smaller coordinates to its left. Building it
+ * partitions every level with quickselect, which takes O(n log n) expected time and no
+ * memory besides the permutation.
+ */
+final class KdTree {
+    /** The x-coordinates of the cities. */
+    private final double[] xCoord;
+    /** The y-coordinates of the cities. */
+    private final double[] yCoord;
+    /** The cities in tree order; the city at the median of a range splits that range. */
+    private final int[] order;
+    /** The place of every city in {@link #order}. */
+    private final int[] place;
+    /** Whether the city at a place of the order splits its range by the x-coordinate. */
+    private final boolean[] splitX;
+
+    /**
+     * Builds a tree over the given coordinates.
+     *
+     * @param xCoord    the x-coordinates of the cities
+     * @param yCoord    the y-coordinates of the cities
+     */
+    KdTree(double[] xCoord, double[] yCoord) {
+        int cityNum = xCoord.length;
+        this.xCoord = xCoord;
+        this.yCoord = yCoord;
+        this.order = new int[cityNum];
+        this.place = new int[cityNum];
+        this.splitX = new boolean[cityNum];
+
+        for (int i = 0; i < cityNum; i++)
+            order[i] = i;
+        build(0, cityNum);
+        for (int i = 0; i < cityNum; i++)
+            place[order[i]] = i;
+    }
+
+    /**
+     * Arranges a range of the order as a subtree, splitting along its wider dimension.
+     *
+     * @param lo    the first place of the range
+     * @param hi    the place after the last one of the range
+     */
+    private void build(int lo, int hi) {
+        while (hi - lo > 1) {
+            double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                int city = order[i];
+                minX = Math.min(minX, xCoord[city]);
+                maxX = Math.max(maxX, xCoord[city]);
+                minY = Math.min(minY, yCoord[city]);
+                maxY = Math.max(maxY, yCoord[city]);
+            }
+
+            int mid = (lo + hi) >>> 1;
+            boolean byX = maxX - minX >= maxY - minY;
+            splitX[mid] = byX;
+            select(lo, hi - 1, mid, byX ? xCoord : yCoord);
+
+            // recurse into the smaller half to keep the stack logarithmic
+            if (mid - lo < hi - mid - 1) {
+                build(lo, mid);
+                lo = mid + 1;
+            } else {
+                build(mid + 1, hi);
+                hi = mid;
+            }
+        }
+    }
+
+    /**
+     * Moves the city with the k-th smallest coordinate of a range to place k, with smaller
+     * or equal coordinates before it and greater or equal ones after it.
+     *
+     * @param left  the first place of the range
+     * @param right the last place of the range
+     * @param k     the place to fill
+     * @param coord the coordinates to compare
+     */
+    private void select(int left, int right, int k, double[] coord) {
+        while (left < right) {
+            double pivot = coord[order[(left + right) >>> 1]];
+            int i = left, j = right;
+            while (i <= j) {
+                while (coord[order[i]] < pivot)
+                    i++;
+                while (coord[order[j]] > pivot)
+                    j--;
+                if (i <= j) {
+                    int temp = order[i];
+                    order[i++] = order[j];
+                    order[j--] = temp;
+                }
+            }
+
+            if (k <= j)
+                right = j;
+            else if (k >= i)
+                left = i;
+            else
+                return;
+        }
+    }
+
+    /**
+     * Returns the squared Euclidean distance between two cities.
+     *
+     * @param a the first city
+     * @param b the second city
+     * @return the squared distance
+     */
+    private double squaredDistance(int a, int b) {
+        double dx = xCoord[a] - xCoord[b];
+        double dy = yCoord[a] - yCoord[b];
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Returns the signed distance of a city from the splitting line of a place.
+     *
+     * @param city  the city
+     * @param mid   the place of the splitting city
+     * @return the difference of the city's coordinate and the splitting coordinate
+     */
+    private double splitOffset(int city, int mid) {
+        int splitter = order[mid];
+        return splitX[mid] ? xCoord[city] - xCoord[splitter] : yCoord[city] - yCoord[splitter];
+    }
+
+    /**
+     * Finds the nearest cities of a city, excluding the city itself.
+     *
+     * @param city      the city whose neighbours are searched
+     * @param k         the number of neighbours to find
+     * @param result    receives the neighbours, nearest first; must hold at least k cities
+     * @return the number of neighbours found, less than k only if there are fewer other cities
+     */
+    int nearest(int city, int k, int[] result) {
+        double[] dists = new double[k];
+        int size = nearest(city, k, 0, order.length, result, dists, 0);
+
+        // the bounded heap holds the farthest neighbour at the front; sort it by repeated extraction
+        for (int i = size - 1; i > 0; i--) {
+            int topCity = result[0];
+            double topDist = dists[0];
+            siftDown(result, dists, i, result[i], dists[i]);
+            result[i] = topCity;
+            dists[i] = topDist;
+        }
+        return size;
+    }
+
+    /**
+     * Searches a subtree for neighbours of a city, keeping the best ones in a bounded max-heap.
+     *
+     * @param city      the city whose neighbours are searched
+     * @param k         the number of neighbours to find
+     * @param lo        the first place of the subtree
+     * @param hi        the place after the last one of the subtree
+     * @param heap      the cities of the heap
+     * @param dists     the squared distances of the heap
+     * @param size      the number of cities in the heap
+     * @return the new number of cities in the heap
+     */
+    private int nearest(int city, int k, int lo, int hi, int[] heap, double[] dists, int size) {
+        if (lo >= hi)
+            return size;
+
+        int mid = (lo + hi) >>> 1;
+        int splitter = order[mid];
+        if (splitter != city) {
+            double dist = squaredDistance(city, splitter);
+            if (size < k)
+                siftUp(heap, dists, size++, splitter, dist);
+            else if (dist < dists[0])
+                siftDown(heap, dists, size, splitter, dist);
+        }
+
+        double offset = splitOffset(city, mid);
+        boolean leftFirst = offset < 0;
+        size = leftFirst ? nearest(city, k, lo, mid, heap, dists, size) : nearest(city, k, mid + 1, hi, heap, dists, size);
+        if (size < k || offset * offset < dists[0])
+            size = leftFirst ? nearest(city, k, mid + 1, hi, heap, dists, size) : nearest(city, k, lo, mid, heap, dists, size);
+
+        return size;
+    }
+
+    /**
+     * Inserts a city into a max-heap at the given free place.
+     *
+     * @param heap  the cities of the heap
+     * @param dists the distances of the heap
+     * @param index the free place after the last element of the heap
+     * @param city  the city to insert
+     * @param dist  the distance of the city
+     */
+    private static void siftUp(int[] heap, double[] dists, int index, int city, double dist) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (dists[parent] >= dist)
+                break;
+            heap[index] = heap[parent];
+            dists[index] = dists[parent];
+            index = parent;
+        }
+        heap[index] = city;
+        dists[index] = dist;
+    }
+
+    /**
+     * Replaces the root of a max-heap with a city and restores the heap order.
+     *
+     * @param heap  the cities of the heap
+     * @param dists the distances of the heap
+     * @param size  the number of elements in the heap
+     * @param city  the city replacing the root
+     * @param dist  the distance of the city
+     */
+    private static void siftDown(int[] heap, double[] dists, int size, int city, double dist) {
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && dists[child + 1] > dists[child])
+                child++;
+            if (dists[child] <= dist)
+                break;
+            heap[index] = heap[child];
+            dists[index] = dists[child];
+            index = child;
+        }
+        heap[index] = city;
+        dists[index] = dist;
+    }
+
+    /**
+     * Creates a search over this tree that supports removing cities.
+     *
+     * @return a new search in which every city is present
+     */
+    Search newSearch() { return new Search(); }
+
+    /**
+     * A nearest-neighbour search over a shrinking subset of the cities, as needed to build
+     * nearest-neighbour tours. Every subtree counts its remaining cities, so subtrees whose
+     * cities have all been removed are skipped without being visited.
+     */
+    final class Search {
+        /** The number of remaining cities in the range whose median is at a place. */
+        private final int[] remaining = new int[order.length];
+        /** Whether a city has been removed. */
+        private final boolean[] removed = new boolean[order.length];
+        /** The best city found by the current query. */
+        private int bestCity;
+        /** The squared distance of the best city found by the current query. */
+        private double bestDist;
+
+        /**
+         * Constructs a search in which every city is present.
+         */
+        private Search() {
+            count(0, order.length);
+        }
+
+        /**
+         * Initializes the remaining counts of a subtree.
+         *
+         * @param lo    the first place of the subtree
+         * @param hi    the place after the last one of the subtree
+         */
+        private void count(int lo, int hi) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                remaining[mid] = hi - lo;
+                count(lo, mid);
+                lo = mid + 1;
+            }
+        }
+
+        /**
+         * Removes a city from the search.
+         *
+         * @param city  the city to remove
+         */
+        void remove(int city) {
+            if (removed[city])
+                return;
+
+            removed[city] = true;
+            int target = place[city];
+            int lo = 0, hi = order.length;
+            while (true) {
+                int mid = (lo + hi) >>> 1;
+                remaining[mid]--;
+                if (target == mid)
+                    return;
+                if (target < mid)
+                    hi = mid;
+                else
+                    lo = mid + 1;
+            }
+        }
+
+        /**
+         * Tells whether a city has been removed from the search.
+         *
+         * @param city  the city
+         * @return true if the city has been removed
+         */
+        boolean isRemoved(int city) { return removed[city]; }
+
+        /**
+         * Finds the nearest remaining city of a city.
+         *
+         * @param city  the city whose neighbour is searched; it may have been removed
+         * @return the nearest remaining city other than the given one, or -1 if there is none
+         */
+        int nearest(int city) {
+            bestCity = -1;
+            bestDist = Double.POSITIVE_INFINITY;
+            search(city, 0, order.length);
+            return bestCity;
+        }
+
+        /**
+         * Searches a subtree for a remaining city nearer than the best one found so far.
+         *
+         * @param city  the city whose neighbour is searched
+         * @param lo    the first place of the subtree
+         * @param hi    the place after the last one of the subtree
+         */
+        private void search(int city, int lo, int hi) {
+            if (lo >= hi)
+                return;
+            int mid = (lo + hi) >>> 1;
+            if (remaining[mid] == 0)
+                return;
+
+            int splitter = order[mid];
+            if (splitter != city && !removed[splitter]) {
+                double dist = squaredDistance(city, splitter);
+                if (dist < bestDist) {
+                    bestDist = dist;
+                    bestCity = splitter;
+                }
+            }
+
+            double offset = splitOffset(city, mid);
+            if (offset < 0) {
+                search(city, lo, mid);
+                if (offset * offset < bestDist)
+                    search(city, mid + 1, hi);
+            } else {
+                search(city, mid + 1, hi);
+                if (offset * offset < bestDist)
+                    search(city, lo, mid);
+            }
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.kpi;
+
+/**
+ * Improves paths with 2-opt and Or-opt moves, the local search stage of the memetic
+ * variant of {@link TravelSolution}. Moves are only tried towards the k nearest neighbours
+ * of a city, and don't-look bits keep cities whose surroundings did not change since their
+ * last unsuccessful scan out of the queue, so a path close to a local optimum is finished
+ * in far less than quadratic time.
+ * <p>
+ * Every worker thread needs its own instance, as the search reuses its scratch arrays
+ * from one path to the next.
+ */
+final class LocalSearch {
+    /** The longest segment moved by an Or-opt move. */
+    private static final int MAX_SEGMENT = 3;
+    /** The number of cities processed between two checks of the deadline. */
+    private static final int DEADLINE_CHECK_INTERVAL = 64;
+
+    /** The distance oracle of the set. */
+    private final DistanceOracle oracle;
+    /** The candidate lists of the set. */
+    private final NeighborLists neighborLists;
+    /** The number of candidates tried per city. */
+    private final int neighborNum;
+    /** The number of cities. */
+    private final int cityNum;
+    /** The tour being improved. */
+    private final int[] tour;
+    /** The inverse of the tour being improved. */
+    private final int[] position;
+    /** The circular queue of cities whose don't-look bit is off. */
+    private final int[] queue;
+    /** Whether a city is in the queue, i.e. its don't-look bit is off. */
+    private final boolean[] queued;
+    /** The index of the first city in the queue. */
+    private int head;
+    /** The number of cities in the queue. */
+    private int queueSize;
+
+    /**
+     * Constructs a local search over the cities of a set.
+     *
+     * @param citySet       the set of cities the paths visit
+     * @param neighborNum   the number of nearest neighbours tried per city
+     */
+    LocalSearch(CitySet citySet, int neighborNum) {
+        this.oracle = citySet.getDistanceOracle();
+        this.cityNum = citySet.size();
+        this.neighborNum = Math.min(neighborNum, cityNum - 1);
+        this.neighborLists = citySet.getNeighborLists(this.neighborNum);
+        this.tour = new int[cityNum];
+        this.position = new int[cityNum];
+        this.queue = new int[cityNum];
+        this.queued = new boolean[cityNum];
+    }
+
+    /**
+     * Applies improving 2-opt and Or-opt moves to a path until no candidate move improves
+     * it any more or the deadline passes. The moves are applied to a working copy, which
+     * is written back to the path at the end, so the path is modified in place.
+     *
+     * @param path      the path to improve
+     * @param deadline  the {@link System#nanoTime()} after which the search stops
+     * @return true if an improving move was found, false if the path is unchanged
+     */
+    boolean improve(IntPath path, long deadline) {
+        if (cityNum < 5)
+            return false;
+
+        for (int i = 0; i < cityNum; i++) {
+            tour[i] = path.cityAt(i);
+            position[tour[i]] = i;
+            queue[i] = tour[i];
+            queued[i] = true;
+        }
+        head = 0;
+        queueSize = cityNum;
+
+        long gain = 0;
+        int processed = 0;
+        while (queueSize > 0) {
+            if (++processed % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0)
+                break;
+
+            int city = queue[head];
+            head = head + 1 == cityNum ? 0 : head + 1;
+            queueSize--;
+            queued[city] = false;
+
+            int moveGain = twoOpt(city);
+            if (moveGain == 0)
+                moveGain = orOpt(city);
+            if (moveGain > 0) {
+                gain += moveGain;
+                push(city);
+            }
+        }
+
+        // clear the bits of the cities left in the queue by the deadline
+        for (; queueSize > 0; queueSize--) {
+            queued[queue[head]] = false;
+            head = head + 1 == cityNum ? 0 : head + 1;
+        }
+        if (gain == 0)
+            return false;
+
+        // rotate the starting city back to the front, as the genetic operators expect
+        int distance = path.getDistance();
+        path.setTour(tour, position[0]);
+        if (Path.VERIFY_DELTA && path.getDistance() != distance - gain)
+            throw new IllegalStateException("Method improve() in class \"LocalSearch\". Accumulated gain " + gain +
+                    " does not match the distance change " + (distance - path.getDistance()) + ".");
+        return true;
+    }
+
+    /**
+     * Tries the 2-opt moves that connect a city with one of its nearest neighbours,
+     * in both directions of the tour, and applies the first improving one.
+     *
+     * @param a the city whose edges are examined
+     * @return the gain of the applied move, or 0 if no move improves the tour
+     */
+    private int twoOpt(int a) {
+        for (int dir = 0; dir < 2; dir++) {
+            boolean forward = dir == 0;
+            int b = forward ? next(a) : prev(a);
+            int dab = oracle.distance(a, b);
+
+            for (int rank = 0; rank < neighborNum; rank++) {
+                int c = neighborLists.neighbor(a, rank);
+                int dac = oracle.distance(a, c);
+                // the new edge (a, c) alone must be shorter than the removed edge (a, b)
+                if (dac >= dab)
+                    break;
+
+                int d = forward ? next(c) : prev(c);
+                if (c == b || d == a)
+                    continue;
+
+                int gain = dab + oracle.distance(c, d) - dac - oracle.distance(b, d);
+                if (gain > 0) {
+                    // replaces the edges (a, b) and (c, d) with (a, c) and (b, d)
+                    if (forward)
+                        reversePath(b, c);
+                    else
+                        reversePath(a, d);
+                    push(b);
+                    push(c);
+                    push(d);
+                    return gain;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Tries to move a segment of up to {@link #MAX_SEGMENT} cities starting at a city
+     * next to a nearest neighbour of one of its ends, in either orientation, and applies
+     * the first improving move.
+     *
+     * @param s1    the first city of the segment
+     * @return the gain of the applied move, or 0 if no move improves the tour
+     */
+    private int orOpt(int s1) {
+        for (int length = 1; length <= MAX_SEGMENT && length + 3 <= cityNum; length++) {
+            int first = position[s1];
+            int s2 = tour[wrap(first + length - 1)];
+            int p = prev(s1);
+            int n = next(s2);
+            int removeGain = oracle.distance(p, s1) + oracle.distance(s2, n) - oracle.distance(p, n);
+            if (removeGain <= 0)
+                continue;
+
+            for (int end = 0; end < 2; end++) {
+                int s = end == 0 ? s1 : s2;
+                for (int rank = 0; rank < neighborNum; rank++) {
+                    int c = neighborLists.neighbor(s, rank);
+                    if (oracle.distance(s, c) >= removeGain)
+                        break;
+                    if (inSegment(c, first, length))
+                        continue;
+
+                    // the segment can go on either side of the neighbour
+                    for (int side = 0; side < 2; side++) {
+                        int x = side == 0 ? prev(c) : c;
+                        int y = side == 0 ? c : next(c);
+                        if (inSegment(x, first, length) || inSegment(y, first, length))
+                            continue;
+
+                        int dxy = oracle.distance(x, y);
+                        int forwardCost = oracle.distance(x, s1) + oracle.distance(s2, y) - dxy;
+                        int reversedCost = oracle.distance(x, s2) + oracle.distance(s1, y) - dxy;
+                        int gain = removeGain - Math.min(forwardCost, reversedCost);
+                        if (gain > 0) {
+                            moveSegment(first, length, x, forwardCost <= reversedCost);
+                            push(p);
+                            push(n);
+                            push(x);
+                            push(y);
+                            push(s2);
+                            return gain;
+                        }
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Moves a segment of the tour between a city and its successor. The cities between
+     * the segment and its target on the shorter side are shifted by a composition of
+     * reversals.
+     *
+     * @param first     the position of the first city of the segment
+     * @param length    the number of cities in the segment
+     * @param x         the city the segment is placed after
+     * @param keepOrder true to keep the orientation of the segment, false to reverse it
+     */
+    private void moveSegment(int first, int length, int x, boolean keepOrder) {
+        int last = wrap(first + length - 1);
+        // the cities after the segment up to x, and those after x up to the segment
+        int afterLength = wrap(position[x] - last + cityNum);
+        int beforeLength = cityNum - length - afterLength;
+
+        if (afterLength <= beforeLength) {
+            // S A becomes A S: reverse both parts, then the whole
+            if (keepOrder)
+                reverse(first, length);
+            reverse(wrap(last + 1), afterLength);
+            reverse(first, length + afterLength);
+        } else {
+            // B S becomes S B: reverse both parts, then the whole
+            int start = wrap(position[x] + 1);
+            reverse(start, beforeLength);
+            if (keepOrder)
+                reverse(first, length);
+            reverse(start, beforeLength + length);
+        }
+    }
+
+    /**
+     * Reverses the part of the tour leading from one city to another. The complement is
+     * reversed instead when it is shorter, which yields the same cyclic tour.
+     *
+     * @param from  the first city of the part
+     * @param to    the last city of the part
+     */
+    private void reversePath(int from, int to) {
+        int start = position[from];
+        int length = wrap(position[to] - start + cityNum) + 1;
+        if (length * 2 > cityNum)
+            reverse(wrap(position[to] + 1), cityNum - length);
+        else
+            reverse(start, length);
+    }
+
+    /**
+     * Reverses a range of positions of the tour, wrapping around its end.
+     *
+     * @param start     the first position of the range
+     * @param length    the number of positions in the range
+     */
+    private void reverse(int start, int length) {
+        int i = start;
+        int j = wrap(start + length - 1);
+        for (int s = length / 2; s > 0; s--) {
+            int temp = tour[i];
+            tour[i] = tour[j];
+            tour[j] = temp;
+            position[tour[i]] = i;
+            position[tour[j]] = j;
+            i = i + 1 == cityNum ? 0 : i + 1;
+            j = j == 0 ? cityNum - 1 : j - 1;
+        }
+    }
+
+    /**
+     * Checks whether a city lies in a segment of the tour.
+     *
+     * @param city      the city index
+     * @param first     the position of the first city of the segment
+     * @param length    the number of cities in the segment
+     * @return true if the city is part of the segment
+     */
+    private boolean inSegment(int city, int first, int length) {
+        return wrap(position[city] - first + cityNum) < length;
+    }
+
+    /**
+     * Turns the don't-look bit of a city off by adding it to the queue.
+     *
+     * @param city  the city index
+     */
+    private void push(int city) {
+        if (queued[city])
+            return;
+
+        queued[city] = true;
+        queue[wrap(head + queueSize)] = city;
+        queueSize++;
+    }
+
+    /**
+     * Returns the successor of a city in the tour.
+     *
+     * @param city  the city index
+     * @return the next city
+     */
+    private int next(int city) {
+        int index = position[city] + 1;
+        return tour[index == cityNum ? 0 : index];
+    }
+
+    /**
+     * Returns the predecessor of a city in the tour.
+     *
+     * @param city  the city index
+     * @return the previous city
+     */
+    private int prev(int city) {
+        int index = position[city];
+        return tour[index == 0 ? cityNum - 1 : index - 1];
+    }
+
+    /**
+     * Maps a position in the range [0, 2 * cityNum) onto the tour.
+     *
+     * @param index the position
+     * @return the position modulo the number of cities
+     */
+    private int wrap(int index) {
+        return index >= cityNum ? index - cityNum : index;
+    }
+}
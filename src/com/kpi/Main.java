@@ -1,10 +1,16 @@
 package com.kpi;
 
+import com.kpi.cli.BatchRunner;
 import com.kpi.gui.SetUpWindow;
 
 public class Main {
 
     public static void main(String[] args) {
+        // any argument selects the headless batch mode
+        if (args.length > 0) {
+            BatchRunner.main(args);
+            return;
+        }
 
         SetUpWindow mainWindow = new SetUpWindow();
     }
@@ -0,0 +1,14 @@
+package com.kpi;
+
+/**
+ * Decides which islands receive the migrants of an island in the island model
+ * of {@link TravelSolution}.
+ */
+public enum MigrationTopology {
+    /** Every island sends its migrants to the next island, the last one to the first. */
+    RING,
+    /** Every island sends its migrants to all other islands. */
+    FULLY_CONNECTED,
+    /** Every island sends its migrants to one other island picked at random per migration. */
+    RANDOM
+}
@@ -0,0 +1,56 @@
+package com.kpi;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The built-in mutation operators. City 0 always stays at position 0, so tours of fewer
+ * than three cities have nothing to mutate and stay as they are.
+ */
+public enum Mutation implements MutationOperator {
+    /** Swaps two random cities, the original mutation of the algorithm. */
+    SWAP {
+        @Override
+        public void mutate(IntPath path, OperatorScratch scratch, RandomGenerator random) {
+            int cityNum = scratch.size();
+            if (cityNum < 3)
+                return;
+
+            int index1, index2;
+            do {
+                index1 = random.nextInt(cityNum - 1) + 1;
+                index2 = random.nextInt(cityNum - 1) + 1;
+            } while (index1 == index2);
+
+            path.swap(index1, index2);
+        }
+    },
+    /** Reverses a random range of the tour, i.e. applies a random 2-opt move. */
+    INVERSION {
+        @Override
+        public void mutate(IntPath path, OperatorScratch scratch, RandomGenerator random) {
+            int cityNum = scratch.size();
+            if (cityNum < 3)
+                return;
+
+            int index1 = random.nextInt(cityNum - 1) + 1;
+            int index2 = random.nextInt(cityNum - 1) + 1;
+            path.reverse(Math.min(index1, index2), Math.max(index1, index2));
+        }
+    },
+    /** Shuffles a short random range of the tour. */
+    SCRAMBLE {
+        @Override
+        public void mutate(IntPath path, OperatorScratch scratch, RandomGenerator random) {
+            int cityNum = scratch.size();
+            if (cityNum < 3)
+                return;
+
+            int length = Math.min(cityNum - 1, MAX_SCRAMBLE_LENGTH);
+            int from = random.nextInt(cityNum - length) + 1;
+            path.scramble(from, from + random.nextInt(length), random);
+        }
+    };
+
+    /** The largest number of cities shuffled by {@link #SCRAMBLE}. */
+    private static final int MAX_SCRAMBLE_LENGTH = 8;
+}
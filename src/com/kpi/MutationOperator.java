@@ -0,0 +1,21 @@
+package com.kpi;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A mutation operator of {@link TravelSolution}. The built-in operators are the constants
+ * of {@link Mutation}. An operator is shared by all worker threads and must keep its state
+ * in the {@link OperatorScratch} it is given.
+ */
+@FunctionalInterface
+public interface MutationOperator {
+    /**
+     * Changes a path in place through its mutators, such as {@link IntPath#swap(int, int)},
+     * which keep its distance and hash up to date. City 0 must stay at position 0.
+     *
+     * @param path      the path to mutate
+     * @param scratch   the scratch memory of the calling worker
+     * @param random    the random number generator of the calling worker
+     */
+    void mutate(IntPath path, OperatorScratch scratch, RandomGenerator random);
+}
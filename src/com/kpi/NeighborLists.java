@@ -0,0 +1,126 @@
+package com.kpi;
+
+/**
+ * The k nearest neighbours of every city of a {@link CitySet}, ordered from the nearest
+ * to the farthest and stored in one flat array. Local search only tries moves towards
+ * these candidates, which keeps every step independent of the number of cities.
+ */
+final class NeighborLists {
+    /** The neighbours of city c occupy the places c * k to c * k + k - 1. */
+    private final int[] neighbors;
+    /** The number of neighbours stored per city. */
+    private final int k;
+
+    /**
+     * Finds the k nearest neighbours of every city. Planar sets query the spatial index of
+     * the set; other sets compare all pairs of cities.
+     *
+     * @param citySet   the set of cities
+     * @param k         the number of neighbours per city, at most the number of cities minus one
+     */
+    NeighborLists(CitySet citySet, int k) {
+        int cityNum = citySet.size();
+        this.k = k;
+        this.neighbors = new int[cityNum * k];
+
+        if (citySet.getMetric().isPlanar()) {
+            KdTree spatialIndex = citySet.getSpatialIndex();
+            int[] result = new int[k];
+            for (int c = 0; c < cityNum; c++) {
+                spatialIndex.nearest(c, k, result);
+                System.arraycopy(result, 0, neighbors, c * k, k);
+            }
+            return;
+        }
+
+        DistanceOracle oracle = citySet.getDistanceOracle();
+
+        // a bounded max-heap per city keeps the k nearest cities seen so far at the front
+        int[] heapCities = new int[k];
+        int[] heapDists = new int[k];
+        for (int c = 0; c < cityNum; c++) {
+            int size = 0;
+            for (int other = 0; other < cityNum; other++) {
+                if (other == c)
+                    continue;
+                int dist = oracle.distance(c, other);
+                if (size < k) {
+                    siftUp(heapCities, heapDists, size++, other, dist);
+                } else if (dist < heapDists[0]) {
+                    siftDown(heapCities, heapDists, size, other, dist);
+                }
+            }
+
+            // popping the heap yields the neighbours from the farthest to the nearest
+            for (int i = size - 1; i >= 0; i--) {
+                neighbors[c * k + i] = heapCities[0];
+                siftDown(heapCities, heapDists, i, heapCities[i], heapDists[i]);
+            }
+        }
+    }
+
+    /**
+     * Inserts a city into the max-heap at the given free place.
+     *
+     * @param heapCities    the cities of the heap
+     * @param heapDists     the distances of the heap
+     * @param index         the free place after the last element of the heap
+     * @param city          the city to insert
+     * @param dist          the distance of the city
+     */
+    private static void siftUp(int[] heapCities, int[] heapDists, int index, int city, int dist) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heapDists[parent] >= dist)
+                break;
+            heapCities[index] = heapCities[parent];
+            heapDists[index] = heapDists[parent];
+            index = parent;
+        }
+        heapCities[index] = city;
+        heapDists[index] = dist;
+    }
+
+    /**
+     * Replaces the root of the max-heap with a city and restores the heap order.
+     *
+     * @param heapCities    the cities of the heap
+     * @param heapDists     the distances of the heap
+     * @param size          the number of elements in the heap
+     * @param city          the city replacing the root
+     * @param dist          the distance of the city
+     */
+    private static void siftDown(int[] heapCities, int[] heapDists, int size, int city, int dist) {
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && heapDists[child + 1] > heapDists[child])
+                child++;
+            if (heapDists[child] <= dist)
+                break;
+            heapCities[index] = heapCities[child];
+            heapDists[index] = heapDists[child];
+            index = child;
+        }
+        heapCities[index] = city;
+        heapDists[index] = dist;
+    }
+
+    /**
+     * Returns a neighbour of a city.
+     *
+     * @param city  the city index
+     * @param rank  the rank of the neighbour, 0 for the nearest one
+     * @return the index of the neighbouring city
+     */
+    int neighbor(int city, int rank) { return neighbors[city * k + rank]; }
+
+    /**
+     * Returns the number of neighbours stored per city.
+     *
+     * @return the number of neighbours per city
+     */
+    int size() { return k; }
+}
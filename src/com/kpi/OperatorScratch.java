@@ -0,0 +1,88 @@
+package com.kpi;
+
+import java.util.Arrays;
+
+/**
+ * Scratch memory of one worker thread for the genetic operators. Every worker owns its
+ * own instance and passes it to every {@link CrossoverOperator} and {@link MutationOperator}
+ * call, so operators reuse the same arrays from one offspring to the next instead of
+ * allocating them. The arrays hold arbitrary values from earlier calls; operators must
+ * not keep references to them beyond a call.
+ */
+public final class OperatorScratch {
+    /** The number of general-purpose buffers. */
+    public static final int BUFFER_NUM = 8;
+
+    /** The number of cities of the tours the operators work on. */
+    private final int cityNum;
+    /** The general-purpose buffers, allocated on first use. */
+    private final int[][] buffers = new int[BUFFER_NUM][];
+    /** The marks of the cities, allocated on first use; see {@link #newMark()}. */
+    private int[] marks;
+    /** The current mark. */
+    private int mark;
+    /** The candidate lists used by the edge assembly crossover, fetched on first use. */
+    NeighborLists neighborLists;
+    /** The walk of the edge assembly crossover, allocated on first use. */
+    int[] walk;
+    /** The four neighbour slots of the edge recombination crossover, buffers 0 to 3, set on first use. */
+    int[][] adjacency;
+
+    /**
+     * Constructs the scratch memory for tours of a number of cities.
+     *
+     * @param cityNum   the number of cities of the tours
+     */
+    public OperatorScratch(int cityNum) {
+        this.cityNum = cityNum;
+    }
+
+    /**
+     * Returns the number of cities of the tours.
+     *
+     * @return the number of cities
+     */
+    public int size() { return cityNum; }
+
+    /**
+     * Returns a general-purpose buffer of one int per city.
+     *
+     * @param index the index of the buffer, from 0 to {@link #BUFFER_NUM} - 1
+     * @return the buffer, always the same array for the same index
+     */
+    public int[] buffer(int index) {
+        int[] buffer = buffers[index];
+        if (buffer == null)
+            buffer = buffers[index] = new int[cityNum];
+
+        return buffer;
+    }
+
+    /**
+     * Returns the array of city marks. A city is marked if its entry equals the value
+     * returned by the last call to {@link #newMark()}, so all marks are cleared in constant
+     * time by requesting a new one.
+     *
+     * @return the marks, indexed by city
+     */
+    public int[] marks() {
+        if (marks == null)
+            marks = new int[cityNum];
+
+        return marks;
+    }
+
+    /**
+     * Clears all marks by switching to a mark no city carries yet.
+     *
+     * @return the new mark
+     */
+    public int newMark() {
+        int[] marks = marks();
+        if (++mark == 0) {
+            Arrays.fill(marks, 0);
+            mark = 1;
+        }
+        return mark;
+    }
+}
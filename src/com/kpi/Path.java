@@ -1,8 +1,8 @@
 package com.kpi;
 
 import java.util.Collections;
-import java.util.Random;
 import java.util.Vector;
+import java.util.concurrent.ThreadLocalRandom;
 import java.lang.Math;
 
 /**
@@ -11,8 +11,16 @@ import java.lang.Math;
  * at the same city, with methods for mutation and crossover.
  */
 public class Path implements Chromosome {
+    /**
+     * Whether incremental distance updates are cross-checked against a full recompute.
+     * Enabled with the {@code com.kpi.verifyDelta} system property; meant for debugging only.
+     */
+    static final boolean VERIFY_DELTA = Boolean.getBoolean("com.kpi.verifyDelta");
+
     /** The ordered sequence of cities in this path. */
     final public Vector<City> cities;
+    /** The set of cities the path visits. */
+    final private CitySet citySet;
     /** The total number of cities in the path. */
     final private int cityNum;
     /** The total distance of the path. */
@@ -24,6 +32,7 @@ public class Path implements Chromosome {
      * @param cityNum   the number of cities in the path
      */
     public Path(int cityNum) {
+        this.citySet = CitySet.getCitySet(cityNum);
         this.cityNum = cityNum;
         this.cities = generatePath();
         this.totalDistance = this.calcDist();
@@ -36,7 +45,18 @@ public class Path implements Chromosome {
      * @param cityNum   the number of cities in the path
      */
     public Path(Vector<City> path, int cityNum) {
-        this.cityNum = cityNum;
+        this(path, CitySet.getCitySet(cityNum));
+    }
+
+    /**
+     * Constructs a Path with a specified sequence of cities of a set.
+     *
+     * @param path      the sequence of cities
+     * @param citySet   the set the cities belong to
+     */
+    public Path(Vector<City> path, CitySet citySet) {
+        this.citySet = citySet;
+        this.cityNum = citySet.size();
         this.cities = path;
         this.totalDistance = this.calcDist();
     }
@@ -48,11 +68,10 @@ public class Path implements Chromosome {
      * @return a new randomly generated path
      */
     private Vector<City> generatePath() {
-        CitySet citySet = CitySet.getCitySet(cityNum);
         Vector<City> newPath = new Vector<>(citySet.cities);
 
         // Shuffle cities except for the first one
-        Collections.shuffle(newPath.subList(1, cityNum), new Random());
+        Collections.shuffle(newPath.subList(1, cityNum), ThreadLocalRandom.current());
 
         return newPath;
     }
@@ -63,17 +82,24 @@ public class Path implements Chromosome {
      * @return the total distance of the path
      */
     private int calcDist() {
+        DistanceOracle oracle = citySet.getDistanceOracle();
         int dist = 0;
 
         for (int i = 0; i < cities.size(); i++) {
             City city1 = cities.elementAt(i);
             City city2 = i == cities.size() - 1 ? cities.elementAt(0) : cities.elementAt(i+1);
-            dist += (int) Math.sqrt((city1.getX() - city2.getX()) * (city1.getX() - city2.getX()) +
-                    (city1.getY() - city2.getY()) * (city1.getY() - city2.getY()));
+            dist += oracle.distance(city1.getId() - 1, city2.getId() - 1);
         }
         return dist;
     }
 
+    /**
+     * Returns the set of cities the path visits.
+     *
+     * @return the city set of the path
+     */
+    public CitySet getCitySet() { return citySet; }
+
     /**
      * Generates a unique key for the path based on its city order.
      * The key helps compare paths and detect identical or equivalent paths.
@@ -107,7 +133,7 @@ public class Path implements Chromosome {
         Vector<City> childPath = new Vector<>(parentPath1);
 
         // select a random index (excluding the starting city at index 0) to begin the crossover cycle
-        int index = new Random().nextInt(cityNum-1)+1;
+        int index = ThreadLocalRandom.current().nextInt(cityNum-1)+1;
         City startVal = parentPath1.elementAt(index); // city from the first parent at the selected index
         City path2Val = parentPath2.elementAt(index); // corresponding city from the second parent
 
@@ -121,26 +147,74 @@ public class Path implements Chromosome {
         // place the final city of the cycle back into the child path
         childPath.setElementAt(path2Val, index);
 
-        return new Path(childPath, cityNum);
+        return new Path(childPath, citySet);
     }
 
     /**
      * Mutates the path by swapping two random cities, excluding the starting city.
+     * The total distance is updated from the change of the affected edges only.
+     * Tours of fewer than three cities stay as they are.
      */
     @Override
     public void mutate() {
-        Random random = new Random();
+        if (cityNum < 3)
+            return;
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         int index1, index2;
         do {
             index1 = random.nextInt(cityNum-1)+1;
             index2 = random.nextInt(cityNum-1)+1;
-
-            City temp = cities.elementAt(index1);
-            cities.setElementAt(cities.elementAt(index2), index1);
-            cities.setElementAt(temp, index2);
         } while (index1 == index2);
 
-        totalDistance = calcDist();
+        DistanceOracle oracle = citySet.getDistanceOracle();
+        int before = swapEdgesCost(oracle, index1, index2);
+
+        City temp = cities.elementAt(index1);
+        cities.setElementAt(cities.elementAt(index2), index1);
+        cities.setElementAt(temp, index2);
+
+        totalDistance += swapEdgesCost(oracle, index1, index2) - before;
+
+        if (VERIFY_DELTA && totalDistance != calcDist())
+            throw new IllegalStateException("Method mutate() in class \"Path\". Incremental distance " +
+                    totalDistance + " differs from the recomputed distance " + calcDist() + ".");
+    }
+
+    /**
+     * Sums the lengths of the edges touching two positions of the path, counting
+     * every edge once even if the positions are adjacent.
+     *
+     * @param oracle    the distance oracle to use
+     * @param index1    the first position
+     * @param index2    the second position
+     * @return the total length of the edges touching the positions
+     */
+    private int swapEdgesCost(DistanceOracle oracle, int index1, int index2) {
+        // an edge is identified by the position it starts at
+        int edge1 = index1 == 0 ? cityNum - 1 : index1 - 1;
+        int edge2 = index2 == 0 ? cityNum - 1 : index2 - 1;
+
+        int cost = edgeCost(oracle, edge1) + edgeCost(oracle, index1);
+        if (edge2 != edge1 && edge2 != index1)
+            cost += edgeCost(oracle, edge2);
+        if (index2 != edge1 && index2 != index1)
+            cost += edgeCost(oracle, index2);
+
+        return cost;
+    }
+
+    /**
+     * Returns the length of the edge leaving the given position of the path.
+     *
+     * @param oracle    the distance oracle to use
+     * @param index     the position the edge starts at
+     * @return the length of the edge
+     */
+    private int edgeCost(DistanceOracle oracle, int index) {
+        City city1 = cities.elementAt(index);
+        City city2 = cities.elementAt(index == cityNum - 1 ? 0 : index + 1);
+        return oracle.distance(city1.getId() - 1, city2.getId() - 1);
     }
 
     /**
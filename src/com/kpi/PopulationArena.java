@@ -0,0 +1,62 @@
+package com.kpi;
+
+/**
+ * Supplies the population every generation is bred into. With recycling enabled the
+ * arena double-buffers two populations: the one a generation was bred from is handed
+ * back and becomes the population the generation after next is bred into, so its paths
+ * and their arrays are overwritten instead of allocated again. Without recycling every
+ * generation gets newly allocated paths. An arena belongs to a single population and is
+ * only used by the thread evolving it.
+ */
+final class PopulationArena {
+    /** The set of cities the paths visit. */
+    private final CitySet citySet;
+    /** The number of paths of a population. */
+    private final int size;
+    /** Whether populations handed back are reused. */
+    private final boolean recycling;
+    /** The population the next generation is bred into, or null if none is ready. */
+    private IntPath[] spare;
+
+    /**
+     * Constructs an arena.
+     *
+     * @param citySet   the set of cities the paths visit
+     * @param size      the number of paths of a population
+     * @param recycling whether populations handed back are reused
+     */
+    PopulationArena(CitySet citySet, int size, boolean recycling) {
+        this.citySet = citySet;
+        this.size = size;
+        this.recycling = recycling;
+    }
+
+    /**
+     * Returns a population to breed the next generation into. Its paths hold arbitrary
+     * tours and must all be overwritten.
+     *
+     * @return the population, reused if one was handed back
+     */
+    IntPath[] take() {
+        IntPath[] population = spare;
+        spare = null;
+        if (population != null)
+            return population;
+
+        population = new IntPath[size];
+        for (int i = 0; i < size; i++)
+            population[i] = IntPath.slot(citySet);
+        return population;
+    }
+
+    /**
+     * Hands back a population that is no longer read, so that its paths can be
+     * overwritten by a later generation. Populations of another size are dropped.
+     *
+     * @param population    the population to hand back; no references to it or its paths may remain
+     */
+    void recycle(IntPath[] population) {
+        if (recycling && population.length == size)
+            spare = population;
+    }
+}
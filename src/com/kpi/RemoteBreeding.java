@@ -0,0 +1,352 @@
+package com.kpi;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Breeds the children of a {@link TravelSolution} in worker processes spawned on the same
+ * machine (see {@link BreedingWorker}), so the crossover and the evaluation of the children
+ * run outside the heap of the coordinating JVM.
+ * <p>
+ * Every worker receives the parents of a generation once and then batches of parent pairs.
+ * Each worker has a coordinator thread that keeps up to {@link #PIPELINE_DEPTH} batches in
+ * flight, so the worker starts on the next batch while the children of the previous one
+ * travel back. Batches are claimed from a shared counter until the range to breed is used
+ * up, so faster workers take more of them, and every batch is sized from the throughput the
+ * worker reported for its recent batches, but never larger than an even share of what is left.
+ */
+final class RemoteBreeding implements AutoCloseable {
+    /** The number of batches a worker has in flight at most. */
+    private static final int PIPELINE_DEPTH = 2;
+    /** The time a worker should spend on one batch, in nanoseconds. */
+    private static final long TARGET_BATCH_NANOS = 5_000_000;
+    /** The smallest batch, also used until a worker's throughput is known. */
+    private static final int MIN_BATCH = 16;
+    /**
+     * The largest batch. Its pairs must fit into the socket buffers, because the coordinator
+     * sends the next batch while the worker is still sending the children of the previous one.
+     */
+    private static final int MAX_BATCH = 4096;
+    /** The weight of the latest batch in the throughput estimate. */
+    private static final double THROUGHPUT_WEIGHT = 0.3;
+    /** The time to wait for a spawned worker to connect, in milliseconds. */
+    private static final int CONNECT_TIMEOUT_MS = 30_000;
+
+    /** The connections to the workers. */
+    private final List<Connection> connections = new ArrayList<>();
+    /** The worker processes spawned by this instance. */
+    private final List<Process> processes = new ArrayList<>();
+    /** The threads driving the connections, one per worker. */
+    private final ExecutorService executor;
+    /** The generation whose parents are current; increased by {@link #setParents}. */
+    private int parentStamp;
+    /** The current parents; only the first parentNum are used. */
+    private IntPath[] parents;
+    /** The number of current parents. */
+    private int parentNum;
+
+    /**
+     * Spawns worker processes and waits until all of them are connected.
+     *
+     * @param workerNum The number of worker processes.
+     * @param citySet   The set of cities of the tours.
+     * @param crossover The crossover the workers apply.
+     * @param random    The random number generator the generators of the connections and workers are split from.
+     * @throws UncheckedIOException if a worker cannot be started or does not connect in time
+     */
+    RemoteBreeding(int workerNum, CitySet citySet, Crossover crossover, SplittableRandom random) {
+        this.executor = Executors.newFixedThreadPool(workerNum, runnable -> {
+            Thread thread = new Thread(runnable, "remote-breeding");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long token = new SecureRandom().nextLong();
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        try (ServerSocket server = new ServerSocket(0, workerNum, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(CONNECT_TIMEOUT_MS);
+            for (int i = 0; i < workerNum; i++) {
+                ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        BreedingWorker.class.getName(), Integer.toString(server.getLocalPort()), Long.toString(token));
+                builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+                builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+                processes.add(builder.start());
+            }
+
+            while (connections.size() < workerNum) {
+                Socket socket = server.accept();
+                // a peer that never sends the token must not block the start
+                socket.setSoTimeout(CONNECT_TIMEOUT_MS);
+                Connection connection = new Connection(socket, citySet.size(), random.split());
+                if (connection.in.readLong() != token) {
+                    socket.close();
+                    continue;
+                }
+                socket.setSoTimeout(0);
+                connections.add(connection);
+                connection.setup(citySet, crossover, random.nextLong());
+            }
+        } catch (SocketTimeoutException e) {
+            close();
+            throw new UncheckedIOException("Method RemoteBreeding() in class \"RemoteBreeding\". Only " +
+                    connections.size() + " of " + workerNum + " workers connected.", e);
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sets the parents of the next children. Every worker receives them with its first
+     * batch after the call.
+     *
+     * @param parents   The generation whose first paths are the parents; not modified until the children are bred.
+     * @param parentNum The number of parents.
+     */
+    void setParents(IntPath[] parents, int parentNum) {
+        this.parents = parents;
+        this.parentNum = parentNum;
+        parentStamp++;
+    }
+
+    /**
+     * Overwrites the paths of a range of a population with children of randomly chosen
+     * parents bred by the workers, and waits until all of them have arrived.
+     *
+     * @param children  The population receiving the children.
+     * @param from      The first index of the range; the range ends with the population.
+     * @throws UncheckedIOException if a worker fails
+     */
+    void breed(IntPath[] children, int from) {
+        AtomicInteger cursor = new AtomicInteger(from);
+        List<Future<?>> futures = new ArrayList<>(connections.size());
+        for (Connection connection : connections)
+            futures.add(executor.submit(() -> {
+                connection.breed(children, cursor);
+                return null;
+            }));
+
+        try {
+            for (Future<?> future : futures)
+                future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof EOFException)
+                throw new UncheckedIOException(new IOException("A breeding worker closed its connection.", cause));
+            if (cause instanceof IOException)
+                throw new UncheckedIOException((IOException) cause);
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Method breed() in class \"RemoteBreeding\". Interrupted while breeding.", e);
+        }
+    }
+
+    /**
+     * Ends the sessions with the workers and waits briefly for their processes to exit.
+     */
+    @Override
+    public void close() {
+        for (Connection connection : connections)
+            connection.close();
+        executor.shutdownNow();
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(1, TimeUnit.SECONDS))
+                    process.destroy();
+            } catch (InterruptedException e) {
+                process.destroy();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * The connection to one worker, driven by one coordinator thread at a time.
+     */
+    private final class Connection {
+        /** The socket connected to the worker. */
+        final Socket socket;
+        /** The input from the worker. */
+        final DataInputStream in;
+        /** The output to the worker. */
+        final DataOutputStream out;
+        /** The codec of the tours. */
+        final TourCodec codec;
+        /** The decoding buffer of the tours. */
+        final int[] tour;
+        /** The random number generator choosing the parent pairs. */
+        final SplittableRandom random;
+        /** The first index of every batch in flight, in the order they were sent. */
+        final int[] batchFrom = new int[PIPELINE_DEPTH];
+        /** The index after the last one of every batch in flight. */
+        final int[] batchTo = new int[PIPELINE_DEPTH];
+        /** The generation whose parents the worker holds. */
+        int sentStamp;
+        /** The estimated throughput of the worker in children per nanosecond, 0 until measured. */
+        double throughput;
+
+        /**
+         * Constructs a connection.
+         *
+         * @param socket    the socket connected to the worker
+         * @param cityNum   the number of cities of the tours
+         * @param random    the random number generator choosing the parent pairs
+         * @throws IOException if the streams of the socket cannot be opened
+         */
+        Connection(Socket socket, int cityNum, SplittableRandom random) throws IOException {
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BreedingWorker.BUFFER_SIZE));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BreedingWorker.BUFFER_SIZE));
+            this.codec = new TourCodec(cityNum);
+            this.tour = new int[cityNum];
+            this.random = random;
+        }
+
+        /**
+         * Sends the city set, the crossover and the seed of the worker.
+         *
+         * @param citySet   the set of cities of the tours
+         * @param crossover the crossover the worker applies
+         * @param seed      the seed of the worker's random number generator
+         * @throws IOException if the connection fails
+         */
+        void setup(CitySet citySet, Crossover crossover, long seed) throws IOException {
+            out.writeByte(BreedingWorker.SETUP);
+            citySet.writeTo(out);
+            out.writeInt(crossover.ordinal());
+            out.writeLong(seed);
+            out.flush();
+        }
+
+        /**
+         * Claims batches of a range until it is used up, keeping the pipeline of the
+         * worker full, and writes the children of every batch into the population.
+         *
+         * @param children  the population receiving the children
+         * @param cursor    the first index of the range not yet claimed by any worker
+         * @throws IOException if the connection fails or the worker sends invalid data
+         */
+        void breed(IntPath[] children, AtomicInteger cursor) throws IOException {
+            if (sentStamp != parentStamp) {
+                out.writeByte(BreedingWorker.PARENTS);
+                out.writeInt(parentNum);
+                for (int i = 0; i < parentNum; i++)
+                    codec.write(out, parents[i]);
+                sentStamp = parentStamp;
+            }
+
+            int end = children.length;
+            int head = 0;
+            int inFlight = 0;
+            boolean exhausted = false;
+            while (true) {
+                while (!exhausted && inFlight < PIPELINE_DEPTH) {
+                    int size = batchSize(end - cursor.get());
+                    int batchStart = cursor.getAndAdd(size);
+                    if (batchStart >= end) {
+                        exhausted = true;
+                        break;
+                    }
+                    int slot = (head + inFlight++) % PIPELINE_DEPTH;
+                    batchFrom[slot] = batchStart;
+                    batchTo[slot] = Math.min(end, batchStart + size);
+                    sendBatch(batchTo[slot] - batchFrom[slot]);
+                }
+                out.flush();
+                if (inFlight == 0)
+                    return;
+
+                receiveBatch(children, batchFrom[head], batchTo[head]);
+                head = (head + 1) % PIPELINE_DEPTH;
+                inFlight--;
+            }
+        }
+
+        /**
+         * Chooses the size of the next batch: the number of children the worker breeds in
+         * {@link #TARGET_BATCH_NANOS}, but at most an even share of the remaining children
+         * and at most {@link #MAX_BATCH}.
+         *
+         * @param remaining the number of children not yet claimed
+         * @return the size of the batch
+         */
+        private int batchSize(int remaining) {
+            int size = throughput > 0 ? (int) Math.min(Integer.MAX_VALUE, throughput * TARGET_BATCH_NANOS) : MIN_BATCH;
+            int share = (remaining + PIPELINE_DEPTH * connections.size() - 1) / (PIPELINE_DEPTH * connections.size());
+            return Math.max(MIN_BATCH, Math.min(MAX_BATCH, Math.min(size, share)));
+        }
+
+        /**
+         * Sends a batch of randomly chosen parent pairs.
+         *
+         * @param childNum  the number of children to breed
+         * @throws IOException if the connection fails
+         */
+        private void sendBatch(int childNum) throws IOException {
+            out.writeByte(BreedingWorker.BATCH);
+            out.writeInt(childNum);
+            for (int i = 0; i < childNum; i++) {
+                out.writeInt(random.nextInt(parentNum));
+                out.writeInt(random.nextInt(parentNum));
+            }
+        }
+
+        /**
+         * Receives the children of the oldest batch in flight and updates the throughput estimate.
+         *
+         * @param children  the population receiving the children
+         * @param from      the first index of the batch
+         * @param to        the index after the last one of the batch
+         * @throws IOException if the connection fails or the worker sends invalid data
+         */
+        private void receiveBatch(IntPath[] children, int from, int to) throws IOException {
+            for (int i = from; i < to; i++)
+                codec.read(in, children[i], tour);
+
+            long nanos = Math.max(1, in.readLong());
+            double measured = (double) (to - from) / nanos;
+            throughput = throughput > 0 ? throughput + THROUGHPUT_WEIGHT * (measured - throughput) : measured;
+        }
+
+        /**
+         * Ends the session with the worker, ignoring failures of a broken connection.
+         */
+        void close() {
+            try {
+                out.writeByte(BreedingWorker.CLOSE);
+                out.flush();
+            } catch (IOException e) {
+                // the worker is gone already
+            }
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // nothing left to release
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.kpi;
+
+/**
+ * Lets another thread pause, resume and cancel a run of {@link TravelSolution}. The run
+ * checks the control once before every generation, so a request takes effect as soon as
+ * the current generation is complete and never leaves a generation half-bred. A cancelled
+ * run returns normally with the history recorded so far and, if enabled, writes its final
+ * checkpoint.
+ */
+public final class RunControl {
+    /** Whether the run waits before its next generation. */
+    private boolean paused;
+    /** Whether the run stops before its next generation. */
+    private boolean cancelled;
+
+    /**
+     * Makes the run wait before its next generation until it is resumed or cancelled.
+     */
+    public synchronized void pause() {
+        paused = true;
+    }
+
+    /**
+     * Lets a paused run continue.
+     */
+    public synchronized void resume() {
+        paused = false;
+        notifyAll();
+    }
+
+    /**
+     * Makes the run stop before its next generation, even while it is paused.
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        notifyAll();
+    }
+
+    /**
+     * Tells whether the run is paused.
+     *
+     * @return true if the run waits before its next generation
+     */
+    public synchronized boolean isPaused() { return paused; }
+
+    /**
+     * Tells whether the run has been cancelled.
+     *
+     * @return true if the run stops before its next generation
+     */
+    public synchronized boolean isCancelled() { return cancelled; }
+
+    /**
+     * Waits while the run is paused. Interrupting the waiting thread cancels the run.
+     *
+     * @return true if the next generation may start, false if the run is cancelled
+     */
+    synchronized boolean awaitGeneration() {
+        while (paused && !cancelled) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelled = true;
+            }
+        }
+        return !cancelled;
+    }
+}
@@ -0,0 +1,134 @@
+package com.kpi;
+
+/**
+ * The progress of a run of {@link TravelSolution} as seen by its {@link StopCondition}
+ * and its mutation controller: the completed iterations, the evaluated paths, the best
+ * distance found so far, how long it has not improved and the elapsed time. In the island
+ * model every island keeps its own progress.
+ */
+public final class RunProgress {
+    /** The {@link System#nanoTime()} at which the run started. */
+    private final long startNanos;
+    /** The number of completed iterations. */
+    private int iteration;
+    /** The number of paths built and evaluated from scratch. */
+    private long evaluations;
+    /** The shortest distance found so far. */
+    private int bestDistance;
+    /** The number of generations since the shortest distance last improved. */
+    private int stagnantGenerations;
+    /** The statistics of the last generation, or null before the first one. */
+    private GenerationStats lastStats;
+    /** The percentage of paths mutated in the next generation. */
+    private int mutationPercent;
+
+    /**
+     * Constructs the progress of a run starting now.
+     *
+     * @param iteration         the number of iterations completed before the run
+     * @param bestDistance      the shortest distance found before the run, or Integer.MAX_VALUE
+     * @param mutationPercent   the percentage of paths mutated in the first generation
+     */
+    RunProgress(int iteration, int bestDistance, int mutationPercent) {
+        this.startNanos = System.nanoTime();
+        this.iteration = iteration;
+        this.bestDistance = bestDistance;
+        this.mutationPercent = mutationPercent;
+    }
+
+    /**
+     * Constructs the progress of a run continuing one that was interrupted.
+     *
+     * @param iteration             the number of iterations completed before the run
+     * @param bestDistance          the shortest distance found before the run
+     * @param mutationPercent       the percentage of paths mutated in the first generation
+     * @param evaluations           the number of paths evaluated before the run
+     * @param stagnantGenerations   the number of generations since the shortest distance last improved
+     */
+    RunProgress(int iteration, int bestDistance, int mutationPercent, long evaluations, int stagnantGenerations) {
+        this(iteration, bestDistance, mutationPercent);
+        this.evaluations = evaluations;
+        this.stagnantGenerations = stagnantGenerations;
+    }
+
+    /**
+     * Records a completed generation.
+     *
+     * @param stats the statistics of the generation
+     */
+    void record(GenerationStats stats) {
+        iteration = stats.getIteration();
+        lastStats = stats;
+        if (stats.getBestDistance() < bestDistance) {
+            bestDistance = stats.getBestDistance();
+            stagnantGenerations = 0;
+        } else {
+            stagnantGenerations++;
+        }
+    }
+
+    /**
+     * Adds to the number of evaluated paths.
+     *
+     * @param count the number of paths built and evaluated
+     */
+    void addEvaluations(long count) { evaluations += count; }
+
+    /**
+     * Sets the percentage of paths mutated in the next generation.
+     *
+     * @param mutationPercent   the mutation percentage
+     */
+    void setMutationPercent(int mutationPercent) { this.mutationPercent = mutationPercent; }
+
+    /**
+     * Returns the number of completed iterations, including those before a resumed run.
+     *
+     * @return the number of the last completed iteration
+     */
+    public int getIteration() { return iteration; }
+
+    /**
+     * Returns the number of paths built and evaluated from scratch: the initial generation
+     * and every bred child, including rejected duplicates. Mutation and local search only
+     * update distances incrementally and are not counted.
+     *
+     * @return the number of evaluations since the run started
+     */
+    public long getEvaluations() { return evaluations; }
+
+    /**
+     * Returns the shortest distance found so far.
+     *
+     * @return the best distance, or Integer.MAX_VALUE before the first generation
+     */
+    public int getBestDistance() { return bestDistance; }
+
+    /**
+     * Returns the number of generations since the shortest distance last improved.
+     *
+     * @return the number of generations without improvement
+     */
+    public int getStagnantGenerations() { return stagnantGenerations; }
+
+    /**
+     * Returns the wall-clock time since the run started.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() { return System.nanoTime() - startNanos; }
+
+    /**
+     * Returns the statistics of the last generation.
+     *
+     * @return the statistics, or null before the first generation
+     */
+    public GenerationStats getLastStats() { return lastStats; }
+
+    /**
+     * Returns the percentage of paths mutated in the next generation.
+     *
+     * @return the mutation percentage
+     */
+    public int getMutationPercent() { return mutationPercent; }
+}
@@ -0,0 +1,253 @@
+package com.kpi;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An on-disk store of the best known solutions of TSP instances, keyed by the
+ * {@link CitySet#getFingerprint() fingerprint} of the instance, so the same cities give the
+ * same entry no matter where they were loaded from. Every entry is a {@link Checkpoint} file
+ * holding the best known tour and up to {@link #ELITE_NUM} distinct elite tours, and is only
+ * rewritten when a run improves on it. The total size of the entries is bounded: once it is
+ * exceeded, the least recently used entries are deleted. The last use of an entry is kept as
+ * the modification time of its file, so the order survives restarts and is shared by all
+ * processes using the directory. An instance is safe for use by several threads.
+ */
+public final class SolutionCache {
+    /** The largest number of elite tours kept per instance. */
+    public static final int ELITE_NUM = 16;
+    /** The extension of the entry files. */
+    private static final String EXTENSION = ".sol";
+
+    /**
+     * What a run does when the cache holds a solution of its instance.
+     */
+    public enum HitPolicy {
+        /** Return the stored best tour immediately without running the algorithm. */
+        RETURN_BEST,
+        /** Seed the initial generation with the stored elite tours and run as usual. */
+        WARM_START
+    }
+
+    /** The directory of the entries. */
+    private final Path directory;
+    /** The largest total size of the entries in bytes. */
+    private final long maxBytes;
+    /** The sizes of the entries by fingerprint, least recently used first. */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** The total size of the entries in bytes. */
+    private long totalBytes;
+
+    /**
+     * Opens a cache directory, creating it if needed, and indexes its entries.
+     *
+     * @param directory the directory of the entries
+     * @param maxBytes  the largest total size of the entries in bytes
+     * @throws IllegalArgumentException if maxBytes is not positive
+     * @throws IOException if the directory cannot be created or listed
+     */
+    public SolutionCache(String directory, long maxBytes) throws IOException {
+        if (maxBytes < 1)
+            throw new IllegalArgumentException("Method SolutionCache() in class \"SolutionCache\". Cache size must be positive.");
+
+        this.directory = Paths.get(directory);
+        this.maxBytes = maxBytes;
+        Files.createDirectories(this.directory);
+
+        // index the existing entries from the least to the most recently used
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, "*" + EXTENSION)) {
+            for (Path file : stream)
+                files.add(file);
+        }
+        Map<Path, FileTime> times = new LinkedHashMap<>();
+        for (Path file : files)
+            times.put(file, Files.getLastModifiedTime(file));
+        files.sort(Comparator.comparing(times::get));
+        for (Path file : files)
+            index(fingerprintOf(file), Files.size(file));
+    }
+
+    /**
+     * Looks up the stored solution of an instance and marks it as recently used.
+     * Unreadable or corrupted entries are deleted and reported as misses.
+     *
+     * @param citySet   the instance
+     * @return the stored solution, whose generation holds the elite tours, or null on a miss
+     */
+    public synchronized Checkpoint lookup(CitySet citySet) {
+        String fingerprint = citySet.getFingerprint();
+        Path file = fileOf(fingerprint);
+        if (!Files.isRegularFile(file)) {
+            unindex(fingerprint);
+            return null;
+        }
+
+        try {
+            Checkpoint checkpoint = Checkpoint.read(file.toString());
+            if (checkpoint.getCityNum() != citySet.size())
+                throw new IOException("Entry " + file + " has a different number of cities.");
+
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            index(fingerprint, Files.size(file));
+            return checkpoint;
+        } catch (IOException e) {
+            delete(fingerprint);
+            return null;
+        }
+    }
+
+    /**
+     * Merges the result of a run into the entry of its instance: the shortest distinct tours
+     * among the stored elites, the best path and the population become the new elites.
+     * The entry is only rewritten if the elites change; afterwards the least recently used
+     * entries are evicted until the cache fits its size.
+     *
+     * @param citySet       the instance
+     * @param best          the best path of the run
+     * @param population    further paths of the run to consider as elites, possibly empty
+     * @throws IOException if the entry cannot be written
+     */
+    public synchronized void store(CitySet citySet, IntPath best, IntPath[] population) throws IOException {
+        Checkpoint stored = lookup(citySet);
+        IntPath[] storedElites = stored != null ? stored.toGeneration(citySet) : new IntPath[0];
+        List<IntPath> candidates = new ArrayList<>(Arrays.asList(population));
+        candidates.add(best);
+        candidates.addAll(Arrays.asList(storedElites));
+        candidates.sort(Comparator.comparingInt(IntPath::getDistance));
+
+        // keep the shortest distinct tours
+        TourHashSet hashes = new TourHashSet(ELITE_NUM);
+        List<IntPath> elites = new ArrayList<>(ELITE_NUM);
+        for (IntPath candidate : candidates) {
+            if (elites.size() == ELITE_NUM)
+                break;
+            if (hashes.add(candidate.getHash()))
+                elites.add(candidate);
+        }
+        if (stored != null && sameTours(storedElites, elites))
+            return;
+
+        int cityNum = citySet.size();
+        int[] tours = new int[elites.size() * cityNum];
+        for (int i = 0; i < elites.size(); i++)
+            elites.get(i).copyTourTo(tours, i * cityNum);
+        int[] bestTour = new int[cityNum];
+        elites.get(0).copyTourTo(bestTour, 0);
+
+        String fingerprint = citySet.getFingerprint();
+        Path file = fileOf(fingerprint);
+        new Checkpoint(cityNum, 0, new long[0], elites.size(), tours, bestTour).write(file.toString());
+        index(fingerprint, Files.size(file));
+        evict(fingerprint);
+    }
+
+    /**
+     * Tells whether the stored elites are exactly the given ones in the same order.
+     *
+     * @param storedElites  the stored elites
+     * @param elites        the new elites
+     * @return true if the entry need not be rewritten
+     */
+    private static boolean sameTours(IntPath[] storedElites, List<IntPath> elites) {
+        if (storedElites.length != elites.size())
+            return false;
+
+        for (int i = 0; i < storedElites.length; i++)
+            if (storedElites[i].getHash() != elites.get(i).getHash())
+                return false;
+        return true;
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache fits its size, sparing one entry.
+     *
+     * @param spared    the fingerprint of the entry never to delete
+     */
+    private void evict(String spared) {
+        // iterate over the entries, since get() would reorder the map
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            String fingerprint = entry.getKey();
+            if (fingerprint.equals(spared))
+                continue;
+
+            totalBytes -= entry.getValue();
+            iterator.remove();
+            try {
+                Files.deleteIfExists(fileOf(fingerprint));
+            } catch (IOException e) {
+                // another process may hold or have removed the file; it is no longer indexed either way
+            }
+        }
+    }
+
+    /**
+     * Adds an entry to the index or updates its size, marking it as most recently used.
+     *
+     * @param fingerprint   the fingerprint of the entry
+     * @param size          the size of its file in bytes
+     */
+    private void index(String fingerprint, long size) {
+        Long previous = entries.put(fingerprint, size);
+        totalBytes += size - (previous != null ? previous : 0);
+    }
+
+    /**
+     * Removes an entry from the index.
+     *
+     * @param fingerprint   the fingerprint of the entry
+     */
+    private void unindex(String fingerprint) {
+        Long previous = entries.remove(fingerprint);
+        if (previous != null)
+            totalBytes -= previous;
+    }
+
+    /**
+     * Removes an entry from the index and deletes its file.
+     *
+     * @param fingerprint   the fingerprint of the entry
+     */
+    private void delete(String fingerprint) {
+        unindex(fingerprint);
+        try {
+            Files.deleteIfExists(fileOf(fingerprint));
+        } catch (IOException e) {
+            // the entry is no longer indexed, a later store overwrites the file
+        }
+    }
+
+    /**
+     * Returns the file of an entry.
+     *
+     * @param fingerprint   the fingerprint of the entry
+     * @return the path of the file
+     */
+    private Path fileOf(String fingerprint) {
+        return directory.resolve(fingerprint + EXTENSION);
+    }
+
+    /**
+     * Returns the fingerprint an entry file belongs to.
+     *
+     * @param file  the file of the entry
+     * @return the fingerprint
+     */
+    private static String fingerprintOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.length() - EXTENSION.length());
+    }
+}
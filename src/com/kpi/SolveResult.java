@@ -0,0 +1,100 @@
+package com.kpi;
+
+/**
+ * The outcome of one problem solved by a {@link BatchSolver}: the best path found, why
+ * the run ended and how long the problem waited and ran. Results are immutable.
+ */
+public final class SolveResult {
+    /**
+     * Why the run of a problem ended.
+     */
+    public enum Status {
+        /** The run ended by itself, after its iterations or on its own stop condition. */
+        SOLVED,
+        /** The run was stopped by the deadline of the problem. */
+        DEADLINE_REACHED,
+        /** The deadline passed while the problem was queued, so it was never run. */
+        EXPIRED
+    }
+
+    /** The set of cities of the problem. */
+    private final CitySet citySet;
+    /** The shortest path found, or null if the problem expired. */
+    private final IntPath best;
+    /** Why the run ended. */
+    private final Status status;
+    /** The time between the submission and the start of the run in nanoseconds. */
+    private final long waitNanos;
+    /** The duration of the run in nanoseconds. */
+    private final long solveNanos;
+    /** The number of completed generations. */
+    private final int generations;
+
+    /**
+     * Constructs a result.
+     *
+     * @param citySet       the set of cities of the problem
+     * @param best          the shortest path found, or null if the problem expired
+     * @param status        why the run ended
+     * @param waitNanos     the time between the submission and the start of the run in nanoseconds
+     * @param solveNanos    the duration of the run in nanoseconds
+     * @param generations   the number of completed generations
+     */
+    SolveResult(CitySet citySet, IntPath best, Status status, long waitNanos, long solveNanos, int generations) {
+        this.citySet = citySet;
+        this.best = best;
+        this.status = status;
+        this.waitNanos = waitNanos;
+        this.solveNanos = solveNanos;
+        this.generations = generations;
+    }
+
+    /**
+     * Returns the set of cities of the problem.
+     *
+     * @return the city set as submitted
+     */
+    public CitySet getCitySet() { return citySet; }
+
+    /**
+     * Returns the shortest path found.
+     *
+     * @return the path, or null if the problem expired before it was run
+     */
+    public IntPath getBest() { return best; }
+
+    /**
+     * Returns why the run ended.
+     *
+     * @return the status
+     */
+    public Status getStatus() { return status; }
+
+    /**
+     * Returns how long the problem was queued.
+     *
+     * @return the time between the submission and the start of the run in nanoseconds
+     */
+    public long getWaitNanos() { return waitNanos; }
+
+    /**
+     * Returns how long the problem was run.
+     *
+     * @return the duration of the run in nanoseconds, 0 if it expired
+     */
+    public long getSolveNanos() { return solveNanos; }
+
+    /**
+     * Returns the number of generations the run completed.
+     *
+     * @return the number of generations
+     */
+    public int getGenerations() { return generations; }
+
+    @Override
+    public String toString() {
+        return "SolveResult[cities=" + citySet.size() + ", status=" + status +
+                ", best=" + (best != null ? Integer.toString(best.getDistance()) : "none") +
+                ", generations=" + generations + "]";
+    }
+}
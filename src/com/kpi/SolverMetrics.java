@@ -0,0 +1,165 @@
+package com.kpi;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Per-phase counters of {@link TravelSolution} runs: the time spent on selection, crossover,
+ * mutation and local search, the children bred and rejected as duplicates, the allocated
+ * memory and the fitness of the last generation. Attach an instance with
+ * {@link TravelSolution#setMetrics(SolverMetrics)} and optionally publish it as a JMX MBean
+ * with {@link #register(String)}. The counters may be updated by several islands at once.
+ */
+public final class SolverMetrics implements SolverMetricsMBean {
+    /** The number of recorded generations. */
+    private final LongAdder generations = new LongAdder();
+    /** The time spent selecting the parents. */
+    private final LongAdder selectionNanos = new LongAdder();
+    /** The time spent breeding children and rejecting duplicates. */
+    private final LongAdder crossoverNanos = new LongAdder();
+    /** The time spent mutating paths. */
+    private final LongAdder mutationNanos = new LongAdder();
+    /** The time spent in the local search stage. */
+    private final LongAdder localSearchNanos = new LongAdder();
+    /** The number of children bred. */
+    private final LongAdder childrenBred = new LongAdder();
+    /** The number of children rejected as duplicates. */
+    private final LongAdder duplicatesRejected = new LongAdder();
+    /** The allocated memory. */
+    private final LongAdder allocatedBytes = new LongAdder();
+    /** The shortest distance recorded. */
+    private final AtomicInteger bestDistance = new AtomicInteger(Integer.MAX_VALUE);
+    /** The time the last generation took. */
+    private volatile long lastGenerationNanos;
+    /** The memory allocated for the last generation. */
+    private volatile long lastAllocatedBytes;
+    /** The diversity of the last generation. */
+    private volatile double lastDiversity;
+    /** The best distance of the last generation. */
+    private volatile int lastBestDistance;
+    /** The mean distance of the last generation. */
+    private volatile double lastMeanDistance;
+    /** The name the MBean is registered under, or null. */
+    private ObjectName objectName;
+
+    /**
+     * Adds the measurements of a generation.
+     *
+     * @param profile           the per-phase measurements of the generation
+     * @param stats             the statistics of the generation
+     * @param generationNanos   the time the generation took
+     * @param allocated         the memory allocated for the generation
+     */
+    void record(GenerationProfile profile, GenerationStats stats, long generationNanos, long allocated) {
+        generations.increment();
+        selectionNanos.add(profile.selectionNanos);
+        crossoverNanos.add(profile.crossoverNanos);
+        mutationNanos.add(profile.mutationNanos);
+        localSearchNanos.add(profile.localSearchNanos);
+        childrenBred.add(profile.childrenBred);
+        duplicatesRejected.add(profile.duplicatesRejected);
+        allocatedBytes.add(allocated);
+        bestDistance.accumulateAndGet(stats.getBestDistance(), Math::min);
+
+        lastGenerationNanos = generationNanos;
+        lastAllocatedBytes = allocated;
+        lastDiversity = stats.getDiversity();
+        lastBestDistance = stats.getBestDistance();
+        lastMeanDistance = stats.getMeanDistance();
+    }
+
+    /**
+     * Publishes the metrics in the platform MBean server under
+     * {@code com.kpi:type=SolverMetrics,name=<name>}.
+     *
+     * @param name  the name distinguishing these metrics from others
+     * @throws IllegalStateException if the metrics are already registered or the registration fails
+     */
+    public synchronized void register(String name) {
+        if (objectName != null)
+            throw new IllegalStateException("Method register() in class \"SolverMetrics\". Metrics are already registered.");
+
+        try {
+            ObjectName newName = new ObjectName("com.kpi:type=SolverMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, newName);
+            objectName = newName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Method register() in class \"SolverMetrics\". Unable to register the MBean.", e);
+        }
+    }
+
+    /**
+     * Removes the metrics from the platform MBean server if they are registered.
+     */
+    public synchronized void unregister() {
+        if (objectName == null)
+            return;
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectName);
+        } catch (JMException e) {
+            // already unregistered by someone else
+        }
+        objectName = null;
+    }
+
+    @Override
+    public long getGenerations() { return generations.sum(); }
+
+    @Override
+    public long getSelectionNanos() { return selectionNanos.sum(); }
+
+    @Override
+    public long getCrossoverNanos() { return crossoverNanos.sum(); }
+
+    @Override
+    public long getMutationNanos() { return mutationNanos.sum(); }
+
+    @Override
+    public long getLocalSearchNanos() { return localSearchNanos.sum(); }
+
+    @Override
+    public long getChildrenBred() { return childrenBred.sum(); }
+
+    @Override
+    public long getDuplicatesRejected() { return duplicatesRejected.sum(); }
+
+    @Override
+    public long getAllocatedBytes() { return allocatedBytes.sum(); }
+
+    @Override
+    public long getLastGenerationNanos() { return lastGenerationNanos; }
+
+    @Override
+    public long getLastAllocatedBytes() { return lastAllocatedBytes; }
+
+    @Override
+    public double getLastDiversity() { return lastDiversity; }
+
+    @Override
+    public int getLastBestDistance() { return lastBestDistance; }
+
+    @Override
+    public double getLastMeanDistance() { return lastMeanDistance; }
+
+    @Override
+    public int getBestDistance() { return bestDistance.get(); }
+
+    @Override
+    public void reset() {
+        generations.reset();
+        selectionNanos.reset();
+        crossoverNanos.reset();
+        mutationNanos.reset();
+        localSearchNanos.reset();
+        childrenBred.reset();
+        duplicatesRejected.reset();
+        allocatedBytes.reset();
+        bestDistance.set(Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,110 @@
+package com.kpi;
+
+/**
+ * The management interface of {@link SolverMetrics}, as seen by JMX clients such as JConsole.
+ * Times are in nanoseconds and accumulate over all generations recorded since the last reset.
+ */
+public interface SolverMetricsMBean {
+    /**
+     * Returns the number of recorded generations.
+     *
+     * @return the number of generations
+     */
+    long getGenerations();
+
+    /**
+     * Returns the time spent selecting the parents of the generations.
+     *
+     * @return the selection time in nanoseconds
+     */
+    long getSelectionNanos();
+
+    /**
+     * Returns the time spent breeding children and rejecting duplicates.
+     *
+     * @return the crossover time in nanoseconds
+     */
+    long getCrossoverNanos();
+
+    /**
+     * Returns the time spent mutating paths.
+     *
+     * @return the mutation time in nanoseconds
+     */
+    long getMutationNanos();
+
+    /**
+     * Returns the time spent in the local search stage.
+     *
+     * @return the local search time in nanoseconds
+     */
+    long getLocalSearchNanos();
+
+    /**
+     * Returns the number of children bred, including the rejected duplicates.
+     *
+     * @return the number of children
+     */
+    long getChildrenBred();
+
+    /**
+     * Returns the number of children rejected as duplicates.
+     *
+     * @return the number of rejected children
+     */
+    long getDuplicatesRejected();
+
+    /**
+     * Returns the memory allocated by the generation loop and its workers.
+     *
+     * @return the allocated memory in bytes, 0 if the JVM cannot measure it
+     */
+    long getAllocatedBytes();
+
+    /**
+     * Returns the time the last recorded generation took.
+     *
+     * @return the time of the last generation in nanoseconds
+     */
+    long getLastGenerationNanos();
+
+    /**
+     * Returns the memory allocated for the last recorded generation.
+     *
+     * @return the allocated memory in bytes
+     */
+    long getLastAllocatedBytes();
+
+    /**
+     * Returns the share of distinct tours in the last recorded generation.
+     *
+     * @return the diversity of the last generation
+     */
+    double getLastDiversity();
+
+    /**
+     * Returns the shortest distance in the last recorded generation.
+     *
+     * @return the best distance of the last generation
+     */
+    int getLastBestDistance();
+
+    /**
+     * Returns the mean distance of the last recorded generation.
+     *
+     * @return the mean distance of the last generation
+     */
+    double getLastMeanDistance();
+
+    /**
+     * Returns the shortest distance recorded since the last reset.
+     *
+     * @return the best distance so far, or Integer.MAX_VALUE if nothing was recorded
+     */
+    int getBestDistance();
+
+    /**
+     * Clears all counters.
+     */
+    void reset();
+}
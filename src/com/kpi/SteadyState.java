@@ -0,0 +1,130 @@
+package com.kpi;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The steady-state scheme of {@link TravelSolution}. A single population of the generation
+ * size evolves in place: every step picks two parents by tournament, breeds and possibly
+ * mutates one child, and lets it replace either the worst path of the population or the
+ * worse of its parents if it is shorter and no equal tour is in the population yet. An
+ * indexed {@link FitnessHeap} finds the worst path and is repaired after every replacement,
+ * so the population is never sorted and a step costs O(log n) besides the crossover.
+ * An iteration is as many steps as the population has paths. The population evolves on
+ * the calling thread.
+ */
+final class SteadyState {
+    /** The solution whose settings the scheme uses. */
+    private final TravelSolution solution;
+    /** The number of paths a tournament draws. */
+    private final int tournamentSize;
+    /** The path a child replaces. */
+    private final TravelSolution.Replacement replacement;
+
+    /**
+     * Constructs the scheme.
+     *
+     * @param solution          the solution whose settings the scheme uses
+     * @param tournamentSize    the number of paths a tournament draws
+     * @param replacement       the path a child replaces
+     */
+    SteadyState(TravelSolution solution, int tournamentSize, TravelSolution.Replacement replacement) {
+        this.solution = solution;
+        this.tournamentSize = tournamentSize;
+        this.replacement = replacement;
+    }
+
+    /**
+     * Evolves the population for a number of iterations, until the stop condition of the
+     * solution is met or the run is cancelled.
+     *
+     * @param iterationsNum the number of iterations to run
+     * @param random        the random number generator of the run
+     * @param recorder      the recorder the iterations are reported to
+     * @param start         the checkpoint whose paths seed the initial population, or null
+     * @return the population after the last iteration
+     */
+    IntPath[] evolve(int iterationsNum, SplittableRandom random, HistoryRecorder recorder, Checkpoint start) {
+        Worker worker = solution.createWorkers(new SplittableRandom[] { random })[0];
+        CrossoverOperator crossover = solution.getCrossover();
+        MutationOperator mutation = solution.getMutation();
+        int populationSize = solution.getGenerationSize();
+        TourHashSet tourHashes = new TourHashSet(solution.getGenerationMaxSize());
+        TourHashSet scratch = new TourHashSet(populationSize);
+        RunProgress progress = new RunProgress(0, Integer.MAX_VALUE, solution.getMutationPercent());
+
+        // keep the best half of a full initial generation, so seeding works as in the generational scheme
+        IntPath[] initial = solution.createGeneration(tourHashes, worker.random, start);
+        progress.addEvaluations(initial.length);
+        TravelSolution.selectBest(initial, populationSize);
+        IntPath[] population = Arrays.copyOf(initial, populationSize);
+        tourHashes.clear();
+        for (IntPath path : population)
+            tourHashes.add(path.getHash());
+        FitnessHeap heap = new FitnessHeap(population);
+        IntPath child = IntPath.slot(solution.getCitySet());
+
+        for (int iter = 1; iter <= iterationsNum && solution.awaitGeneration(); iter++) {
+            GenerationProfile profile = GenerationProfile.start(solution.getMetrics());
+            long startNanos = profile != null ? System.nanoTime() : 0;
+            int mutationPercent = progress.getMutationPercent();
+            int rejected = 0;
+
+            for (int step = 0; step < populationSize; step++) {
+                int parent1 = select(population, worker.random);
+                int parent2 = select(population, worker.random);
+                child.setToChild(crossover, population[parent1], population[parent2], worker.scratch, worker.random);
+                if (worker.random.nextInt(100) < mutationPercent)
+                    mutation.mutate(child, worker.scratch, worker.random);
+
+                int target = replacement == TravelSolution.Replacement.WORST ? heap.worst()
+                        : population[parent1].getDistance() >= population[parent2].getDistance() ? parent1 : parent2;
+                if (child.getDistance() >= population[target].getDistance())
+                    continue;
+                if (tourHashes.contains(child.getHash())) {
+                    rejected++;
+                    continue;
+                }
+
+                // the replaced path becomes the slot of the next child
+                IntPath replaced = population[target];
+                tourHashes.remove(replaced.getHash());
+                tourHashes.add(child.getHash());
+                population[target] = child;
+                heap.update(target);
+                child = replaced;
+            }
+            progress.addEvaluations(populationSize);
+
+            GenerationStats stats = GenerationStats.of(0, iter, population, scratch);
+            if (profile != null) {
+                // selection, breeding and mutation interleave in every step, so all of it counts as breeding
+                profile.crossoverNanos = System.nanoTime() - startNanos;
+                profile.childrenBred = populationSize;
+                profile.duplicatesRejected = rejected;
+                profile.finish(stats);
+            }
+            recorder.record(stats);
+            if (solution.endGeneration(progress, stats))
+                break;
+        }
+        return population;
+    }
+
+    /**
+     * Picks a parent by tournament: the shortest of tournamentSize randomly drawn paths.
+     *
+     * @param population    the population
+     * @param random        the random number generator to draw with
+     * @return the index of the winner in the population
+     */
+    private int select(IntPath[] population, SplittableRandom random) {
+        int winner = random.nextInt(population.length);
+        for (int i = 1; i < tournamentSize; i++) {
+            int contender = random.nextInt(population.length);
+            if (population[contender].getDistance() < population[winner].getDistance())
+                winner = contender;
+        }
+        return winner;
+    }
+}
@@ -0,0 +1,97 @@
+package com.kpi;
+
+import java.time.Duration;
+
+/**
+ * Decides whether a run of {@link TravelSolution} stops before its configured number of
+ * iterations. The condition is checked after every generation; conditions combine with
+ * {@link #or(StopCondition)} and {@link #and(StopCondition)}, e.g.
+ *
+ * <pre>
+ * StopCondition.stagnation(200).or(StopCondition.timeLimit(Duration.ofSeconds(30)))
+ * </pre>
+ */
+@FunctionalInterface
+public interface StopCondition {
+    /**
+     * Checks whether the run stops after the generation just completed.
+     *
+     * @param progress  the progress of the run
+     * @return true to stop the run
+     */
+    boolean isMet(RunProgress progress);
+
+    /**
+     * Combines this condition with another one so that the run stops as soon as either is met.
+     *
+     * @param other the other condition
+     * @return the combined condition
+     */
+    default StopCondition or(StopCondition other) {
+        return progress -> isMet(progress) || other.isMet(progress);
+    }
+
+    /**
+     * Combines this condition with another one so that the run stops once both are met.
+     *
+     * @param other the other condition
+     * @return the combined condition
+     */
+    default StopCondition and(StopCondition other) {
+        return progress -> isMet(progress) && other.isMet(progress);
+    }
+
+    /**
+     * Stops a run whose best distance has not improved for a number of generations.
+     *
+     * @param generations   the number of generations without improvement
+     * @return the condition
+     * @throws IllegalArgumentException if generations is not positive
+     */
+    static StopCondition stagnation(int generations) {
+        if (generations < 1)
+            throw new IllegalArgumentException("Method stagnation() in class \"StopCondition\". The number of generations must be positive.");
+
+        return progress -> progress.getStagnantGenerations() >= generations;
+    }
+
+    /**
+     * Stops a run once it has taken longer than a wall-clock limit. The limit is checked
+     * between generations, so the run overshoots it by at most one generation.
+     *
+     * @param limit the longest time the run may take
+     * @return the condition
+     * @throws IllegalArgumentException if limit is negative
+     */
+    static StopCondition timeLimit(Duration limit) {
+        if (limit.isNegative())
+            throw new IllegalArgumentException("Method timeLimit() in class \"StopCondition\". The time limit must not be negative.");
+
+        long limitNanos = limit.toNanos();
+        return progress -> progress.getElapsedNanos() >= limitNanos;
+    }
+
+    /**
+     * Stops a run once a path of at most the given distance has been found.
+     *
+     * @param distance  the target distance
+     * @return the condition
+     */
+    static StopCondition targetDistance(int distance) {
+        return progress -> progress.getBestDistance() <= distance;
+    }
+
+    /**
+     * Stops a run once it has evaluated a number of paths, see {@link RunProgress#getEvaluations()}.
+     *
+     * @param evaluations   the evaluation budget
+     * @return the condition
+     * @throws IllegalArgumentException if evaluations is not positive
+     */
+    static StopCondition maxEvaluations(long evaluations) {
+        if (evaluations < 1)
+            throw new IllegalArgumentException("Method maxEvaluations() in class \"StopCondition\". The evaluation budget must be positive.");
+
+        return progress -> progress.getEvaluations() >= evaluations;
+    }
+}
@@ -0,0 +1,74 @@
+package com.kpi;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Compact binary encoding of tours for the remote breeding protocol. Every city index is
+ * written in as few little-endian bytes as the number of cities requires, one byte up to
+ * 256 cities, two up to 65536 and so on, followed by the distance and the hash of the
+ * tour, so that the receiver needs no distance oracle to restore the path.
+ * Every codec keeps its own byte buffer and is only used by one thread at a time.
+ */
+final class TourCodec {
+    /** The number of cities of every tour. */
+    private final int cityNum;
+    /** The number of bytes per city index. */
+    private final int width;
+    /** The encoded tour. */
+    private final byte[] bytes;
+
+    /**
+     * Constructs a codec for tours of a number of cities.
+     *
+     * @param cityNum   the number of cities of every tour
+     */
+    TourCodec(int cityNum) {
+        this.cityNum = cityNum;
+        int width = 1;
+        while (width < 4 && (cityNum - 1) >>> (8 * width) != 0)
+            width++;
+        this.width = width;
+        this.bytes = new byte[cityNum * width];
+    }
+
+    /**
+     * Writes a path.
+     *
+     * @param out   the output to write to
+     * @param path  the path to write
+     * @throws IOException if the output cannot be written
+     */
+    void write(DataOutput out, IntPath path) throws IOException {
+        for (int i = 0, b = 0; i < cityNum; i++) {
+            int city = path.cityAt(i);
+            for (int k = 0; k < width; k++, city >>>= 8)
+                bytes[b++] = (byte) city;
+        }
+        out.write(bytes);
+        out.writeInt(path.getDistance());
+        out.writeLong(path.getHash());
+    }
+
+    /**
+     * Reads a path into an existing one, overwriting its tour.
+     *
+     * @param in    the input to read from
+     * @param path  the path receiving the tour
+     * @param tour  a buffer of one int per city
+     * @throws IOException if the input cannot be read or holds no valid tour
+     */
+    void read(DataInput in, IntPath path, int[] tour) throws IOException {
+        in.readFully(bytes);
+        for (int i = 0, b = 0; i < cityNum; i++) {
+            int city = 0;
+            for (int k = 0; k < width; k++)
+                city |= (bytes[b++] & 0xFF) << (8 * k);
+            if (city >= cityNum)
+                throw new IOException("Invalid city index " + city + " in tour.");
+            tour[i] = city;
+        }
+        path.setState(tour, in.readInt(), in.readLong());
+    }
+}
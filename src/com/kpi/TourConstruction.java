@@ -0,0 +1,357 @@
+package com.kpi;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Construction heuristics that seed the initial generation of {@link TravelSolution} with
+ * tours far shorter than random ones. Planar sets answer their nearest-neighbour queries
+ * through the spatial index of the set, so every heuristic runs in about O(n log n) time;
+ * GEO and EXPLICIT sets fall back to scanning all remaining cities.
+ * Every tour starts with city 0, as the genetic operators expect.
+ */
+final class TourConstruction {
+    /** The number of nearest neighbours whose edges the greedy heuristic considers. */
+    private static final int GREEDY_NEIGHBORS = 10;
+    /** The largest relative noise added to edge lengths of randomized greedy tours. */
+    private static final double GREEDY_NOISE = 0.1;
+    /** The number of bits per coordinate of the Hilbert curve grid. */
+    private static final int CURVE_ORDER = 16;
+
+    private TourConstruction() {}
+
+    /**
+     * Builds a nearest-neighbour tour: starting from a city, the tour always continues to
+     * the nearest city not visited yet.
+     *
+     * @param citySet   the set of cities
+     * @param start     the city to start from
+     * @return the tour, rotated to begin with city 0
+     */
+    static int[] nearestNeighbor(CitySet citySet, int start) {
+        int cityNum = citySet.size();
+        Remaining remaining = new Remaining(citySet);
+        int[] tour = new int[cityNum];
+
+        int city = start;
+        for (int i = 0; i < cityNum; i++) {
+            tour[i] = city;
+            remaining.remove(city);
+            city = remaining.nearest(city);
+        }
+        return rotateToStart(tour);
+    }
+
+    /**
+     * Builds a greedy-edge tour: edges between near neighbours are added from the shortest
+     * to the longest whenever they keep every city at degree two or less and close no
+     * cycle. The resulting fragments are then joined by linking every fragment end to the
+     * nearest free end of another fragment.
+     *
+     * @param citySet   the set of cities
+     * @param random    the generator of the noise added to the edge lengths, or null for the exact heuristic
+     * @return the tour, rotated to begin with city 0
+     */
+    static int[] greedyEdge(CitySet citySet, RandomGenerator random) {
+        int cityNum = citySet.size();
+        int k = Math.min(GREEDY_NEIGHBORS, cityNum - 1);
+        NeighborLists neighborLists = citySet.getNeighborLists(k);
+        DistanceOracle oracle = citySet.getDistanceOracle();
+
+        // every candidate edge is a long of its (noisy) length and its index, so sorting the
+        // longs sorts the edges; the index encodes the city and the rank of the neighbour
+        long[] edges = new long[cityNum * k];
+        int edgeNum = 0;
+        for (int a = 0; a < cityNum; a++) {
+            for (int rank = 0; rank < k; rank++) {
+                int b = neighborLists.neighbor(a, rank);
+                if (b < a && isNeighbor(neighborLists, k, b, a))
+                    continue;
+                long length = oracle.distance(a, b);
+                if (random != null)
+                    length = Math.min((long) (length * (1 + GREEDY_NOISE * random.nextDouble())), Integer.MAX_VALUE);
+                edges[edgeNum++] = length << 32 | (long) a * k + rank;
+            }
+        }
+        Arrays.sort(edges, 0, edgeNum);
+
+        // two links per city, and a union-find forest to detect cycles
+        int[] link1 = new int[cityNum];
+        int[] link2 = new int[cityNum];
+        int[] parent = new int[cityNum];
+        Arrays.fill(link1, -1);
+        Arrays.fill(link2, -1);
+        for (int i = 0; i < cityNum; i++)
+            parent[i] = i;
+
+        for (int e = 0; e < edgeNum; e++) {
+            int index = (int) edges[e];
+            int a = index / k;
+            int b = neighborLists.neighbor(a, index % k);
+            if (link2[a] >= 0 || link2[b] >= 0)
+                continue;
+            int rootA = find(parent, a);
+            int rootB = find(parent, b);
+            if (rootA == rootB)
+                continue;
+
+            parent[rootA] = rootB;
+            addLink(link1, link2, a, b);
+            addLink(link1, link2, b, a);
+        }
+
+        // the fragment ends are the only cities left in the nearest-neighbour search
+        Remaining remaining = new Remaining(citySet);
+        int start = -1;
+        for (int i = 0; i < cityNum; i++) {
+            if (link2[i] >= 0)
+                remaining.remove(i);
+            else if (start < 0)
+                start = i;
+        }
+
+        int[] tour = new int[cityNum];
+        int cnt = 0;
+        int city = start;
+        while (city >= 0) {
+            // walk the fragment from one end to the other
+            remaining.remove(city);
+            int prev = -1;
+            while (true) {
+                tour[cnt++] = city;
+                int next = link1[city] != prev ? link1[city] : link2[city];
+                if (next < 0)
+                    break;
+                prev = city;
+                city = next;
+            }
+            remaining.remove(city);
+            city = remaining.nearest(city);
+        }
+        return rotateToStart(tour);
+    }
+
+    /**
+     * Checks whether a city is among the nearest neighbours of another city.
+     *
+     * @param neighborLists the neighbour lists
+     * @param k             the number of neighbours to look at
+     * @param city          the city whose neighbours are searched
+     * @param other         the city to look for
+     * @return true if other is one of the first k neighbours of city
+     */
+    private static boolean isNeighbor(NeighborLists neighborLists, int k, int city, int other) {
+        for (int rank = 0; rank < k; rank++)
+            if (neighborLists.neighbor(city, rank) == other)
+                return true;
+
+        return false;
+    }
+
+    /**
+     * Returns the root of a city in a union-find forest, halving the path on the way.
+     *
+     * @param parent    the parents of the forest
+     * @param city      the city
+     * @return the root of the city's tree
+     */
+    private static int find(int[] parent, int city) {
+        while (parent[city] != city) {
+            parent[city] = parent[parent[city]];
+            city = parent[city];
+        }
+        return city;
+    }
+
+    /**
+     * Links a city to another one in the first free link slot.
+     *
+     * @param link1 the first links of the cities
+     * @param link2 the second links of the cities
+     * @param city  the city to link from
+     * @param other the city to link to
+     */
+    private static void addLink(int[] link1, int[] link2, int city, int other) {
+        if (link1[city] < 0)
+            link1[city] = other;
+        else
+            link2[city] = other;
+    }
+
+    /**
+     * Builds a space-filling curve tour that visits the cities in the order of a Hilbert
+     * curve through their bounding box. The curve keeps cities that are close in the plane
+     * mostly close in the tour. For EXPLICIT sets, whose cities have no coordinates, it
+     * degenerates to the order of the city indices.
+     *
+     * @param citySet   the set of cities
+     * @param random    the generator of a random shift of the curve, or null for the unshifted curve
+     * @return the tour, rotated to begin with city 0
+     */
+    static int[] spaceFillingCurve(CitySet citySet, RandomGenerator random) {
+        int cityNum = citySet.size();
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < cityNum; i++) {
+            minX = Math.min(minX, citySet.xCoord[i]);
+            maxX = Math.max(maxX, citySet.xCoord[i]);
+            minY = Math.min(minY, citySet.yCoord[i]);
+            maxY = Math.max(maxY, citySet.yCoord[i]);
+        }
+
+        // a shifted curve covers the box with a differently placed grid and yields a different tour;
+        // the box fills half of the grid in each dimension, so the shift never wraps it around
+        int side = 1 << CURVE_ORDER;
+        int half = side >> 1;
+        double scale = (half - 1) / Math.max(Math.max(maxX - minX, maxY - minY), 1e-9);
+        int shiftX = random != null ? random.nextInt(half) : 0;
+        int shiftY = random != null ? random.nextInt(half) : 0;
+        boolean transpose = random != null && random.nextBoolean();
+
+        // the curve index in the high bits, the city in the low bits
+        long[] keys = new long[cityNum];
+        for (int i = 0; i < cityNum; i++) {
+            int x = (int) ((citySet.xCoord[i] - minX) * scale) + shiftX;
+            int y = (int) ((citySet.yCoord[i] - minY) * scale) + shiftY;
+            keys[i] = (transpose ? hilbertIndex(y, x) : hilbertIndex(x, y)) << 24 | i;
+        }
+        Arrays.sort(keys);
+
+        int[] tour = new int[cityNum];
+        for (int i = 0; i < cityNum; i++)
+            tour[i] = (int) (keys[i] & 0xFFFFFF);
+        return rotateToStart(tour);
+    }
+
+    /**
+     * Returns the distance of a grid cell along the Hilbert curve.
+     *
+     * @param x the column of the cell
+     * @param y the row of the cell
+     * @return the index of the cell on the curve
+     */
+    private static long hilbertIndex(int x, int y) {
+        long index = 0;
+        for (int s = 1 << (CURVE_ORDER - 1); s > 0; s >>= 1) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+
+            // rotate the quadrant so the curve inside it has the right orientation
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = s - 1 - x;
+                    y = s - 1 - y;
+                }
+                int temp = x;
+                x = y;
+                y = temp;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Rotates a tour in place so that it begins with city 0.
+     *
+     * @param tour  the tour
+     * @return the same array, rotated
+     */
+    private static int[] rotateToStart(int[] tour) {
+        int start = 0;
+        while (tour[start] != 0)
+            start++;
+        if (start == 0)
+            return tour;
+
+        int[] rotated = new int[tour.length];
+        System.arraycopy(tour, start, rotated, 0, tour.length - start);
+        System.arraycopy(tour, 0, rotated, tour.length - start, start);
+        System.arraycopy(rotated, 0, tour, 0, tour.length);
+        return tour;
+    }
+
+    /**
+     * The cities not yet used by a construction, answering nearest-neighbour queries
+     * through the spatial index for planar sets and by a linear scan otherwise.
+     */
+    private static final class Remaining {
+        /** The search over the spatial index, or null to scan. */
+        private final KdTree.Search search;
+        /** The distance oracle used by the scan. */
+        private final DistanceOracle oracle;
+        /** The remaining cities in no particular order, used by the scan. */
+        private final int[] cities;
+        /** The place of every city in {@link #cities}, or -1 once removed. */
+        private final int[] places;
+        /** The number of remaining cities, used by the scan. */
+        private int size;
+
+        /**
+         * Constructs the set of all cities of a set.
+         *
+         * @param citySet   the set of cities
+         */
+        Remaining(CitySet citySet) {
+            int cityNum = citySet.size();
+            oracle = citySet.getDistanceOracle();
+            if (citySet.getMetric().isPlanar()) {
+                search = citySet.getSpatialIndex().newSearch();
+                cities = null;
+                places = null;
+                return;
+            }
+
+            search = null;
+            cities = new int[cityNum];
+            places = new int[cityNum];
+            for (int i = 0; i < cityNum; i++) {
+                cities[i] = i;
+                places[i] = i;
+            }
+            size = cityNum;
+        }
+
+        /**
+         * Removes a city; removing it again has no effect.
+         *
+         * @param city  the city to remove
+         */
+        void remove(int city) {
+            if (search != null) {
+                search.remove(city);
+                return;
+            }
+            int place = places[city];
+            if (place < 0)
+                return;
+
+            int last = cities[--size];
+            cities[place] = last;
+            places[last] = place;
+            places[city] = -1;
+        }
+
+        /**
+         * Finds the nearest remaining city of a city.
+         *
+         * @param city  the city whose neighbour is searched
+         * @return the nearest remaining city, or -1 if none remains
+         */
+        int nearest(int city) {
+            if (search != null)
+                return search.nearest(city);
+
+            int best = -1;
+            int bestDist = Integer.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                int dist = oracle.distance(city, cities[i]);
+                if (dist < bestDist) {
+                    bestDist = dist;
+                    best = cities[i];
+                }
+            }
+            return best;
+        }
+    }
+}
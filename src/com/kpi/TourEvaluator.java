@@ -0,0 +1,181 @@
+package com.kpi;
+
+/**
+ * Computes the lengths of whole tours of a {@link CitySet}, e.g. to re-evaluate a
+ * population. Tours are read from a packed array, one tour of {@code size()} city indices
+ * after the other, or from paths. Two semantics are offered: {@link #evaluate} returns
+ * the integer lengths of the metric of the set, the same as {@link IntPath#getDistance()},
+ * which for the generated sets is the legacy sum of truncated edge lengths;
+ * {@link #evaluateExact} returns the lengths without rounding any edge.
+ * <p>
+ * Where the distance oracle of the set holds the full matrix, a lookup is the cheapest
+ * way to an edge and the integer lengths are summed from it. For larger planar sets the
+ * edges are instead computed straight from the coordinate arrays of the set, two array
+ * reads and a square root per edge, which is several times faster than the lookups of the
+ * packed or on-the-fly oracles. Every set has one evaluator, see
+ * {@link CitySet#getTourEvaluator()}; it keeps no mutable state and may be shared by
+ * several threads.
+ */
+public final class TourEvaluator {
+    /** The set of cities of the tours. */
+    private final CitySet citySet;
+    /** The number of cities of every tour. */
+    private final int cityNum;
+    /** The metric of the set. */
+    private final DistanceMetric metric;
+    /** Whether integer lengths are computed from the coordinates instead of the oracle. */
+    private final boolean fromCoordinates;
+
+    /**
+     * Constructs an evaluator for the tours of a city set.
+     *
+     * @param citySet   the set of cities of the tours
+     */
+    TourEvaluator(CitySet citySet) {
+        this.citySet = citySet;
+        this.cityNum = citySet.size();
+        this.metric = citySet.getMetric();
+        this.fromCoordinates = metric.isPlanar()
+                && citySet.getDistanceOracle().getBackend() != DistanceOracle.Backend.DENSE;
+    }
+
+    /**
+     * Calculates the integer lengths of packed tours under the metric of the set.
+     *
+     * @param tours     the tours, one after the other
+     * @param tourNum   the number of tours to evaluate
+     * @param lengths   receives the length of every tour, at least tourNum long
+     * @throws IllegalArgumentException if the arrays are too short
+     */
+    public void evaluate(int[] tours, int tourNum, int[] lengths) {
+        checkSizes("evaluate", tours.length, tourNum, lengths.length);
+        for (int i = 0; i < tourNum; i++)
+            lengths[i] = length(tours, i * cityNum);
+    }
+
+    /**
+     * Calculates the integer lengths of paths under the metric of the set.
+     *
+     * @param paths     the paths, which must visit the cities of this set
+     * @param lengths   receives the length of every path, at least as long as paths
+     * @throws IllegalArgumentException if lengths is too short
+     */
+    public void evaluate(IntPath[] paths, int[] lengths) {
+        checkSizes("evaluate", (long) paths.length * cityNum, paths.length, lengths.length);
+        for (int i = 0; i < paths.length; i++)
+            lengths[i] = length(paths[i].getTour(), 0);
+    }
+
+    /**
+     * Calculates the unrounded lengths of packed tours.
+     *
+     * @param tours     the tours, one after the other
+     * @param tourNum   the number of tours to evaluate
+     * @param lengths   receives the length of every tour, at least tourNum long
+     * @throws IllegalArgumentException if the arrays are too short
+     * @throws IllegalStateException if the metric of the set is not planar
+     */
+    public void evaluateExact(int[] tours, int tourNum, double[] lengths) {
+        checkSizes("evaluateExact", tours.length, tourNum, lengths.length);
+        checkPlanar();
+        for (int i = 0; i < tourNum; i++)
+            lengths[i] = exactLength(tours, i * cityNum);
+    }
+
+    /**
+     * Calculates the unrounded lengths of paths.
+     *
+     * @param paths     the paths, which must visit the cities of this set
+     * @param lengths   receives the length of every path, at least as long as paths
+     * @throws IllegalArgumentException if lengths is too short
+     * @throws IllegalStateException if the metric of the set is not planar
+     */
+    public void evaluateExact(IntPath[] paths, double[] lengths) {
+        checkSizes("evaluateExact", (long) paths.length * cityNum, paths.length, lengths.length);
+        checkPlanar();
+        for (int i = 0; i < paths.length; i++)
+            lengths[i] = exactLength(paths[i].getTour(), 0);
+    }
+
+    /**
+     * Calculates the integer length of one tour.
+     *
+     * @param tours     the array holding the tour
+     * @param offset    the index of the first city of the tour
+     * @return the length, wrapped to an int like {@link IntPath#getDistance()}
+     */
+    int length(int[] tours, int offset) {
+        int dist = 0;
+        int prev = tours[offset + cityNum - 1];
+        if (fromCoordinates) {
+            double[] xCoord = citySet.xCoord;
+            double[] yCoord = citySet.yCoord;
+            for (int i = offset; i < offset + cityNum; i++) {
+                int city = tours[i];
+                double dx = xCoord[prev] - xCoord[city];
+                double dy = yCoord[prev] - yCoord[city];
+                dist += metric.round(dx * dx + dy * dy);
+                prev = city;
+            }
+            return dist;
+        }
+
+        DistanceOracle oracle = citySet.getDistanceOracle();
+        for (int i = offset; i < offset + cityNum; i++) {
+            dist += oracle.distance(prev, tours[i]);
+            prev = tours[i];
+        }
+        return dist;
+    }
+
+    /**
+     * Calculates the unrounded length of one tour.
+     *
+     * @param tours     the array holding the tour
+     * @param offset    the index of the first city of the tour
+     * @return the length
+     */
+    private double exactLength(int[] tours, int offset) {
+        double[] xCoord = citySet.xCoord;
+        double[] yCoord = citySet.yCoord;
+        double scale = metric == DistanceMetric.ATT ? 10.0 : 1.0;
+        double dist = 0;
+        int prev = tours[offset + cityNum - 1];
+        for (int i = offset; i < offset + cityNum; i++) {
+            int city = tours[i];
+            double dx = xCoord[prev] - xCoord[city];
+            double dy = yCoord[prev] - yCoord[city];
+            dist += Math.sqrt((dx * dx + dy * dy) / scale);
+            prev = city;
+        }
+        return dist;
+    }
+
+    /**
+     * Checks that the input holds the tours to evaluate and the output can take their lengths.
+     *
+     * @param method        the name of the calling method
+     * @param inputLength   the number of city indices of the input
+     * @param tourNum       the number of tours to evaluate
+     * @param outputLength  the length of the output array
+     * @throws IllegalArgumentException if either array is too short
+     */
+    private void checkSizes(String method, long inputLength, int tourNum, int outputLength) {
+        if (tourNum < 0 || inputLength < (long) tourNum * cityNum)
+            throw new IllegalArgumentException("Method " + method + "() in class \"TourEvaluator\". The tours array holds fewer than " +
+                    tourNum + " tours.");
+        if (outputLength < tourNum)
+            throw new IllegalArgumentException("Method " + method + "() in class \"TourEvaluator\". The lengths array is shorter than the number of tours.");
+    }
+
+    /**
+     * Checks that exact lengths are defined for the metric of the set.
+     *
+     * @throws IllegalStateException if the metric is GEO or EXPLICIT
+     */
+    private void checkPlanar() {
+        if (!citySet.getMetric().isPlanar())
+            throw new IllegalStateException("Method evaluateExact() in class \"TourEvaluator\". Exact lengths are only defined for planar metrics, not " +
+                    citySet.getMetric() + ".");
+    }
+}
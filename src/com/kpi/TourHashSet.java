@@ -0,0 +1,151 @@
+package com.kpi;
+
+import java.util.Arrays;
+
+/**
+ * A set of 64-bit tour hashes (see {@link IntPath#getHash()}) backed by an open-addressing
+ * table of primitive longs. Lookups and insertions neither box nor allocate, and the set
+ * can be cleared and reused from one generation to the next.
+ */
+final class TourHashSet {
+    /** The hash used to represent 0 inside the table, where 0 marks an empty slot. */
+    private static final long ZERO_SUBSTITUTE = 0x9E3779B97F4A7C15L;
+
+    /** The slots of the table; 0 marks an empty slot. */
+    private long[] table;
+    /** The mask selecting a slot from a hash. */
+    private int mask;
+    /** The number of hashes in the set. */
+    private int size;
+
+    /**
+     * Constructs an empty set sized to hold the given number of hashes without growing.
+     *
+     * @param expectedSize  the expected number of hashes
+     */
+    TourHashSet(int expectedSize) {
+        // keep the load factor at or below one half
+        int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+        table = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adds a hash to the set.
+     *
+     * @param hash  the hash to add
+     * @return true if the hash was not in the set yet
+     */
+    boolean add(long hash) {
+        if (hash == 0)
+            hash = ZERO_SUBSTITUTE;
+
+        int slot = slotOf(hash);
+        while (table[slot] != 0) {
+            if (table[slot] == hash)
+                return false;
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = hash;
+
+        if (++size * 2 > table.length)
+            grow();
+        return true;
+    }
+
+    /**
+     * Checks whether a hash is in the set.
+     *
+     * @param hash  the hash to look up
+     * @return true if the hash is in the set
+     */
+    boolean contains(long hash) {
+        if (hash == 0)
+            hash = ZERO_SUBSTITUTE;
+
+        int slot = slotOf(hash);
+        while (table[slot] != 0) {
+            if (table[slot] == hash)
+                return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Removes a hash from the set. The entries after the freed slot are shifted back
+     * so that no lookup is cut short by the hole.
+     *
+     * @param hash  the hash to remove
+     * @return true if the hash was in the set
+     */
+    boolean remove(long hash) {
+        if (hash == 0)
+            hash = ZERO_SUBSTITUTE;
+
+        int slot = slotOf(hash);
+        while (table[slot] != hash) {
+            if (table[slot] == 0)
+                return false;
+            slot = (slot + 1) & mask;
+        }
+
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (table[next] != 0) {
+            // an entry may fill the hole unless its home slot lies between the hole and itself
+            int home = slotOf(table[next]);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                table[free] = table[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[free] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the number of hashes in the set.
+     *
+     * @return the size of the set
+     */
+    int size() { return size; }
+
+    /**
+     * Removes every hash from the set, keeping its capacity.
+     */
+    void clear() {
+        Arrays.fill(table, 0L);
+        size = 0;
+    }
+
+    /**
+     * Returns the home slot of a hash.
+     *
+     * @param hash  the (non-zero) hash
+     * @return the slot the probe sequence starts at
+     */
+    private int slotOf(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Doubles the capacity of the table and reinserts every hash.
+     */
+    private void grow() {
+        long[] oldTable = table;
+        table = new long[oldTable.length * 2];
+        mask = table.length - 1;
+
+        for (long hash : oldTable) {
+            if (hash != 0) {
+                int slot = slotOf(hash);
+                while (table[slot] != 0)
+                    slot = (slot + 1) & mask;
+                table[slot] = hash;
+            }
+        }
+    }
+}
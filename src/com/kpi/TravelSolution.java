@@ -1,9 +1,19 @@
 package com.kpi;
 
-import java.util.Collections;
-import java.util.Hashtable;
-import java.util.Random;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
 import java.util.Vector;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
 
 /**
  * The TravelSolution class encapsulates the logic for solving the Traveling Salesman Problem (TSP)
@@ -11,8 +21,18 @@ import java.util.Vector;
  * them through selection, crossover, and mutation, and keeps track of the best solutions.
  */
 public class TravelSolution {
-    /** Number of cities in the problem. */
-    private final int cityNum;
+    /**
+     * The path a child of the steady-state scheme replaces, see {@link #setSteadyState(int, Replacement)}.
+     */
+    public enum Replacement {
+        /** The longest path of the population. */
+        WORST,
+        /** The longer of the child's two parents, which keeps similar tours from crowding the population. */
+        WORSE_PARENT
+    }
+
+    /** Set of cities the paths visit. */
+    private final CitySet citySet;
     /** Percentage of paths to mutate in each generation. */
     private final int mutationPercent;
     /** Number of iterations to perform. */
@@ -21,6 +41,64 @@ public class TravelSolution {
     private final int generationSize;
     /** Maximum size of a generation. */
     private final int generationMaxSize;
+    /** Number of worker threads breeding and mutating a generation; 1 runs on the calling thread. */
+    private int parallelism = 1;
+    /** Number of duplicate children that may be rejected per place in a generation. */
+    private int dedupRetryFactor = 10;
+    /** Number of islands evolving independently; 1 evolves a single population. */
+    private int islandNum = 1;
+    /** Number of generations between two migrations between islands. */
+    private int migrationInterval;
+    /** Number of paths an island sends per migration. */
+    private int migrantNum;
+    /** Topology deciding which islands exchange paths. */
+    private MigrationTopology topology;
+    /** Listeners notified of every generation. */
+    private final List<GenerationListener> listeners = new CopyOnWriteArrayList<>();
+    /** Policy deciding which paths findSolution() returns. */
+    private HistoryPolicy historyPolicy = HistoryPolicy.all();
+    /** Seed of the run's random number generators, or null to seed them randomly. */
+    private Long seed;
+    /** Seed the latest run used, either the set one or a drawn one. */
+    private volatile long runSeed;
+    /** Number of nearest neighbours tried per city by the local search; 0 disables it. */
+    private int localSearchNeighbors = 0;
+    /** Share of a generation's time the local search may use. */
+    private double localSearchFraction;
+    /** File the checkpoints of the run are written to, or null to write none. */
+    private String checkpointFile;
+    /** Number of generations between two checkpoints. */
+    private int checkpointInterval;
+    /** Checkpoint whose paths seed the initial generation, or null. */
+    private Checkpoint warmStart;
+    /** Metrics receiving the measurements of every generation, or null. */
+    private SolverMetrics metrics;
+    /** Percentage of the initial generation seeded with nearest-neighbour tours. */
+    private int nearestNeighborPercent = 0;
+    /** Percentage of the initial generation seeded with greedy-edge tours. */
+    private int greedyPercent = 0;
+    /** Percentage of the initial generation seeded with space-filling curve tours. */
+    private int curvePercent = 0;
+    /** Condition stopping the run before the configured number of iterations, or null. */
+    private StopCondition stopCondition;
+    /** Controller adapting the mutation percentage between generations, or null to keep it fixed. */
+    private AdaptiveMutation adaptiveMutation;
+    /** Control through which other threads pause, resume and cancel the run, or null. */
+    private RunControl runControl;
+    /** Operator combining two parents into a child. */
+    private CrossoverOperator crossover = Crossover.CYCLE;
+    /** Operator applied to the mutated paths. */
+    private MutationOperator mutation = Mutation.SWAP;
+    /** Whether the paths of past generations are overwritten instead of allocated again. */
+    private boolean populationArena = false;
+    /** Number of worker processes breeding the children, 0 to breed in this JVM. */
+    private int remoteWorkerNum = 0;
+    /** Store of known solutions consulted before and updated after every run, or null. */
+    private SolutionCache solutionCache;
+    /** What a run does when the solution cache knows its instance. */
+    private SolutionCache.HitPolicy cacheHitPolicy;
+    /** The steady-state scheme replacing the generational one, or null. */
+    private SteadyState steadyState;
 
     /**
      * Constructs a TravelSolution instance with the specified parameters.
@@ -30,72 +108,1078 @@ public class TravelSolution {
      * @param mutationPercent   The percentage of the population to undergo mutation per generation.
      */
     public TravelSolution(int cityNum, int iterationsNum, int mutationPercent) {
-        this.cityNum = cityNum;
+        this(cityNum, iterationsNum, mutationPercent, cityNum * 2);
+    }
+
+    /**
+     * Constructs a TravelSolution instance with an explicit population size.
+     *
+     * @param cityNum           The number of cities in the TSP.
+     * @param iterationsNum     The number of iterations to run the algorithm.
+     * @param mutationPercent   The percentage of the population to undergo mutation per generation.
+     * @param generationSize    The number of paths selected for crossover; a generation holds twice as many.
+     */
+    public TravelSolution(int cityNum, int iterationsNum, int mutationPercent, int generationSize) {
+        this(CitySet.getCitySet(cityNum), iterationsNum, mutationPercent, generationSize);
+    }
+
+    /**
+     * Constructs a TravelSolution instance for a given set of cities.
+     *
+     * @param citySet           The cities of the TSP.
+     * @param iterationsNum     The number of iterations to run the algorithm.
+     * @param mutationPercent   The percentage of the population to undergo mutation per generation.
+     */
+    public TravelSolution(CitySet citySet, int iterationsNum, int mutationPercent) {
+        this(citySet, iterationsNum, mutationPercent, citySet.size() * 2);
+    }
+
+    /**
+     * Constructs a TravelSolution instance for a given set of cities with an explicit population size.
+     *
+     * @param citySet           The cities of the TSP.
+     * @param iterationsNum     The number of iterations to run the algorithm.
+     * @param mutationPercent   The percentage of the population to undergo mutation per generation.
+     * @param generationSize    The number of paths selected for crossover; a generation holds twice as many.
+     */
+    public TravelSolution(CitySet citySet, int iterationsNum, int mutationPercent, int generationSize) {
+        this.citySet = citySet;
         this.mutationPercent = mutationPercent;
         this.iterationsNum = iterationsNum;
-        generationSize = cityNum * 2;
+        this.generationSize = generationSize;
         generationMaxSize = generationSize * 2;
     }
 
+    /**
+     * Sets the number of worker threads used for crossover, mutation and fitness evaluation.
+     * Every worker has its own random number generator and output buffer; the buffers
+     * are merged once per generation on the calling thread.
+     *
+     * @param parallelism   The number of worker threads, 1 to run on the calling thread only.
+     * @throws IllegalArgumentException if parallelism is not positive
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Method setParallelism() in class \"TravelSolution\". Parallelism must be positive.");
+
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets how many duplicate paths may be rejected while filling a generation before
+     * duplicates are accepted. The budget is the given factor times the maximum generation
+     * size, so filling a generation always terminates, even when there are fewer distinct
+     * tours than places in the generation.
+     *
+     * @param dedupRetryFactor  The number of rejected duplicates allowed per place in a generation.
+     * @throws IllegalArgumentException if dedupRetryFactor is negative
+     */
+    public void setDedupRetryFactor(int dedupRetryFactor) {
+        if (dedupRetryFactor < 0)
+            throw new IllegalArgumentException("Method setDedupRetryFactor() in class \"TravelSolution\". Retry factor must not be negative.");
+
+        this.dedupRetryFactor = dedupRetryFactor;
+    }
+
+    /**
+     * Switches the algorithm to the island model. Every island evolves its own population
+     * of the full generation size on its own thread, so memory and work per generation grow
+     * with the number of islands. Every migrationInterval
+     * generations each island sends copies of its best paths to its neighbours in the given
+     * topology through lock-free queues, and replaces its worst paths with the migrants it
+     * received. Islands never wait for each other. While islands are used, every island
+     * runs on a single thread and the parallelism setting is ignored.
+     *
+     * @param islandNum         The number of islands, 1 to evolve a single population.
+     * @param migrationInterval The number of generations between two migrations.
+     * @param migrantNum        The number of paths an island sends per migration.
+     * @param topology          The topology deciding which islands exchange paths.
+     * @throws IllegalArgumentException if a number is not positive or migrantNum exceeds the generation size
+     */
+    public void setIslands(int islandNum, int migrationInterval, int migrantNum, MigrationTopology topology) {
+        if (islandNum < 1 || migrationInterval < 1 || migrantNum < 1)
+            throw new IllegalArgumentException("Method setIslands() in class \"TravelSolution\". Island settings must be positive.");
+        if (migrantNum > generationSize)
+            throw new IllegalArgumentException("Method setIslands() in class \"TravelSolution\". Unable to send more migrants than the generation size.");
+
+        this.islandNum = islandNum;
+        this.migrationInterval = migrationInterval;
+        this.migrantNum = migrantNum;
+        this.topology = topology;
+    }
+
+    /**
+     * Enables the memetic local search stage. After crossover and mutation, children of
+     * every generation are improved with 2-opt and Or-opt moves restricted to the nearest
+     * neighbours of each city. The stage stops once it has used the given share of the
+     * generation's time, measured against the time spent on breeding and mutation, and
+     * the remaining children are left as they are.
+     *
+     * @param neighborNum   The number of nearest neighbours tried per city, 0 to disable the local search.
+     * @param timeFraction  The share of a generation's time, in (0, 1], the local search may use;
+     *                      1 lets it improve every child to a local optimum.
+     * @throws IllegalArgumentException if neighborNum is negative or timeFraction is out of range
+     */
+    public void setLocalSearch(int neighborNum, double timeFraction) {
+        if (neighborNum < 0)
+            throw new IllegalArgumentException("Method setLocalSearch() in class \"TravelSolution\". Number of neighbours must not be negative.");
+        if (!(timeFraction > 0 && timeFraction <= 1))
+            throw new IllegalArgumentException("Method setLocalSearch() in class \"TravelSolution\". Time fraction must be in (0, 1].");
+
+        this.localSearchNeighbors = neighborNum;
+        this.localSearchFraction = timeFraction;
+    }
+
+    /**
+     * Sets how the initial generation is seeded. The given percentages of the generation
+     * are built by the nearest-neighbour, greedy-edge and space-filling curve heuristics
+     * (see {@link TourConstruction}); the rest are random tours, as by default.
+     * Nearest-neighbour tours start from random cities, and every greedy-edge and curve
+     * tour but the first is randomized, so the seeded paths differ from each other.
+     *
+     * @param nearestNeighborPercent    The percentage of nearest-neighbour tours.
+     * @param greedyPercent             The percentage of greedy-edge tours.
+     * @param curvePercent              The percentage of space-filling curve tours.
+     * @throws IllegalArgumentException if a percentage is negative or they sum up to more than 100
+     */
+    public void setSeedingMix(int nearestNeighborPercent, int greedyPercent, int curvePercent) {
+        if (nearestNeighborPercent < 0 || greedyPercent < 0 || curvePercent < 0)
+            throw new IllegalArgumentException("Method setSeedingMix() in class \"TravelSolution\". Percentages must not be negative.");
+        if (nearestNeighborPercent + greedyPercent + curvePercent > 100)
+            throw new IllegalArgumentException("Method setSeedingMix() in class \"TravelSolution\". Percentages must not exceed 100 in total.");
+
+        this.nearestNeighborPercent = nearestNeighborPercent;
+        this.greedyPercent = greedyPercent;
+        this.curvePercent = curvePercent;
+    }
+
+    /**
+     * Enables periodic checkpoints of the run. Every checkpointInterval generations the tours
+     * of the generation, the seeds of the random number generators, the best path found so
+     * far and the progress of the run are copied into a snapshot, which a background thread writes
+     * to the file atomically; a snapshot is skipped if the previous one is still being
+     * written. A final checkpoint is written when the run ends. Checkpoints are only taken
+     * when a single population evolves, not in the island model.
+     *
+     * @param fileName              The name of the checkpoint file, or null to disable checkpoints.
+     * @param checkpointInterval    The number of generations between two checkpoints.
+     * @throws IllegalArgumentException if checkpointInterval is not positive
+     */
+    public void setCheckpointing(String fileName, int checkpointInterval) {
+        if (checkpointInterval < 1)
+            throw new IllegalArgumentException("Method setCheckpointing() in class \"TravelSolution\". Checkpoint interval must be positive.");
+
+        this.checkpointFile = fileName;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Seeds the initial generation of {@link #findSolution()} with the paths of a checkpoint,
+     * e.g. of an earlier run on the same cities. Surplus and duplicate paths are dropped,
+     * missing ones are created according to the seeding mix. Unlike {@link #resume(Checkpoint)} the run
+     * starts from the first iteration with fresh random number generators.
+     *
+     * @param checkpoint    The checkpoint to start from, or null to start from scratch.
+     * @throws IllegalArgumentException if the checkpoint was taken for a different number of cities
+     */
+    public void setWarmStart(Checkpoint checkpoint) {
+        if (checkpoint != null && checkpoint.getCityNum() != citySet.size())
+            throw new IllegalArgumentException("Method setWarmStart() in class \"TravelSolution\". Checkpoint has a different number of cities.");
+
+        this.warmStart = checkpoint;
+    }
+
+    /**
+     * Sets a condition that stops the run before the configured number of iterations,
+     * which remains the upper bound. The condition is checked after every generation;
+     * in the island model every island checks it against its own progress.
+     *
+     * @param stopCondition The condition to stop at, or null to always run every iteration.
+     */
+    public void setStopCondition(StopCondition stopCondition) {
+        this.stopCondition = stopCondition;
+    }
+
+    /**
+     * Returns the condition set by {@link #setStopCondition(StopCondition)}.
+     *
+     * @return The condition, or null if the run always executes every iteration.
+     */
+    StopCondition getStopCondition() { return stopCondition; }
+
+    /**
+     * Attaches a control through which other threads, such as a user interface, pause,
+     * resume and cancel the run. The control is checked once before every generation.
+     *
+     * @param runControl    The control to obey, or null to run uncontrolled.
+     */
+    public void setRunControl(RunControl runControl) {
+        this.runControl = runControl;
+    }
+
+    /**
+     * Sets the genetic operators. By default the cycle crossover and the swap mutation are
+     * used. Every worker passes its own scratch memory and random number generator to the
+     * operators, so an operator may be shared between workers as long as it keeps no state
+     * of its own; see {@link Crossover} and {@link Mutation} for the built-in ones.
+     *
+     * @param crossover The operator combining two parents into a child.
+     * @param mutation  The operator applied to the mutated paths.
+     * @throws IllegalArgumentException if an operator is null
+     */
+    public void setOperators(CrossoverOperator crossover, MutationOperator mutation) {
+        if (crossover == null || mutation == null)
+            throw new IllegalArgumentException("Method setOperators() in class \"TravelSolution\". Operators must not be null.");
+
+        this.crossover = crossover;
+        this.mutation = mutation;
+    }
+
+    /**
+     * Enables or disables the population arena. With the arena, two populations are
+     * allocated once per run and swap roles every generation: children are written into
+     * the paths of the generation before the current one, so after the first generation
+     * breeding, mutation and local search allocate no paths or tours at all. Paths of a
+     * generation are never handed out, as statistics and checkpoints hold copies, so the
+     * arena changes no results.
+     *
+     * @param enabled   true to reuse the populations, false to allocate a new one every generation.
+     */
+    public void setPopulationArena(boolean enabled) {
+        this.populationArena = enabled;
+    }
+
+    /**
+     * Moves breeding into separate worker processes spawned on this machine for every
+     * run and connected over loopback sockets (see {@link BreedingWorker}). The workers
+     * perform the crossover and evaluate the children, which come back in a compact binary
+     * encoding; selection, mutation and local search stay in this JVM. The children are
+     * split between the workers by their measured throughput, so seeded runs are no longer
+     * reproducible. Only the built-in {@link Crossover} operators can be used remotely, and
+     * the worker processes use the class path of this JVM.
+     *
+     * @param workerNum The number of worker processes, 0 to breed in this JVM.
+     * @throws IllegalArgumentException if workerNum is negative
+     */
+    public void setRemoteWorkers(int workerNum) {
+        if (workerNum < 0)
+            throw new IllegalArgumentException("Method setRemoteWorkers() in class \"TravelSolution\". Number of workers must not be negative.");
+
+        this.remoteWorkerNum = workerNum;
+    }
+
+    /**
+     * Replaces the generational scheme by a steady-state one. A single population of the
+     * generation size evolves in place: every step picks two parents by tournament, breeds
+     * one child, mutates it with the current mutation percentage as its probability and
+     * lets it replace the path chosen by the replacement policy if the child is shorter and
+     * its tour is not in the population yet. The worst path is tracked by an indexed min-max
+     * heap, so no generation is sorted, selected or allocated, and the population takes half
+     * the memory of a generation. An iteration is as many steps as the population has paths
+     * and is reported to the listeners like a generation. The scheme runs on the calling
+     * thread and ignores the parallelism setting; it does not support the island model,
+     * checkpoints, the local search or remote workers.
+     *
+     * @param tournamentSize    The number of paths drawn per tournament; larger ones select harder.
+     * @param replacement       The path a better child replaces.
+     * @throws IllegalArgumentException if tournamentSize is not positive or replacement is null
+     */
+    public void setSteadyState(int tournamentSize, Replacement replacement) {
+        if (tournamentSize < 1)
+            throw new IllegalArgumentException("Method setSteadyState() in class \"TravelSolution\". Tournament size must be positive.");
+        if (replacement == null)
+            throw new IllegalArgumentException("Method setSteadyState() in class \"TravelSolution\". Replacement must not be null.");
+
+        this.steadyState = new SteadyState(this, tournamentSize, replacement);
+    }
+
+    /**
+     * Restores the generational scheme after {@link #setSteadyState(int, Replacement)}.
+     */
+    public void setGenerational() {
+        this.steadyState = null;
+    }
+
+    /**
+     * Attaches a store of known solutions. Before a new run, the store is looked up by the
+     * fingerprint of the cities; on a hit the stored best tour is either returned at once,
+     * reported to the listeners as the only generation, or the stored elite tours seed the
+     * initial generation in place of a warm start set by {@link #setWarmStart}. After every
+     * run, including cancelled ones, its best paths are merged into the store.
+     *
+     * @param cache     The store to use, or null to run without one.
+     * @param hitPolicy What to do when the store knows the instance.
+     * @throws IllegalArgumentException if a cache is given without a hit policy
+     */
+    public void setSolutionCache(SolutionCache cache, SolutionCache.HitPolicy hitPolicy) {
+        if (cache != null && hitPolicy == null)
+            throw new IllegalArgumentException("Method setSolutionCache() in class \"TravelSolution\". Hit policy must not be null.");
+
+        this.solutionCache = cache;
+        this.cacheHitPolicy = hitPolicy;
+    }
+
+    /**
+     * Lets the mutation percentage adapt between generations, starting from the percentage
+     * given to the constructor. While the diversity of the population is collapsed the
+     * percentage is raised, after every generation that improves the best distance it is
+     * lowered; it always stays within the given bounds.
+     *
+     * @param minPercent    The smallest mutation percentage.
+     * @param maxPercent    The largest mutation percentage.
+     * @throws IllegalArgumentException if minPercent is negative or exceeds maxPercent
+     */
+    public void setAdaptiveMutation(int minPercent, int maxPercent) {
+        if (minPercent < 0 || minPercent > maxPercent)
+            throw new IllegalArgumentException("Method setAdaptiveMutation() in class \"TravelSolution\". Bounds must satisfy 0 <= min <= max.");
+
+        this.adaptiveMutation = new AdaptiveMutation(minPercent, maxPercent);
+    }
+
+    /**
+     * Disables the adaptive mutation percentage enabled by {@link #setAdaptiveMutation(int, int)}.
+     */
+    public void setFixedMutation() {
+        this.adaptiveMutation = null;
+    }
+
+    /**
+     * Attaches metrics that accumulate the time spent in every phase of a generation, the
+     * children bred and rejected as duplicates, the allocated memory and the fitness of
+     * the population. Independently of this setting, every generation is reported as a
+     * {@code com.kpi.Generation} flight recorder event while a JFR recording enables it.
+     * Without metrics and recording, a generation is not measured at all.
+     *
+     * @param metrics   The metrics to update, or null to collect none.
+     */
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Registers a listener notified of the statistics of every generation as the run progresses.
+     *
+     * @param listener  The listener to add.
+     */
+    public void addGenerationListener(GenerationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener added with {@link #addGenerationListener(GenerationListener)}.
+     *
+     * @param listener  The listener to remove.
+     */
+    public void removeGenerationListener(GenerationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Sets which best paths {@link #findSolution()} keeps and returns. By default the best
+     * path of every iteration is kept.
+     *
+     * @param historyPolicy The retention policy of the history.
+     */
+    public void setHistoryPolicy(HistoryPolicy historyPolicy) {
+        this.historyPolicy = historyPolicy;
+    }
+
+    /**
+     * Seeds the random number generators of the run. The generators of all workers,
+     * islands and remote workers are split from one {@link SplittableRandom} with this
+     * seed, and every worker always breeds and mutates the same slice of a generation, so
+     * runs with the same seed, parameters and parallelism produce bit-identical paths.
+     * Only a time-limited local search, the island model and remote workers make results
+     * depend on timing. Without a seed every run draws a new one, see {@link #getRunSeed()}.
+     *
+     * @param seed  The seed of the run.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the seed of the latest run, which repeats the run when passed to
+     * {@link #setSeed(long)}.
+     *
+     * @return The seed set or drawn for the latest run, 0 before the first run.
+     */
+    public long getRunSeed() { return runSeed; }
+
     /**
      * Executes the Genetic Algorithm to find an optimal solution for the TSP.
+     * Every generation is reported to the registered listeners while the run progresses.
+     * In the island model each island reports its own generations.
      *
-     * @return A vector containing the best path found at each iteration.
+     * @return A vector containing the best paths kept by the history policy, oldest first.
      */
     public Vector<Path> findSolution() {
-        // create the initial generation with
-        Hashtable<Double, Path> startGenHashT = new Hashtable<>();
-        Vector<Path> startGenVec = new Vector<>();
-        Vector<Path> results = new Vector<>();
+        return run(null);
+    }
+
+    /**
+     * Continues a run from one of its checkpoints. The generation, the random number
+     * generators, the best path and the progress (evaluations, generations without
+     * improvement and the adapted mutation percentage) are restored and the remaining iterations up to the
+     * configured number are executed, so a single-threaded run resumed with the same
+     * parameters continues exactly as the run that wrote the checkpoint.
+     *
+     * @param checkpoint    The checkpoint to continue from.
+     * @return A vector containing the best paths of the resumed iterations kept by the history policy, oldest first.
+     * @throws IllegalArgumentException if the checkpoint does not match the cities or the generation size
+     */
+    public Vector<Path> resume(Checkpoint checkpoint) {
+        if (checkpoint.getCityNum() != citySet.size())
+            throw new IllegalArgumentException("Method resume() in class \"TravelSolution\". Checkpoint has a different number of cities.");
+        if (checkpoint.getPopulationSize() != generationMaxSize)
+            throw new IllegalArgumentException("Method resume() in class \"TravelSolution\". Checkpoint has a different generation size.");
+
+        return run(checkpoint);
+    }
+
+    /**
+     * Runs the algorithm from scratch or from a checkpoint.
+     *
+     * @param resumed   The checkpoint to continue from, or null to start a new run.
+     * @return A vector containing the best paths kept by the history policy, oldest first.
+     */
+    private Vector<Path> run(Checkpoint resumed) {
+        HistoryRecorder recorder = new HistoryRecorder(historyPolicy, listeners);
+        runSeed = seed != null ? seed : new SplittableRandom().nextLong();
+        SplittableRandom seedRandom = new SplittableRandom(runSeed);
+        Checkpoint start = warmStart;
+        if (solutionCache != null && resumed == null) {
+            Checkpoint cached = solutionCache.lookup(citySet);
+            if (cached != null && cacheHitPolicy == SolutionCache.HitPolicy.RETURN_BEST) {
+                IntPath[] elites = cached.toGeneration(citySet);
+                recorder.record(GenerationStats.of(0, 1, elites, new TourHashSet(elites.length)));
+                return recorder.toPaths();
+            }
+            if (cached != null && start == null)
+                start = cached;
+        }
+
+        if (steadyState != null) {
+            if (islandNum > 1 || resumed != null || checkpointFile != null || remoteWorkerNum > 0 || localSearchNeighbors > 0)
+                throw new IllegalStateException("Method run() in class \"TravelSolution\". The steady-state scheme does not support " +
+                        "islands, checkpoints, remote workers or the local search.");
+            IntPath[] population = steadyState.evolve(iterationsNum, seedRandom.split(), recorder, start);
+            storeSolution(recorder.getBest() != null ? recorder.getBest() : findBest(population), population);
+            return recorder.toPaths();
+        }
+
+        if (islandNum > 1) {
+            if (resumed != null || checkpointFile != null)
+                throw new IllegalStateException("Method run() in class \"TravelSolution\". Checkpoints are not supported by the island model.");
+            if (remoteWorkerNum > 0)
+                throw new IllegalStateException("Method run() in class \"TravelSolution\". Remote workers are not supported by the island model.");
+            Vector<Path> paths = runIslands(recorder, seedRandom, start);
+            if (recorder.getBest() != null)
+                storeSolution(recorder.getBest(), new IntPath[0]);
+            return paths;
+        }
+
+        // one random number generator per worker, split from the run's, so workers never share one
+        SplittableRandom[] workerRandoms = new SplittableRandom[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            long[] seeds = resumed != null ? resumed.getSeeds() : null;
+            workerRandoms[i] = seeds != null && i < seeds.length ? new SplittableRandom(seeds[i]) : seedRandom.split();
+        }
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        Worker[] workers = createWorkers(workerRandoms);
+        PopulationArena arena = createArena();
+        CheckpointWriter writer = checkpointFile != null ? new CheckpointWriter(checkpointFile) : null;
+        RemoteBreeding remote = null;
+
+        try {
+            if (remoteWorkerNum > 0) {
+                if (!(crossover instanceof Crossover))
+                    throw new IllegalStateException("Method run() in class \"TravelSolution\". Remote workers only support the built-in crossovers.");
+                remote = new RemoteBreeding(remoteWorkerNum, citySet, (Crossover) crossover, seedRandom);
+            }
+
+            // generate start generation (max size)
+            TourHashSet tourHashes = new TourHashSet(generationMaxSize);
+            IntPath[] generation;
+            IntPath best = null;
+            RunProgress progress;
+            if (resumed != null) {
+                generation = resumed.toGeneration(citySet);
+                best = resumed.getBest(citySet);
+                int resumedPercent = resumed.getMutationPercent() >= 0 ? resumed.getMutationPercent() : mutationPercent;
+                progress = new RunProgress(resumed.getIteration(), best.getDistance(), resumedPercent,
+                        resumed.getEvaluations(), resumed.getStagnantGenerations());
+            } else {
+                progress = new RunProgress(0, Integer.MAX_VALUE, mutationPercent);
+                generation = createGeneration(tourHashes, workers[0].random, start);
+                progress.addEvaluations(generationMaxSize);
+            }
+
+            int iter = progress.getIteration();
+            while (iter < iterationsNum && awaitGeneration()) {
+                iter++;
+                GenerationProfile profile = GenerationProfile.start(metrics);
+                generation = nextGeneration(generation, tourHashes, pool, remote, workers, arena, profile, progress);
+
+                // record the statistics of the current generation
+                GenerationStats stats = GenerationStats.of(0, iter, generation, tourHashes);
+                if (profile != null)
+                    profile.finish(stats);
+                recorder.record(stats);
+                if (best == null || stats.getBestDistance() < best.getDistance())
+                    best = stats.getBest();
+                if (endGeneration(progress, stats))
+                    break;
+
+                // reseed even when the write is skipped, so the random numbers never depend on the writer's timing
+                if (writer != null && iter % checkpointInterval == 0 && iter < iterationsNum) {
+                    long[] seeds = reseed(workers);
+                    if (writer.isIdle())
+                        writer.submit(snapshot(generation, best, seeds, progress));
+                }
+            }
+
+            if (writer != null) {
+                writer.finish(snapshot(generation, best != null ? best : findBest(generation).copy(), reseed(workers), progress));
+                writer = null;
+            }
+            storeSolution(best != null ? best : findBest(generation), generation);
+        } finally {
+            if (writer != null)
+                writer.abort();
+            if (pool != null)
+                pool.shutdown();
+            if (remote != null)
+                remote.close();
+        }
+        return recorder.toPaths();
+    }
+
+    /**
+     * Merges the result of a run into the solution cache, if one is attached.
+     *
+     * @param best          The best path of the run.
+     * @param population    Further paths of the run to consider as elites.
+     * @throws UncheckedIOException if the cache cannot be written
+     */
+    private void storeSolution(IntPath best, IntPath[] population) {
+        if (solutionCache == null)
+            return;
+
+        try {
+            solutionCache.store(citySet, best, population);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Replaces the random number generators of the workers by new ones seeded with fresh
+     * seeds drawn from themselves. A checkpoint storing the seeds lets a resumed run
+     * continue with the same random numbers as this one.
+     *
+     * @param workers   The workers of the run.
+     * @return The new seeds, one per worker.
+     */
+    private static long[] reseed(Worker[] workers) {
+        long[] seeds = new long[workers.length];
+        for (int i = 0; i < workers.length; i++) {
+            seeds[i] = workers[i].random.nextLong();
+            workers[i].random = new SplittableRandom(seeds[i]);
+        }
+        return seeds;
+    }
+
+    /**
+     * Copies the state of a run into a checkpoint.
+     *
+     * @param generation    The paths of the current generation.
+     * @param best          The best path found so far.
+     * @param seeds         The seeds the workers were just reseeded with.
+     * @param progress      The progress of the run, including the adapted mutation percentage.
+     * @return A checkpoint sharing no state with the run.
+     */
+    private Checkpoint snapshot(IntPath[] generation, IntPath best, long[] seeds, RunProgress progress) {
+        int cityNum = citySet.size();
+        int[] tours = new int[generation.length * cityNum];
+        for (int i = 0; i < generation.length; i++)
+            generation[i].copyTourTo(tours, i * cityNum);
+        int[] bestTour = new int[cityNum];
+        best.copyTourTo(bestTour, 0);
+        return new Checkpoint(cityNum, progress.getIteration(), seeds, generation.length, tours, bestTour,
+                progress.getEvaluations(), progress.getStagnantGenerations(), progress.getMutationPercent());
+    }
+
+    /**
+     * Waits while the run is paused through its control.
+     *
+     * @return true if the next generation may start, false if the run is cancelled.
+     */
+    boolean awaitGeneration() {
+        return runControl == null || runControl.awaitGeneration();
+    }
+
+    /**
+     * Records a completed generation in the progress of a run, adapts the mutation
+     * percentage of the next generation and checks the stop condition.
+     *
+     * @param progress  The progress of the run.
+     * @param stats     The statistics of the completed generation.
+     * @return true if the run stops after this generation.
+     */
+    boolean endGeneration(RunProgress progress, GenerationStats stats) {
+        progress.record(stats);
+        if (adaptiveMutation != null)
+            progress.setMutationPercent(adaptiveMutation.nextPercent(progress));
+
+        return stopCondition != null && stopCondition.isMet(progress);
+    }
+
+    /**
+     * Runs the configured number of generations on every island concurrently.
+     *
+     * @param recorder      The recorder every island reports its generations to.
+     * @param seedRandom    The generator the generators of the islands are split from.
+     * @param start         The checkpoint whose paths seed the initial generation of every island, or null.
+     * @return A vector containing the best paths kept by the history policy, oldest first.
+     */
+    private Vector<Path> runIslands(HistoryRecorder recorder, SplittableRandom seedRandom, Checkpoint start) {
+        Island[] islands = new Island[islandNum];
+        for (int i = 0; i < islandNum; i++)
+            islands[i] = new Island(this, i, seedRandom.split(), recorder, start);
+
+        ExecutorService executor = Executors.newFixedThreadPool(islandNum);
+        try {
+            List<Future<?>> futures = new ArrayList<>(islandNum);
+            for (Island island : islands)
+                futures.add(executor.submit(() -> island.evolve(islands, iterationsNum, migrationInterval, migrantNum, topology)));
+            for (Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Method runIslands() in class \"TravelSolution\". Interrupted while waiting for the islands.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Method runIslands() in class \"TravelSolution\". An island failed.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return recorder.toPaths();
+    }
+
+    /**
+     * Creates an initial generation of the maximum size from distinct paths. The paths of
+     * the start checkpoint come first; the remaining places are constructed according to
+     * the seeding mix.
+     *
+     * @param tourHashes    The set used to reject duplicate paths; cleared before use.
+     * @param random        The random number generator to use.
+     * @param start         The checkpoint whose paths take the first places of the generation, or null.
+     * @return The paths of the initial generation.
+     */
+    IntPath[] createGeneration(TourHashSet tourHashes, RandomGenerator random, Checkpoint start) {
+        IntPath[] generation = new IntPath[generationMaxSize];
+        tourHashes.clear();
 
-        // generate start generation (max size)
         int cnt = 0;
-        while (startGenHashT.size() < generationMaxSize) {
-            Path path = new Path(cityNum);
-            if (! startGenHashT.containsKey(path.getKey())) {
-                startGenHashT.put(path.getKey(), path);
-                startGenVec.add(cnt++, path);
+        int rejected = 0;
+        if (start != null) {
+            for (IntPath path : start.toGeneration(citySet)) {
+                if (cnt == generationMaxSize)
+                    break;
+                if (tourHashes.add(path.getHash()) || rejected++ >= maxRejected())
+                    generation[cnt++] = path;
+            }
+        }
+
+        // the places of the generation taken by every construction heuristic
+        int remaining = generationMaxSize - cnt;
+        int nearestNeighborEnd = cnt + remaining * nearestNeighborPercent / 100;
+        int greedyEnd = nearestNeighborEnd + remaining * greedyPercent / 100;
+        int curveEnd = greedyEnd + remaining * curvePercent / 100;
+
+        boolean exactGreedy = true;
+        boolean exactCurve = true;
+        while (cnt < generationMaxSize) {
+            IntPath path;
+            if (cnt < nearestNeighborEnd) {
+                path = new IntPath(TourConstruction.nearestNeighbor(citySet, random.nextInt(citySet.size())), citySet);
+            } else if (cnt < greedyEnd) {
+                path = new IntPath(TourConstruction.greedyEdge(citySet, exactGreedy ? null : random), citySet);
+                exactGreedy = false;
+            } else if (cnt < curveEnd) {
+                path = new IntPath(TourConstruction.spaceFillingCurve(citySet, exactCurve ? null : random), citySet);
+                exactCurve = false;
+            } else {
+                path = new IntPath(citySet, random);
             }
+
+            if (tourHashes.add(path.getHash()) || rejected++ >= maxRejected())
+                generation[cnt++] = path;
         }
+        return generation;
+    }
+
+    /**
+     * Creates one worker per random number generator, each with its own operator scratch
+     * memory and, if the local search stage is enabled, its own local search.
+     *
+     * @param randoms   The random number generators of the workers.
+     * @return The workers.
+     */
+    Worker[] createWorkers(SplittableRandom[] randoms) {
+        boolean localSearchEnabled = localSearchNeighbors > 0 && citySet.size() >= 5;
+        Worker[] workers = new Worker[randoms.length];
+        for (int i = 0; i < randoms.length; i++)
+            workers[i] = new Worker(randoms[i], new OperatorScratch(citySet.size()),
+                    localSearchEnabled ? new LocalSearch(citySet, localSearchNeighbors) : null);
+        return workers;
+    }
 
-        int iter = 0;
-        while (iter++ < iterationsNum) {
-            Hashtable<Double, Path> newGenHashT = new Hashtable<>();
-            Vector<Path> newGenVec = new Vector<>();
+    /**
+     * Creates the arena supplying the populations of one run or island.
+     *
+     * @return The arena, recycling populations if the population arena is enabled.
+     */
+    PopulationArena createArena() {
+        return new PopulationArena(citySet, generationMaxSize, populationArena);
+    }
 
-            // get the best instances from generation (size)
-            Collections.sort(startGenVec);
-            for (int i = generationMaxSize - 1; i >= generationSize; i--) {
-                Path toRemove = startGenVec.remove(i);
-                startGenHashT.remove(toRemove.getKey());
+    /**
+     * Breeds the next generation: selects the best paths of the given generation, fills a
+     * new generation of the maximum size with their distinct children, mutates the current
+     * percentage of them and, if enabled, improves them by local search.
+     *
+     * @param generation        The paths of the current generation; reordered by the selection
+     *                          and handed back to the arena afterwards.
+     * @param tourHashes        The set used to reject duplicate children.
+     * @param pool              The pool of worker threads, or null to run on the calling thread.
+     * @param remote            The worker processes breeding the children, or null to breed in this JVM.
+     * @param workers           The workers; the local search is skipped if they have none.
+     * @param arena             The arena supplying the population of the next generation.
+     * @param profile           The profile receiving the measurements of the phases, or null.
+     * @param progress          The progress of the run, providing the mutation percentage and counting the evaluations.
+     * @return The paths of the next generation.
+     */
+    IntPath[] nextGeneration(IntPath[] generation, TourHashSet tourHashes, ForkJoinPool pool, RemoteBreeding remote,
+                             Worker[] workers, PopulationArena arena, GenerationProfile profile, RunProgress progress) {
+        long start = System.nanoTime();
+        boolean localSearchEnabled = workers[0].localSearch != null;
+        IntPath[] newGeneration = arena.take();
+
+        // get the best instances from generation (size), which stay in front as the parents
+        selectBest(generation, generationSize);
+        long selected = profile != null ? System.nanoTime() : 0;
+        if (remote != null)
+            remote.setParents(generation, generationSize);
+
+        // perform crossover to create a new generation
+        tourHashes.clear();
+        int cnt = 0;
+        int rejected = 0;
+        int bred = 0;
+        while (cnt < generationMaxSize) {
+            int from = cnt;
+            if (remote != null)
+                remote.breed(newGeneration, from);
+            else
+                breed(pool, generation, newGeneration, from, workers, profile);
+            bred += generationMaxSize - from;
+
+            // move accepted children to the front, dropping duplicates while the retry budget lasts;
+            // the places of dropped ones are bred again
+            for (int i = from; i < generationMaxSize; i++) {
+                if (tourHashes.add(newGeneration[i].getHash()) || rejected++ >= maxRejected()) {
+                    IntPath childPath = newGeneration[i];
+                    newGeneration[i] = newGeneration[cnt];
+                    newGeneration[cnt++] = childPath;
+                }
             }
+        }
+        progress.addEvaluations(bred);
+        long crossed = profile != null ? System.nanoTime() : 0;
+
+        // perform mutation on a percentage of the paths
+        int mutationNum = (int) Math.ceil(generationSize / 100.0 * progress.getMutationPercent());
+        mutate(pool, newGeneration, mutationNum, workers);
+        long mutated = System.nanoTime();
+
+        if (localSearchEnabled) {
+            // give the local search its share of the whole generation's time
+            long budget = localSearchFraction >= 1 ? Long.MAX_VALUE / 2
+                    : (long) ((mutated - start) * localSearchFraction / (1 - localSearchFraction));
+            improve(pool, newGeneration, workers, mutated + budget, profile);
+        }
+
+        if (profile != null) {
+            profile.selectionNanos = selected - start;
+            profile.crossoverNanos = crossed - selected;
+            profile.mutationNanos = mutated - crossed;
+            profile.localSearchNanos = localSearchEnabled ? System.nanoTime() - mutated : 0;
+            profile.childrenBred = bred;
+            // once the retry budget is spent, duplicates are accepted but still counted by rejected
+            profile.duplicatesRejected = Math.min(rejected, maxRejected());
+        }
+        arena.recycle(generation);
+        return newGeneration;
+    }
+
+    /**
+     * Returns the metrics attached to the solution.
+     *
+     * @return The metrics, or null if none are collected.
+     */
+    SolverMetrics getMetrics() { return metrics; }
+
+    /**
+     * Returns the set of cities the paths visit.
+     *
+     * @return The set of cities.
+     */
+    CitySet getCitySet() { return citySet; }
+
+    /**
+     * Returns the operator combining two parents into a child.
+     *
+     * @return The crossover operator.
+     */
+    CrossoverOperator getCrossover() { return crossover; }
+
+    /**
+     * Returns the operator applied to the mutated paths.
+     *
+     * @return The mutation operator.
+     */
+    MutationOperator getMutation() { return mutation; }
+
+    /**
+     * Returns the number of paths selected for crossover.
+     *
+     * @return The generation size.
+     */
+    int getGenerationSize() { return generationSize; }
 
-            // perform crossover to create a new generation
-            Random random = new Random();
-            cnt = 0;
-            while (newGenHashT.size() < generationMaxSize) {
-                Path parentPath1 = startGenVec.elementAt(random.nextInt(generationSize));
-                Path parentPath2 = startGenVec.elementAt(random.nextInt(generationSize));
-                Path childPath = (Path) parentPath1.crossoverWith(parentPath2);
-
-                if (!newGenHashT.containsKey(childPath.getKey())) {
-                    newGenHashT.put(childPath.getKey(), childPath);
-                    newGenVec.add(cnt++, childPath);
+    /**
+     * Returns the maximum size of a generation.
+     *
+     * @return The maximum size of a generation.
+     */
+    int getGenerationMaxSize() { return generationMaxSize; }
+
+    /**
+     * Returns the mutation percentage every run starts with.
+     *
+     * @return The initial mutation percentage.
+     */
+    int getMutationPercent() { return mutationPercent; }
+
+    /**
+     * Returns the number of duplicates that may be rejected while filling one generation.
+     *
+     * @return The duplicate retry budget of a generation.
+     */
+    private int maxRejected() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) generationMaxSize * dedupRetryFactor);
+    }
+
+    /**
+     * Reorders paths so that the k shortest ones occupy the first k places, in no particular
+     * order. Uses quickselect, which runs in expected linear time instead of sorting.
+     *
+     * @param paths The paths to reorder.
+     * @param k     The number of shortest paths to move to the front.
+     */
+    static void selectBest(IntPath[] paths, int k) {
+        int left = 0;
+        int right = paths.length - 1;
+
+        while (left < right) {
+            // median of three as the pivot keeps already ordered inputs from degrading
+            int mid = (left + right) >>> 1;
+            int a = paths[left].getDistance(), b = paths[mid].getDistance(), c = paths[right].getDistance();
+            int pivot = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+
+            int i = left, j = right;
+            while (i <= j) {
+                while (paths[i].getDistance() < pivot)
+                    i++;
+                while (paths[j].getDistance() > pivot)
+                    j--;
+                if (i <= j) {
+                    IntPath temp = paths[i];
+                    paths[i++] = paths[j];
+                    paths[j--] = temp;
                 }
             }
 
-            // perform mutation on a percentage of the paths
-            for (int i = 0; i < generationSize / 100.0 * mutationPercent; i++)
-                newGenVec.elementAt(random.nextInt(generationMaxSize)).mutate();
+            if (k - 1 <= j)
+                right = j;
+            else if (k - 1 >= i)
+                left = i;
+            else
+                return;
+        }
+    }
 
-            // update the current generation with the new generation
-            startGenHashT = newGenHashT;
-            startGenVec = newGenVec;
+    /**
+     * Returns the shortest of the given paths.
+     *
+     * @param paths The paths to search.
+     * @return The path with the smallest total distance.
+     */
+    static IntPath findBest(IntPath[] paths) {
+        IntPath best = paths[0];
+        for (IntPath path : paths)
+            if (path.getDistance() < best.getDistance())
+                best = path;
+
+        return best;
+    }
+
+    /**
+     * Breeds children from randomly chosen pairs of parents into the paths of a range of
+     * a population. The range is split evenly between the workers.
+     *
+     * @param pool              The pool of worker threads, or null to run on the calling thread.
+     * @param parents           The generation whose first paths are the parents.
+     * @param children          The population receiving the children.
+     * @param from              The first index of the range; the range ends with the population.
+     * @param workers           The workers.
+     * @param profile           The profile receiving the allocations of the workers, or null.
+     */
+    private void breed(ForkJoinPool pool, IntPath[] parents, IntPath[] children, int from, Worker[] workers,
+                       GenerationProfile profile) {
+        if (pool == null) {
+            breedSlice(parents, children, from, children.length, workers[0]);
+            return;
+        }
+
+        int workerNum = workers.length;
+        int childNum = children.length - from;
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(workerNum);
+        for (int w = 0; w < workerNum; w++) {
+            int sliceFrom = from + childNum * w / workerNum;
+            int sliceTo = from + childNum * (w + 1) / workerNum;
+            Worker worker = workers[w];
+            if (sliceFrom < sliceTo) {
+                tasks.add(pool.submit(() -> {
+                    long allocated = profile != null ? profile.workerStart() : 0;
+                    breedSlice(parents, children, sliceFrom, sliceTo, worker);
+                    if (profile != null)
+                        profile.workerEnd(allocated);
+                }));
+            }
+        }
+        for (ForkJoinTask<?> task : tasks)
+            task.join();
+    }
+
+    /**
+     * Overwrites the paths of a slice of a population with children of randomly chosen parents.
+     *
+     * @param parents   The generation whose first paths are the parents.
+     * @param children  The population receiving the children.
+     * @param from      The first index of the slice.
+     * @param to        The index after the last one of the slice.
+     * @param worker    The worker breeding the children.
+     */
+    private void breedSlice(IntPath[] parents, IntPath[] children, int from, int to, Worker worker) {
+        SplittableRandom random = worker.random;
+        for (int i = from; i < to; i++) {
+            IntPath parentPath1 = parents[random.nextInt(generationSize)];
+            IntPath parentPath2 = parents[random.nextInt(generationSize)];
+            children[i].setToChild(crossover, parentPath1, parentPath2, worker.scratch, random);
+        }
+    }
+
+    /**
+     * Improves the paths of a generation in place by local search until the deadline
+     * passes. Like mutation, every worker improves the paths of its own slice.
+     *
+     * @param pool              The pool of worker threads, or null to run on the calling thread.
+     * @param generation        The paths of the generation.
+     * @param workers           The workers.
+     * @param deadline          The {@link System#nanoTime()} after which no further path is improved.
+     * @param profile           The profile receiving the allocations of the workers, or null.
+     */
+    private void improve(ForkJoinPool pool, IntPath[] generation, Worker[] workers, long deadline,
+                         GenerationProfile profile) {
+        if (pool == null) {
+            improveSlice(generation, 0, generation.length, workers[0].localSearch, deadline);
+            return;
+        }
 
-            // record the best path of the current generation
-            Collections.sort(startGenVec);
-            results.add(startGenVec.firstElement());
+        int workerNum = workers.length;
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(workerNum);
+        for (int w = 0; w < workerNum; w++) {
+            int from = generation.length * w / workerNum;
+            int to = generation.length * (w + 1) / workerNum;
+            LocalSearch localSearch = workers[w].localSearch;
+            tasks.add(pool.submit(() -> {
+                long allocated = profile != null ? profile.workerStart() : 0;
+                improveSlice(generation, from, to, localSearch, deadline);
+                if (profile != null)
+                    profile.workerEnd(allocated);
+            }));
         }
-        return results;
+        for (ForkJoinTask<?> task : tasks)
+            task.join();
+    }
+
+    /**
+     * Improves the paths of a slice of a generation one after another until the deadline passes.
+     *
+     * @param generation    The paths of the generation.
+     * @param from          The first index of the slice.
+     * @param to            The index after the last one of the slice.
+     * @param localSearch   The local search of the worker.
+     * @param deadline      The {@link System#nanoTime()} after which no further path is improved.
+     */
+    private static void improveSlice(IntPath[] generation, int from, int to, LocalSearch localSearch, long deadline) {
+        for (int i = from; i < to && System.nanoTime() - deadline < 0; i++)
+            localSearch.improve(generation[i], deadline);
+    }
+
+    /**
+     * Mutates randomly chosen paths of a generation. The generation is split into one
+     * slice per worker and every worker mutates paths of its own slice only.
+     *
+     * @param pool              The pool of worker threads, or null to run on the calling thread.
+     * @param generation        The paths of the generation.
+     * @param mutationNum       The total number of mutations to perform.
+     * @param workers           The workers.
+     */
+    private void mutate(ForkJoinPool pool, IntPath[] generation, int mutationNum, Worker[] workers) {
+        if (pool == null) {
+            mutateSlice(generation, 0, generation.length, mutationNum, workers[0]);
+            return;
+        }
+
+        int workerNum = workers.length;
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(workerNum);
+        for (int w = 0; w < workerNum; w++) {
+            int from = generation.length * w / workerNum;
+            int to = generation.length * (w + 1) / workerNum;
+            int workerMutationNum = mutationNum * (w + 1) / workerNum - mutationNum * w / workerNum;
+            Worker worker = workers[w];
+            if (from < to)
+                tasks.add(pool.submit(() -> mutateSlice(generation, from, to, workerMutationNum, worker)));
+        }
+        for (ForkJoinTask<?> task : tasks)
+            task.join();
+    }
+
+    /**
+     * Mutates randomly chosen paths of a slice of a generation.
+     *
+     * @param generation    The paths of the generation.
+     * @param from          The first index of the slice.
+     * @param to            The index after the last one of the slice.
+     * @param mutationNum   The number of mutations to perform.
+     * @param worker        The worker performing the mutations.
+     */
+    private void mutateSlice(IntPath[] generation, int from, int to, int mutationNum, Worker worker) {
+        for (int i = 0; i < mutationNum; i++)
+            mutation.mutate(generation[from + worker.random.nextInt(to - from)], worker.scratch, worker.random);
     }
 }
@@ -0,0 +1,78 @@
+package com.kpi;
+
+/**
+ * A {@link DistanceOracle} that stores only the lower triangle of the symmetric distance
+ * matrix. When every distance fits into 16 bits the cells are kept as {@code char}s,
+ * which takes a quarter of the memory of a {@link DenseDistanceMatrix}.
+ */
+final class TriangularDistanceMatrix implements DistanceOracle {
+    /** The packed 16-bit distances, or null if the wide cells are used. */
+    private final char[] narrow;
+    /** The packed 32-bit distances, or null if the narrow cells are used. */
+    private final int[] wide;
+
+    /**
+     * Constructs the matrix for the cities of a set.
+     *
+     * @param citySet   the set of cities
+     */
+    TriangularDistanceMatrix(CitySet citySet) {
+        int cityNum = citySet.size();
+        if (cellCount(cityNum) > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Unable to build a triangular distance matrix for " + cityNum + " cities.");
+
+        int[] cells = new int[(int) cellCount(cityNum)];
+        int maxDist = 0;
+
+        int cell = 0;
+        for (int i = 1; i < cityNum; i++) {
+            for (int j = 0; j < i; j++) {
+                cells[cell] = citySet.calcDist(i, j);
+                maxDist = Math.max(maxDist, cells[cell++]);
+            }
+        }
+
+        if (maxDist <= Character.MAX_VALUE) {
+            narrow = new char[cells.length];
+            for (int i = 0; i < cells.length; i++)
+                narrow[i] = (char) cells[i];
+            wide = null;
+        } else {
+            narrow = null;
+            wide = cells;
+        }
+    }
+
+    /**
+     * Returns the number of cells in the lower triangle (without the diagonal).
+     *
+     * @param cityNum   the number of cities
+     * @return the number of stored distances
+     */
+    private static long cellCount(int cityNum) {
+        return (long) cityNum * (cityNum - 1) / 2;
+    }
+
+    /**
+     * Returns the number of bytes the matrix needs in its narrow form.
+     *
+     * @param cityNum   the number of cities
+     * @return the size of the matrix in bytes
+     */
+    static long footprint(int cityNum) {
+        return cellCount(cityNum) * Character.BYTES;
+    }
+
+    @Override
+    public int distance(int from, int to) {
+        if (from == to)
+            return 0;
+
+        long row = Math.max(from, to);
+        int cell = (int) (row * (row - 1) / 2) + Math.min(from, to);
+        return narrow != null ? narrow[cell] : wide[cell];
+    }
+
+    @Override
+    public Backend getBackend() { return Backend.TRIANGULAR; }
+}
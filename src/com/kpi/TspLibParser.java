@@ -0,0 +1,363 @@
+package com.kpi;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads symmetric TSP instances in the TSPLIB format. The file is memory-mapped and parsed
+ * directly from the mapped bytes; apart from the coordinate arrays (or the distance matrix)
+ * only the few header keywords are allocated, so even instances with 100k+ nodes load quickly.
+ * <p>
+ * Supported edge weight types are EUC_2D, CEIL_2D, GEO, ATT and EXPLICIT. Explicit matrices
+ * may be given as FULL_MATRIX or in any of the row or column triangular formats.
+ */
+final class TspLibParser {
+    /** The mapped contents of the file. */
+    private final MappedByteBuffer buffer;
+    /** The name of the file, used in error messages. */
+    private final String fileName;
+    /** The position of the next byte to read. */
+    private int pos;
+
+    /** The NAME of the instance. */
+    private String name;
+    /** The DIMENSION of the instance, -1 until read. */
+    private int dimension = -1;
+    /** The EDGE_WEIGHT_TYPE of the instance. */
+    private String edgeWeightType;
+    /** The EDGE_WEIGHT_FORMAT of the instance. */
+    private String edgeWeightFormat = "FULL_MATRIX";
+    /** The x-coordinates read from the node coordinate or display data section. */
+    private double[] xCoord;
+    /** The y-coordinates read from the node coordinate or display data section. */
+    private double[] yCoord;
+    /** The full distance matrix read from the edge weight section. */
+    private int[] distances;
+
+    /**
+     * Constructs a parser over mapped file contents.
+     *
+     * @param buffer    the mapped contents of the file
+     * @param fileName  the name of the file
+     */
+    private TspLibParser(MappedByteBuffer buffer, String fileName) {
+        this.buffer = buffer;
+        this.fileName = fileName;
+    }
+
+    /**
+     * Parses a TSPLIB file into a new CitySet.
+     *
+     * @param file  the .tsp file
+     * @return a new CitySet with the cities of the instance
+     * @throws IOException if the file cannot be read or is not a supported TSPLIB instance
+     */
+    static CitySet parse(java.nio.file.Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("TSPLIB file " + file + " is too large.");
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new TspLibParser(buffer, file.toString()).parse();
+        }
+    }
+
+    /**
+     * Parses the whole file.
+     *
+     * @return a new CitySet with the cities of the instance
+     * @throws IOException if the file is not a supported TSPLIB instance
+     */
+    private CitySet parse() throws IOException {
+        String keyword;
+        while ((keyword = nextWord()) != null && !keyword.equals("EOF")) {
+            switch (keyword) {
+                case "NODE_COORD_SECTION":
+                case "DISPLAY_DATA_SECTION":
+                    readCoordinates();
+                    break;
+                case "EDGE_WEIGHT_SECTION":
+                    readEdgeWeights();
+                    break;
+                default:
+                    readSpecification(keyword);
+            }
+        }
+
+        if (dimension < 0 || edgeWeightType == null)
+            throw error("DIMENSION and EDGE_WEIGHT_TYPE are required");
+
+        DistanceMetric metric;
+        try {
+            metric = DistanceMetric.valueOf(edgeWeightType);
+        } catch (IllegalArgumentException e) {
+            throw error("edge weight type " + edgeWeightType + " is not supported");
+        }
+        if (metric == DistanceMetric.FLOOR_2D)
+            throw error("edge weight type " + edgeWeightType + " is not supported");
+        if (metric == DistanceMetric.EXPLICIT ? distances == null : xCoord == null)
+            throw error("missing data section for edge weight type " + edgeWeightType);
+
+        // explicit instances without display data get all their cities at the origin
+        if (xCoord == null) {
+            xCoord = new double[dimension];
+            yCoord = new double[dimension];
+        }
+        return new CitySet(name != null ? name : fileName, metric, xCoord, yCoord, distances);
+    }
+
+    /**
+     * Reads the value of a specification keyword such as {@code DIMENSION : 100}.
+     *
+     * @param keyword   the keyword, possibly with the colon attached
+     * @throws IOException if the value is missing or invalid
+     */
+    private void readSpecification(String keyword) throws IOException {
+        if (keyword.endsWith(":"))
+            keyword = keyword.substring(0, keyword.length() - 1);
+        String value = restOfLine();
+        if (value.startsWith(":"))
+            value = value.substring(1).trim();
+
+        switch (keyword) {
+            case "NAME":
+                name = value;
+                break;
+            case "TYPE":
+                if (!value.equals("TSP"))
+                    throw error("problem type " + value + " is not supported");
+                break;
+            case "DIMENSION":
+                try {
+                    dimension = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    throw error("invalid DIMENSION " + value);
+                }
+                break;
+            case "EDGE_WEIGHT_TYPE":
+                edgeWeightType = value;
+                break;
+            case "EDGE_WEIGHT_FORMAT":
+                edgeWeightFormat = value;
+                break;
+            default:
+                // COMMENT, DISPLAY_DATA_TYPE, NODE_COORD_TYPE and others are not needed
+        }
+    }
+
+    /**
+     * Reads a node coordinate or display data section of {@code id x y} lines.
+     *
+     * @throws IOException if the section is incomplete or precedes DIMENSION
+     */
+    private void readCoordinates() throws IOException {
+        requireDimension();
+        xCoord = new double[dimension];
+        yCoord = new double[dimension];
+
+        for (int i = 0; i < dimension; i++) {
+            int id = (int) nextNumber();
+            if (id < 1 || id > dimension)
+                throw error("node id " + id + " out of range");
+            xCoord[id - 1] = nextNumber();
+            yCoord[id - 1] = nextNumber();
+        }
+    }
+
+    /**
+     * Reads an edge weight section into a full symmetric matrix.
+     *
+     * @throws IOException if the section is incomplete, the format is unknown or DIMENSION is missing
+     */
+    private void readEdgeWeights() throws IOException {
+        requireDimension();
+        int n = dimension;
+        if ((long) n * n > Integer.MAX_VALUE - 8)
+            throw error("explicit matrix of dimension " + n + " is too large");
+        distances = new int[n * n];
+
+        // column formats list the same numbers as the mirrored row formats of a symmetric matrix
+        switch (edgeWeightFormat) {
+            case "FULL_MATRIX":
+                for (int i = 0; i < n; i++)
+                    for (int j = 0; j < n; j++)
+                        distances[i * n + j] = (int) nextNumber();
+                return;
+            case "UPPER_ROW":
+            case "LOWER_COL":
+                for (int i = 0; i < n; i++)
+                    for (int j = i + 1; j < n; j++)
+                        setSymmetric(i, j, (int) nextNumber());
+                return;
+            case "LOWER_ROW":
+            case "UPPER_COL":
+                for (int i = 0; i < n; i++)
+                    for (int j = 0; j < i; j++)
+                        setSymmetric(i, j, (int) nextNumber());
+                return;
+            case "UPPER_DIAG_ROW":
+            case "LOWER_DIAG_COL":
+                for (int i = 0; i < n; i++)
+                    for (int j = i; j < n; j++)
+                        setSymmetric(i, j, (int) nextNumber());
+                return;
+            case "LOWER_DIAG_ROW":
+            case "UPPER_DIAG_COL":
+                for (int i = 0; i < n; i++)
+                    for (int j = 0; j <= i; j++)
+                        setSymmetric(i, j, (int) nextNumber());
+                return;
+            default:
+                throw error("edge weight format " + edgeWeightFormat + " is not supported");
+        }
+    }
+
+    /**
+     * Stores a distance in both halves of the matrix.
+     *
+     * @param i     the first city index
+     * @param j     the second city index
+     * @param dist  the distance between the cities
+     */
+    private void setSymmetric(int i, int j, int dist) {
+        distances[i * dimension + j] = dist;
+        distances[j * dimension + i] = dist;
+    }
+
+    /**
+     * Ensures DIMENSION has been read before a data section.
+     *
+     * @throws IOException if DIMENSION is missing
+     */
+    private void requireDimension() throws IOException {
+        if (dimension < 0)
+            throw error("data section before DIMENSION");
+    }
+
+    /**
+     * Skips whitespace and returns the next whitespace-delimited word.
+     *
+     * @return the next word, or null at the end of the file
+     */
+    private String nextWord() {
+        skipWhitespace();
+        int limit = buffer.limit();
+        if (pos >= limit)
+            return null;
+
+        int start = pos;
+        while (pos < limit && buffer.get(pos) > ' ' && (pos == start || buffer.get(pos) != ':'))
+            pos++;
+        if (pos < limit && buffer.get(pos) == ':' && pos == start)
+            pos++;
+
+        return ascii(start, pos);
+    }
+
+    /**
+     * Returns the rest of the current line, trimmed.
+     *
+     * @return the rest of the line
+     */
+    private String restOfLine() {
+        int limit = buffer.limit();
+        int start = pos;
+        while (pos < limit && buffer.get(pos) != '\n')
+            pos++;
+
+        return ascii(start, pos).trim();
+    }
+
+    /**
+     * Parses the next number, integer or decimal with an optional exponent, without allocating.
+     *
+     * @return the parsed number
+     * @throws IOException if the next word is not a number
+     */
+    private double nextNumber() throws IOException {
+        skipWhitespace();
+        int limit = buffer.limit();
+        int start = pos;
+
+        boolean negative = false;
+        if (pos < limit && (buffer.get(pos) == '-' || buffer.get(pos) == '+'))
+            negative = buffer.get(pos++) == '-';
+
+        long mantissa = 0;
+        int scale = 0;
+        int digits = 0;
+        byte b;
+        while (pos < limit && (b = buffer.get(pos)) >= '0' && b <= '9') {
+            mantissa = mantissa * 10 + (b - '0');
+            pos++;
+            digits++;
+        }
+        if (pos < limit && buffer.get(pos) == '.') {
+            pos++;
+            while (pos < limit && (b = buffer.get(pos)) >= '0' && b <= '9') {
+                // digits beyond the precision of a long do not change the value
+                if (mantissa < Long.MAX_VALUE / 10) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    scale--;
+                }
+                pos++;
+                digits++;
+            }
+        }
+        if (digits == 0)
+            throw error("expected a number at offset " + start);
+
+        if (pos < limit && (buffer.get(pos) == 'e' || buffer.get(pos) == 'E')) {
+            pos++;
+            boolean negativeExp = false;
+            if (pos < limit && (buffer.get(pos) == '-' || buffer.get(pos) == '+'))
+                negativeExp = buffer.get(pos++) == '-';
+            int exp = 0;
+            while (pos < limit && (b = buffer.get(pos)) >= '0' && b <= '9') {
+                exp = exp * 10 + (b - '0');
+                pos++;
+            }
+            scale += negativeExp ? -exp : exp;
+        }
+
+        double value = scale >= 0 ? mantissa * Math.pow(10, scale) : mantissa / Math.pow(10, -scale);
+        return negative ? -value : value;
+    }
+
+    /**
+     * Advances past spaces, tabs and line breaks.
+     */
+    private void skipWhitespace() {
+        int limit = buffer.limit();
+        while (pos < limit && buffer.get(pos) <= ' ')
+            pos++;
+    }
+
+    /**
+     * Decodes a range of the buffer as ASCII text.
+     *
+     * @param start the first position
+     * @param end   the position after the last byte
+     * @return the decoded text
+     */
+    private String ascii(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = buffer.get(start + i);
+
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Creates an exception describing a problem with the file.
+     *
+     * @param message   the description of the problem
+     * @return the exception
+     */
+    private IOException error(String message) {
+        return new IOException("Invalid TSPLIB file " + fileName + ": " + message + ".");
+    }
+}
@@ -0,0 +1,30 @@
+package com.kpi;
+
+import java.util.SplittableRandom;
+
+/**
+ * The private state of one worker thread of {@link TravelSolution}: its random number
+ * generator, the scratch memory of the genetic operators and, if the local search stage
+ * is enabled, its local search. A worker is only ever used by one thread at a time.
+ */
+final class Worker {
+    /** The random number generator of the worker, replaced when a checkpoint reseeds it. */
+    SplittableRandom random;
+    /** The scratch memory of the genetic operators. */
+    final OperatorScratch scratch;
+    /** The local search of the worker, or null if the stage is disabled. */
+    final LocalSearch localSearch;
+
+    /**
+     * Constructs a worker.
+     *
+     * @param random        the random number generator of the worker
+     * @param scratch       the scratch memory of the genetic operators
+     * @param localSearch   the local search of the worker, or null
+     */
+    Worker(SplittableRandom random, OperatorScratch scratch, LocalSearch localSearch) {
+        this.random = random;
+        this.scratch = scratch;
+        this.localSearch = localSearch;
+    }
+}
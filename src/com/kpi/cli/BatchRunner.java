@@ -0,0 +1,638 @@
+package com.kpi.cli;
+
+import com.kpi.Checkpoint;
+import com.kpi.CitySet;
+import com.kpi.Crossover;
+import com.kpi.GenerationStats;
+import com.kpi.HistoryPolicy;
+import com.kpi.IntPath;
+import com.kpi.Mutation;
+import com.kpi.SolutionCache;
+import com.kpi.SolverMetrics;
+import com.kpi.StopCondition;
+import com.kpi.TravelSolution;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless command line entry point that runs the genetic algorithm several times on one
+ * or more TSPLIB instances concurrently and writes one result line per run as CSV or JSON lines.
+ * Without instance files a generated circle of {@code --cities} cities is solved.
+ * It never touches AWT or Swing classes, so it works under {@code java.awt.headless}.
+ *
+ * <pre>
+ * java -cp genetic-algorithm.jar com.kpi.cli.BatchRunner --instance berlin52.tsp --iterations 1000 --runs 8
+ * </pre>
+ */
+public final class BatchRunner {
+    /** The usage message printed for invalid arguments. */
+    private static final String USAGE = "Usage: BatchRunner [--instance FILE.tsp]... [--cities N] [--iterations N] [--mutation PERCENT]\n" +
+            "                   [--generation-size N] [--local-search K] [--local-search-time FRACTION]\n" +
+            "                   [--seeding NN%,GREEDY%,CURVE%] [--checkpoint-dir DIR] [--checkpoint-interval N]\n" +
+            "                   [--stagnation N] [--time-limit SECONDS] [--target LENGTH] [--max-evaluations N]\n" +
+            "                   [--adaptive-mutation MIN%,MAX%]\n" +
+            "                   [--crossover cycle|order|partially-mapped|edge-recombination|edge-assembly]\n" +
+            "                   [--mutation-operator swap|inversion|scramble] [--population-arena on|off]\n" +
+            "                   [--steady-state K] [--replacement worst|worse-parent]\n" +
+            "                   [--remote-workers N] [--cache-dir DIR] [--cache-size MB] [--cache-hit return|warm-start]\n" +
+            "                   [--runs M] [--threads T] [--seed S]\n" +
+            "                   [--format csv|json] [--output FILE]";
+
+    /** The TSPLIB files to solve; empty to solve a generated instance. */
+    private final List<String> instanceFiles = new ArrayList<>();
+    /** The number of cities of the generated instance. */
+    private int cityNum = 50;
+    /** The number of iterations of every run. */
+    private int iterationsNum = 1000;
+    /** The percentage of the population mutated per generation. */
+    private int mutationPercent = 10;
+    /** The number of paths selected for crossover, or 0 for the default of twice the city count. */
+    private int generationSize = 0;
+    /** The number of nearest neighbours tried by the local search, or 0 to run without it. */
+    private int localSearchNeighbors = 0;
+    /** The share of a generation's time the local search may use. */
+    private double localSearchFraction = 0.5;
+    /** The percentages of nearest-neighbour, greedy-edge and space-filling curve tours in the initial generation. */
+    private int[] seedingMix = {0, 0, 0};
+    /** The directory every run writes its checkpoints to and resumes from, or null. */
+    private String checkpointDir = null;
+    /** The number of generations between two checkpoints. */
+    private int checkpointInterval = 100;
+    /** The number of generations without improvement after which a run stops, or 0 to never stop early. */
+    private int stagnation = 0;
+    /** The wall-clock limit of every run in seconds, or 0 for none. */
+    private double timeLimit = 0;
+    /** The path length at which a run stops, or -1 for none. */
+    private long target = -1;
+    /** The number of evaluated paths after which a run stops, or 0 for no budget. */
+    private long maxEvaluations = 0;
+    /** The bounds of the adaptive mutation percentage, or null to keep it fixed. */
+    private int[] adaptiveMutation = null;
+    /** The crossover operator of every run. */
+    private Crossover crossover = Crossover.CYCLE;
+    /** The mutation operator of every run. */
+    private Mutation mutation = Mutation.SWAP;
+    /** Whether runs reuse the paths of past generations. */
+    private boolean populationArena = false;
+    /** The tournament size of the steady-state scheme, or 0 to run the generational one. */
+    private int tournamentSize = 0;
+    /** The path a child of the steady-state scheme replaces. */
+    private TravelSolution.Replacement replacement = TravelSolution.Replacement.WORST;
+    /** The number of worker processes breeding the children of every run, or 0 for none. */
+    private int remoteWorkerNum = 0;
+    /** The directory of the solution cache, or null to run without one. */
+    private String cacheDir = null;
+    /** The largest total size of the solution cache in megabytes. */
+    private int cacheSize = 256;
+    /** What a run does when the solution cache knows its instance. */
+    private SolutionCache.HitPolicy cacheHitPolicy = SolutionCache.HitPolicy.WARM_START;
+    /** The solution cache shared by all runs, or null. */
+    private SolutionCache solutionCache = null;
+    /** The number of runs. */
+    private int runNum = 1;
+    /** The number of runs executed concurrently. */
+    private int threadNum = Runtime.getRuntime().availableProcessors();
+    /** The seed of the first run; run i uses seed + i. */
+    private long seed = System.nanoTime();
+    /** Whether results are written as JSON lines instead of CSV. */
+    private boolean json = false;
+    /** The file results are written to, or null for standard output. */
+    private String outputFile = null;
+
+    /**
+     * The outcome of a single run.
+     */
+    private static final class RunResult {
+        /** The instance the run solved. */
+        CitySet citySet;
+        /** The zero-based index of the run. */
+        int run;
+        /** The seed of the run. */
+        long seed;
+        /** The best path found. */
+        IntPath best;
+        /** The time spent loading or generating the instance, in milliseconds. */
+        double loadMs;
+        /** The time spent solving, in milliseconds. */
+        double solveMs;
+        /** The time the run spent in every phase of its generations. */
+        SolverMetrics metrics;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        BatchRunner runner = new BatchRunner();
+        try {
+            runner.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        try {
+            runner.run();
+        } catch (IOException e) {
+            System.err.println("Unable to read or write a file: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads the options from the command line arguments.
+     *
+     * @param args  the command line arguments
+     * @throws IllegalArgumentException if an option is unknown or its value is invalid
+     */
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length)
+                throw new IllegalArgumentException("Missing value for option " + option + ".");
+            String value = args[++i];
+
+            switch (option) {
+                case "--instance":
+                    instanceFiles.add(value);
+                    break;
+                case "--cities":
+                    cityNum = parsePositive(option, value);
+                    break;
+                case "--iterations":
+                    iterationsNum = parsePositive(option, value);
+                    break;
+                case "--mutation":
+                    mutationPercent = parsePositive(option, value);
+                    break;
+                case "--generation-size":
+                    generationSize = parsePositive(option, value);
+                    break;
+                case "--local-search":
+                    localSearchNeighbors = parsePositive(option, value);
+                    break;
+                case "--local-search-time":
+                    localSearchFraction = parseFraction(option, value);
+                    break;
+                case "--seeding":
+                    seedingMix = parseSeedingMix(option, value);
+                    break;
+                case "--checkpoint-dir":
+                    checkpointDir = value;
+                    break;
+                case "--checkpoint-interval":
+                    checkpointInterval = parsePositive(option, value);
+                    break;
+                case "--stagnation":
+                    stagnation = parsePositive(option, value);
+                    break;
+                case "--time-limit":
+                    timeLimit = parsePositiveDouble(option, value);
+                    break;
+                case "--target":
+                    target = parseLong(option, value);
+                    if (target < 0)
+                        throw new IllegalArgumentException("Option " + option + " must not be negative.");
+                    break;
+                case "--max-evaluations":
+                    maxEvaluations = parseLong(option, value);
+                    if (maxEvaluations < 1)
+                        throw new IllegalArgumentException("Option " + option + " must be positive.");
+                    break;
+                case "--adaptive-mutation":
+                    adaptiveMutation = parseBounds(option, value);
+                    break;
+                case "--crossover":
+                    crossover = parseConstant(Crossover.class, option, value);
+                    break;
+                case "--mutation-operator":
+                    mutation = parseConstant(Mutation.class, option, value);
+                    break;
+                case "--population-arena":
+                    if (!value.equals("on") && !value.equals("off"))
+                        throw new IllegalArgumentException("Option " + option + " expects on or off, got " + value + ".");
+                    populationArena = value.equals("on");
+                    break;
+                case "--steady-state":
+                    tournamentSize = parsePositive(option, value);
+                    break;
+                case "--replacement":
+                    replacement = parseConstant(TravelSolution.Replacement.class, option, value);
+                    break;
+                case "--remote-workers":
+                    remoteWorkerNum = parsePositive(option, value);
+                    break;
+                case "--cache-dir":
+                    cacheDir = value;
+                    break;
+                case "--cache-size":
+                    cacheSize = parsePositive(option, value);
+                    break;
+                case "--cache-hit":
+                    if (!value.equals("return") && !value.equals("warm-start"))
+                        throw new IllegalArgumentException("Option " + option + " expects return or warm-start, got " + value + ".");
+                    cacheHitPolicy = value.equals("return") ? SolutionCache.HitPolicy.RETURN_BEST : SolutionCache.HitPolicy.WARM_START;
+                    break;
+                case "--runs":
+                    runNum = parsePositive(option, value);
+                    break;
+                case "--threads":
+                    threadNum = parsePositive(option, value);
+                    break;
+                case "--seed":
+                    seed = parseLong(option, value);
+                    break;
+                case "--format":
+                    if (!value.equals("csv") && !value.equals("json"))
+                        throw new IllegalArgumentException("Unknown format " + value + ".");
+                    json = value.equals("json");
+                    break;
+                case "--output":
+                    outputFile = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + option + ".");
+            }
+        }
+    }
+
+    /**
+     * Parses a positive integer option value.
+     *
+     * @param option    the option name
+     * @param value     the option value
+     * @return the parsed value
+     * @throws IllegalArgumentException if the value is not a positive integer
+     */
+    private static int parsePositive(String option, String value) {
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option " + option + " expects a number, got " + value + ".");
+        }
+        if (parsed < 1)
+            throw new IllegalArgumentException("Option " + option + " must be positive.");
+
+        return parsed;
+    }
+
+    /**
+     * Parses a fraction option value.
+     *
+     * @param option    the option name
+     * @param value     the option value
+     * @return the parsed value
+     * @throws IllegalArgumentException if the value is not a number in (0, 1]
+     */
+    private static double parseFraction(String option, String value) {
+        double parsed;
+        try {
+            parsed = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option " + option + " expects a number, got " + value + ".");
+        }
+        if (!(parsed > 0 && parsed <= 1))
+            throw new IllegalArgumentException("Option " + option + " must be in (0, 1].");
+
+        return parsed;
+    }
+
+    /**
+     * Parses a positive number option value.
+     *
+     * @param option    the option name
+     * @param value     the option value
+     * @return the parsed value
+     * @throws IllegalArgumentException if the value is not a positive number
+     */
+    private static double parsePositiveDouble(String option, String value) {
+        double parsed;
+        try {
+            parsed = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option " + option + " expects a number, got " + value + ".");
+        }
+        if (!(parsed > 0 && parsed < Double.POSITIVE_INFINITY))
+            throw new IllegalArgumentException("Option " + option + " must be positive.");
+
+        return parsed;
+    }
+
+    /**
+     * Parses two comma-separated percentages bounding a range.
+     *
+     * @param option    the option name
+     * @param value     the option value
+     * @return the lower and the upper bound
+     * @throws IllegalArgumentException if the value is not two percentages with the lower one not exceeding the upper one
+     */
+    private static int[] parseBounds(String option, String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 2)
+            throw new IllegalArgumentException("Option " + option + " expects two percentages, got " + value + ".");
+
+        int[] bounds = new int[2];
+        for (int i = 0; i < 2; i++) {
+            try {
+                bounds[i] = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Option " + option + " expects two percentages, got " + value + ".");
+            }
+        }
+        if (bounds[0] < 0 || bounds[0] > bounds[1])
+            throw new IllegalArgumentException("Option " + option + " must satisfy 0 <= MIN <= MAX.");
+
+        return bounds;
+    }
+
+    /**
+     * Parses a seeding mix of three comma-separated percentages.
+     *
+     * @param option    the option name
+     * @param value     the option value
+     * @return the nearest-neighbour, greedy-edge and space-filling curve percentages
+     * @throws IllegalArgumentException if the value is not three percentages summing up to at most 100
+     */
+    private static int[] parseSeedingMix(String option, String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 3)
+            throw new IllegalArgumentException("Option " + option + " expects three percentages, got " + value + ".");
+
+        int[] mix = new int[3];
+        for (int i = 0; i < 3; i++) {
+            try {
+                mix[i] = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Option " + option + " expects three percentages, got " + value + ".");
+            }
+            if (mix[i] < 0)
+                throw new IllegalArgumentException("Option " + option + " must not be negative.");
+        }
+        if (mix[0] + mix[1] + mix[2] > 100)
+            throw new IllegalArgumentException("Option " + option + " must not exceed 100 in total.");
+
+        return mix;
+    }
+
+    /**
+     * Parses a long option value.
+     *
+     * @param option    the option name
+     * @param value     the option value
+     * @return the parsed value
+     * @throws IllegalArgumentException if the value is not a number
+     */
+    private static long parseLong(String option, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option " + option + " expects a number, got " + value + ".");
+        }
+    }
+
+    /**
+     * Parses an option value naming an enum constant, written in lower case with hyphens
+     * instead of underscores.
+     *
+     * @param type      the enum class
+     * @param option    the option name
+     * @param value     the option value
+     * @param <E>       the enum type
+     * @return the named constant
+     * @throws IllegalArgumentException if no constant has the given name
+     */
+    private static <E extends Enum<E>> E parseConstant(Class<E> type, String option, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown value " + value + " for option " + option + ".");
+        }
+    }
+
+    /**
+     * Loads every instance, then executes all runs of all instances on a pool of threads
+     * and writes a result line as each run finishes.
+     *
+     * @throws IOException if an instance cannot be loaded or the output file cannot be written
+     */
+    private void run() throws IOException {
+        List<CitySet> citySets = new ArrayList<>();
+        List<Double> loadTimes = new ArrayList<>();
+        if (instanceFiles.isEmpty())
+            instanceFiles.add(null);
+        for (String instanceFile : instanceFiles) {
+            long start = System.nanoTime();
+            citySets.add(instanceFile == null ? CitySet.generateCircle(cityNum) : CitySet.loadTspLib(instanceFile));
+            loadTimes.add((System.nanoTime() - start) / 1e6);
+        }
+
+        if (checkpointDir != null)
+            Files.createDirectories(Paths.get(checkpointDir));
+        if (cacheDir != null)
+            solutionCache = new SolutionCache(cacheDir, cacheSize * (1L << 20));
+
+        PrintWriter out = outputFile == null
+                ? new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true)
+                : new PrintWriter(new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8), true);
+
+        if (!json)
+            out.println("instance,run,seed,cities,iterations,mutation,length,load_ms,solve_ms,selection_ms,crossover_ms,mutation_ms,local_search_ms,tour");
+
+        int totalRuns = citySets.size() * runNum;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadNum, totalRuns));
+        try {
+            List<Future<?>> futures = new ArrayList<>(totalRuns);
+            for (int c = 0; c < citySets.size(); c++) {
+                CitySet citySet = citySets.get(c);
+                double loadMs = loadTimes.get(c);
+                for (int i = 0; i < runNum; i++) {
+                    int run = i;
+                    futures.add(executor.submit(() -> {
+                        RunResult result = solve(citySet, run, seed + run);
+                        result.loadMs = loadMs;
+                        synchronized (out) {
+                            out.println(json ? toJson(result) : toCsv(result));
+                        }
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            if (e.getCause() instanceof UncheckedIOException)
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            throw new IllegalStateException("A run failed.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            if (outputFile != null)
+                out.close();
+            else
+                out.flush();
+        }
+    }
+
+    /**
+     * Executes a single run.
+     *
+     * @param citySet   the instance to solve
+     * @param run       the zero-based index of the run
+     * @param runSeed   the seed of the run
+     * @return the outcome of the run
+     * @throws IOException if the checkpoint of the run cannot be read
+     */
+    private RunResult solve(CitySet citySet, int run, long runSeed) throws IOException {
+        RunResult result = new RunResult();
+        result.citySet = citySet;
+        result.run = run;
+        result.seed = runSeed;
+        result.metrics = new SolverMetrics();
+
+        long start = System.nanoTime();
+        TravelSolution travelSolution = generationSize > 0
+                ? new TravelSolution(citySet, iterationsNum, mutationPercent, generationSize)
+                : new TravelSolution(citySet, iterationsNum, mutationPercent);
+        travelSolution.setSeed(runSeed);
+        travelSolution.setSeedingMix(seedingMix[0], seedingMix[1], seedingMix[2]);
+        if (localSearchNeighbors > 0)
+            travelSolution.setLocalSearch(localSearchNeighbors, localSearchFraction);
+        travelSolution.setStopCondition(createStopCondition());
+        if (adaptiveMutation != null)
+            travelSolution.setAdaptiveMutation(adaptiveMutation[0], adaptiveMutation[1]);
+        travelSolution.setOperators(crossover, mutation);
+        travelSolution.setPopulationArena(populationArena);
+        if (tournamentSize > 0)
+            travelSolution.setSteadyState(tournamentSize, replacement);
+        travelSolution.setRemoteWorkers(remoteWorkerNum);
+        travelSolution.setSolutionCache(solutionCache, cacheHitPolicy);
+        travelSolution.setHistoryPolicy(HistoryPolicy.none());
+        travelSolution.setMetrics(result.metrics);
+        travelSolution.addGenerationListener((GenerationStats stats) -> {
+            if (result.best == null || stats.getBestDistance() < result.best.getDistance())
+                result.best = stats.getBest();
+        });
+
+        if (checkpointDir == null) {
+            travelSolution.findSolution();
+        } else {
+            // a run whose checkpoint already exists was interrupted and continues from it
+            String safeName = citySet.getName().replaceAll("[^A-Za-z0-9._-]", "_");
+            java.nio.file.Path file = Paths.get(checkpointDir, safeName + "-run" + run + ".ckpt");
+            travelSolution.setCheckpointing(file.toString(), checkpointInterval);
+            if (Files.exists(file)) {
+                Checkpoint checkpoint = Checkpoint.read(file.toString());
+                result.best = checkpoint.getBest(citySet);
+                travelSolution.resume(checkpoint);
+            } else
+                travelSolution.findSolution();
+        }
+
+        result.solveMs = (System.nanoTime() - start) / 1e6;
+        return result;
+    }
+
+    /**
+     * Combines the stop options into one condition that stops a run as soon as any of them is met.
+     *
+     * @return the condition, or null if no stop option is given
+     */
+    private StopCondition createStopCondition() {
+        List<StopCondition> conditions = new ArrayList<>();
+        if (stagnation > 0)
+            conditions.add(StopCondition.stagnation(stagnation));
+        if (timeLimit > 0)
+            conditions.add(StopCondition.timeLimit(Duration.ofNanos((long) (timeLimit * 1e9))));
+        if (target >= 0)
+            conditions.add(StopCondition.targetDistance((int) Math.min(target, Integer.MAX_VALUE)));
+        if (maxEvaluations > 0)
+            conditions.add(StopCondition.maxEvaluations(maxEvaluations));
+
+        StopCondition combined = null;
+        for (StopCondition condition : conditions)
+            combined = combined == null ? condition : combined.or(condition);
+        return combined;
+    }
+
+    /**
+     * Formats the tour of a path as a list of city identifiers.
+     *
+     * @param path      the path
+     * @param separator the separator between identifiers
+     * @return the formatted tour
+     */
+    private static String formatTour(IntPath path, char separator) {
+        StringBuilder tour = new StringBuilder();
+        for (int i = 0; i < path.getCitySet().size(); i++) {
+            if (i > 0)
+                tour.append(separator);
+            tour.append(path.cityAt(i) + 1);
+        }
+        return tour.toString();
+    }
+
+    /**
+     * Formats a duration in milliseconds with three decimals.
+     *
+     * @param nanos the duration in nanoseconds
+     * @return the formatted duration
+     */
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    /**
+     * Formats a result as a CSV line.
+     *
+     * @param result    the result of a run
+     * @return the CSV line
+     */
+    private String toCsv(RunResult result) {
+        return result.citySet.getName() + "," + result.run + "," + result.seed + "," + result.citySet.size() + "," +
+                iterationsNum + "," + mutationPercent + "," + result.best.getDistance() + "," +
+                String.format(Locale.ROOT, "%.3f", result.loadMs) + "," +
+                String.format(Locale.ROOT, "%.3f", result.solveMs) + "," +
+                formatMillis(result.metrics.getSelectionNanos()) + "," + formatMillis(result.metrics.getCrossoverNanos()) + "," +
+                formatMillis(result.metrics.getMutationNanos()) + "," + formatMillis(result.metrics.getLocalSearchNanos()) + "," +
+                formatTour(result.best, ' ');
+    }
+
+    /**
+     * Formats a result as a JSON object on a single line.
+     *
+     * @param result    the result of a run
+     * @return the JSON line
+     */
+    private String toJson(RunResult result) {
+        return "{\"instance\":\"" + result.citySet.getName().replace("\\", "\\\\").replace("\"", "\\\"") +
+                "\",\"run\":" + result.run + ",\"seed\":" + result.seed + ",\"cities\":" + result.citySet.size() +
+                ",\"iterations\":" + iterationsNum + ",\"mutation\":" + mutationPercent +
+                ",\"length\":" + result.best.getDistance() +
+                ",\"load_ms\":" + String.format(Locale.ROOT, "%.3f", result.loadMs) +
+                ",\"solve_ms\":" + String.format(Locale.ROOT, "%.3f", result.solveMs) +
+                ",\"selection_ms\":" + formatMillis(result.metrics.getSelectionNanos()) +
+                ",\"crossover_ms\":" + formatMillis(result.metrics.getCrossoverNanos()) +
+                ",\"mutation_ms\":" + formatMillis(result.metrics.getMutationNanos()) +
+                ",\"local_search_ms\":" + formatMillis(result.metrics.getLocalSearchNanos()) +
+                ",\"tour\":[" + formatTour(result.best, ',') + "]}";
+    }
+}
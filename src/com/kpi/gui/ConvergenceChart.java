@@ -0,0 +1,122 @@
+package com.kpi.gui;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * A chart of the best distance per generation that keeps a fixed number of points however
+ * long the run is. Every point covers a bucket of consecutive iterations and holds the best
+ * distance seen in it; once the buckets are used up, neighbouring buckets are merged and
+ * the iterations per bucket are doubled. Generations may be added from any thread.
+ */
+final class ConvergenceChart {
+    /** The number of buckets, i.e. the largest number of points drawn. */
+    private final int capacity;
+    /** The best distance of every bucket, Integer.MAX_VALUE while it is empty. */
+    private final int[] bestDistances;
+    /** The number of iterations covered by a bucket. */
+    private long stride = 1;
+    /** The number of buckets up to the last non-empty one. */
+    private int bucketNum;
+    /** The highest iteration added. */
+    private int lastIteration;
+    /** Whether a generation was added since the last call to {@link #takeChanged()}. */
+    private boolean changed;
+
+    /**
+     * Constructs an empty chart.
+     *
+     * @param capacity  the number of points the chart keeps, at least 2
+     */
+    ConvergenceChart(int capacity) {
+        this.capacity = capacity & ~1;
+        this.bestDistances = new int[this.capacity];
+        Arrays.fill(bestDistances, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Adds the best distance of a generation.
+     *
+     * @param iteration the one-based iteration of the generation; smaller ones count as the first
+     * @param distance  the best distance of the generation
+     */
+    synchronized void add(int iteration, int distance) {
+        int index = Math.max(iteration, 1) - 1;
+        while (index / stride >= capacity)
+            compact();
+
+        int bucket = (int) (index / stride);
+        bestDistances[bucket] = Math.min(bestDistances[bucket], distance);
+        bucketNum = Math.max(bucketNum, bucket + 1);
+        lastIteration = Math.max(lastIteration, index + 1);
+        changed = true;
+    }
+
+    /**
+     * Merges every two neighbouring buckets, freeing the upper half of the buckets.
+     */
+    private void compact() {
+        for (int i = 0; i < capacity / 2; i++)
+            bestDistances[i] = Math.min(bestDistances[2 * i], bestDistances[2 * i + 1]);
+        Arrays.fill(bestDistances, capacity / 2, capacity, Integer.MAX_VALUE);
+        stride *= 2;
+        bucketNum = (bucketNum + 1) / 2;
+    }
+
+    /**
+     * Tells whether a generation was added since the last call and resets the flag.
+     *
+     * @return true if the chart changed
+     */
+    synchronized boolean takeChanged() {
+        boolean result = changed;
+        changed = false;
+        return result;
+    }
+
+    /**
+     * Draws the chart into a rectangle.
+     *
+     * @param g         the graphics to draw with
+     * @param x         the left edge of the rectangle
+     * @param y         the top edge of the rectangle
+     * @param width     the width of the rectangle
+     * @param height    the height of the rectangle
+     */
+    synchronized void paint(Graphics2D g, int x, int y, int width, int height) {
+        g.setColor(Color.WHITE);
+        g.fillRect(x, y, width, height);
+        g.setColor(Color.DARK_GRAY);
+        g.drawRect(x, y, width, height);
+
+        int min = Integer.MAX_VALUE, max = 0;
+        for (int i = 0; i < bucketNum; i++) {
+            if (bestDistances[i] == Integer.MAX_VALUE)
+                continue;
+            min = Math.min(min, bestDistances[i]);
+            max = Math.max(max, bestDistances[i]);
+        }
+        if (min > max)
+            return;
+
+        int[] xPoints = new int[bucketNum];
+        int[] yPoints = new int[bucketNum];
+        int pointNum = 0;
+        double range = Math.max(max - min, 1);
+        for (int i = 0; i < bucketNum; i++) {
+            if (bestDistances[i] == Integer.MAX_VALUE)
+                continue;
+            xPoints[pointNum] = x + (int) ((long) i * width / Math.max(bucketNum - 1, 1));
+            yPoints[pointNum] = y + height - 1 - (int) ((bestDistances[i] - min) / range * (height - 2));
+            pointNum++;
+        }
+
+        g.setStroke(new BasicStroke(2));
+        g.setColor(new Color(0, 90, 200));
+        g.drawPolyline(xPoints, yPoints, pointNum);
+
+        g.setColor(Color.BLACK);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+        g.drawString("best: " + min + "   worst: " + max + "   iterations: " + lastIteration, x + 5, y + 15);
+    }
+}
@@ -1,13 +1,14 @@
 package com.kpi.gui;
 
-import com.kpi.Path;
+import com.kpi.HistoryPolicy;
+import com.kpi.RunControl;
 import com.kpi.TravelSolution;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.Vector;
+import java.util.concurrent.ExecutionException;
 
 public class SetUpWindow extends JFrame implements ActionListener {
     private static final int WINDOW_WIDTH  = 800;
@@ -106,8 +107,37 @@ public class SetUpWindow extends JFrame implements ActionListener {
 
             this.dispose();
             TravelSolution travelSolution = new TravelSolution(cityNum, iterNum, mutPrec);
-            Vector<Path> solutions = travelSolution.findSolution();
-            SimulWindow simulWindow = new SimulWindow(solutions);
+            RunControl runControl = new RunControl();
+            SimulWindow simulWindow = new SimulWindow(runControl);
+            travelSolution.addGenerationListener(simulWindow);
+            travelSolution.setHistoryPolicy(HistoryPolicy.none());
+            travelSolution.setRunControl(runControl);
+            startSolver(travelSolution, runControl, simulWindow);
         }
     }
+
+    // runs the solver on a background thread, so the event dispatch thread stays free to paint
+    private static void startSolver(TravelSolution travelSolution, RunControl runControl, SimulWindow simulWindow) {
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                travelSolution.findSolution();
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException executionException) {
+                    JOptionPane.showMessageDialog(simulWindow,
+                            "The simulation failed: " + executionException.getCause().getMessage(),
+                            "Simulation error", JOptionPane.ERROR_MESSAGE);
+                }
+                simulWindow.runFinished(runControl.isCancelled());
+            }
+        }.execute();
+    }
 }
@@ -1,72 +1,239 @@
 package com.kpi.gui;
 
-import com.kpi.City;
 import com.kpi.CitySet;
-import com.kpi.Path;
+import com.kpi.GenerationListener;
+import com.kpi.GenerationStats;
+import com.kpi.IntPath;
+import com.kpi.RunControl;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.Random;
-import java.util.Vector;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicReference;
 
-public class SimulWindow extends JFrame {
+public class SimulWindow extends JFrame implements GenerationListener {
     private static final int WINDOW_WIDTH  = 1000;
     private static final int WINDOW_HEIGHT = 1000;
-
-    private final Vector<Path> solutions;
+    private static final int CHART_HEIGHT = 180;
+    private static final int MARGIN = 20;
+    private static final int FRAMES_PER_SECOND = 30;
+    private static final int MAX_LABELED_CITIES = 200;
+    // drawn over the tour layer before every new best, so older tours fade out
+    private static final Color FADE_COLOR = new Color(192, 192, 192, 170);
+    private static final Color TOUR_COLOR = new Color(200, 40, 40);
+
+    // written by the solver threads, read by the frame timer on the event dispatch thread
+    private final AtomicReference<IntPath> pendingBest = new AtomicReference<>();
+    private volatile int lastIteration;
+    private final ConvergenceChart chart = new ConvergenceChart(WINDOW_WIDTH - 2 * MARGIN);
+    private final BufferedImage tourLayer = new BufferedImage(WINDOW_WIDTH, WINDOW_HEIGHT - CHART_HEIGHT, BufferedImage.TYPE_INT_RGB);
+    private final Timer frameTimer;
+    private final RunControl runControl;
+
+    // owned by the event dispatch thread
+    private BufferedImage cityLayer;
+    private IntPath drawnBest;
+    private int[] screenX, screenY;
+    private int[] tourX, tourY;
     private JPanel simulPanel;
+    private JLabel statusLabel;
+    private JButton pauseButton, cancelButton;
+    private String runState = "running";
 
-    public SimulWindow(Vector<Path> solutions) {
-        this.solutions = solutions;
+    public SimulWindow() {
+        this(null);
+    }
 
+    // the control, if given, is operated by the pause and cancel buttons
+    public SimulWindow(RunControl runControl) {
+        this.runControl = runControl;
         setTitle("Genetic Algorithm");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setSize(WINDOW_WIDTH, WINDOW_HEIGHT);
         setResizable(false);
-        setVisible(true);
-        setLocationRelativeTo(null);
+
+        Graphics2D g = tourLayer.createGraphics();
+        g.setColor(Color.LIGHT_GRAY);
+        g.fillRect(0, 0, tourLayer.getWidth(), tourLayer.getHeight());
+        g.dispose();
 
         createSimulPanel();
+        add(createControlPanel(), BorderLayout.NORTH);
+        add(simulPanel, BorderLayout.CENTER);
+        pack();
+        setLocationRelativeTo(null);
+        setVisible(true);
 
-        add(simulPanel);
+        // repaints are driven by the timer, never by the solver, which caps the frame rate
+        frameTimer = new Timer(1000 / FRAMES_PER_SECOND, e -> onFrame());
+        frameTimer.start();
     }
 
     private void createSimulPanel() {
-        simulPanel = new JPanel();
+        simulPanel = new JPanel() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                paintSimulation((Graphics2D) g);
+            }
+        };
 
         simulPanel.setPreferredSize(new Dimension(WINDOW_WIDTH, WINDOW_HEIGHT));
-        simulPanel.setBounds(0, 0, WINDOW_WIDTH, WINDOW_HEIGHT);
         simulPanel.setBackground(Color.LIGHT_GRAY);
-
         simulPanel.setLayout(null);
     }
 
-    public void paint (Graphics g) {
+    private JPanel createControlPanel() {
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+
+        pauseButton = new JButton("Pause");
+        pauseButton.setFocusable(false);
+        pauseButton.addActionListener(e -> togglePause());
+        cancelButton = new JButton("Cancel");
+        cancelButton.setFocusable(false);
+        cancelButton.addActionListener(e -> cancel());
+        pauseButton.setEnabled(runControl != null);
+        cancelButton.setEnabled(runControl != null);
+        controlPanel.add(pauseButton);
+        controlPanel.add(cancelButton);
+
+        statusLabel = new JLabel();
+        controlPanel.add(statusLabel);
+        return controlPanel;
+    }
 
-        Random random = new Random();
-        for (Path path : solutions) {
+    private void togglePause() {
+        if (runControl.isPaused()) {
+            runControl.resume();
+            pauseButton.setText("Pause");
+            runState = "running";
+        } else {
+            runControl.pause();
+            pauseButton.setText("Resume");
+            runState = "paused";
+        }
+        updateStatus();
+    }
 
-            int stroke = path == solutions.lastElement() ? 5 : 2;
-            ((Graphics2D)g).setStroke(new BasicStroke(stroke));
-            g.setColor(new Color(random.nextInt(255), random.nextInt(255), random.nextInt(255)));
+    private void cancel() {
+        runControl.cancel();
+        pauseButton.setEnabled(false);
+        cancelButton.setEnabled(false);
+        runState = "cancelling";
+        updateStatus();
+    }
 
-            for (int i = 0; i < path.cities.size(); i++) {
-                City city1 = path.cities.elementAt(i);
-                City city2 = i == path.cities.size() - 1 ? path.cities.elementAt(0) : path.cities.elementAt(i + 1);
+    // called on the event dispatch thread once the solver has returned
+    public void runFinished(boolean cancelled) {
+        pauseButton.setEnabled(false);
+        cancelButton.setEnabled(false);
+        runState = cancelled ? "cancelled" : "finished";
+        onFrame();
+        updateStatus();
+    }
 
-                g.drawLine(city1.getX(), city1.getY(), city2.getX(), city2.getY());
-            }
+    private void updateStatus() {
+        IntPath best = pendingBest.get();
+        statusLabel.setText("  Iteration " + lastIteration + (best != null ? "   best " + best.getDistance() : "") + "   (" + runState + ")");
+    }
+
+    @Override
+    public void onGeneration(GenerationStats stats) {
+        // keep only the shortest pending path; the timer picks it up at the next frame
+        pendingBest.accumulateAndGet(stats.getBest(),
+                (current, candidate) -> current == null || candidate.getDistance() < current.getDistance() ? candidate : current);
+        chart.add(stats.getIteration(), stats.getBestDistance());
+        lastIteration = Math.max(lastIteration, stats.getIteration());
+    }
+
+    @Override
+    public void dispose() {
+        frameTimer.stop();
+        super.dispose();
+    }
+
+    private void onFrame() {
+        boolean changed = chart.takeChanged();
+
+        IntPath best = pendingBest.get();
+        if (best != null && best != drawnBest) {
+            drawTour(best);
+            drawnBest = best;
+            changed = true;
+        }
+
+        if (changed) {
+            simulPanel.repaint();
+            updateStatus();
+        }
+    }
+
+    // draws a new best tour over the faded previous ones; the only place the tour layer changes
+    private void drawTour(IntPath best) {
+        CitySet citySet = best.getCitySet();
+        if (cityLayer == null)
+            createCityLayer(citySet);
+
+        int cityNum = citySet.size();
+        for (int i = 0; i < cityNum; i++) {
+            tourX[i] = screenX[best.cityAt(i)];
+            tourY[i] = screenY[best.cityAt(i)];
+        }
+        tourX[cityNum] = tourX[0];
+        tourY[cityNum] = tourY[0];
+
+        Graphics2D g = tourLayer.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(FADE_COLOR);
+        g.fillRect(0, 0, tourLayer.getWidth(), tourLayer.getHeight());
+        g.setColor(TOUR_COLOR);
+        g.setStroke(new BasicStroke(cityNum > MAX_LABELED_CITIES ? 1 : 3));
+        g.drawPolyline(tourX, tourY, cityNum + 1);
+        g.dispose();
+    }
+
+    // maps the cities into the tour layer once and draws them into a transparent layer
+    private void createCityLayer(CitySet citySet) {
+        int cityNum = citySet.size();
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < cityNum; i++) {
+            minX = Math.min(minX, citySet.getX(i));
+            maxX = Math.max(maxX, citySet.getX(i));
+            minY = Math.min(minY, citySet.getY(i));
+            maxY = Math.max(maxY, citySet.getY(i));
+        }
+
+        int width = tourLayer.getWidth() - 2 * MARGIN;
+        int height = tourLayer.getHeight() - 2 * MARGIN;
+        double scale = Math.min(width / Math.max(maxX - minX, 1e-9), height / Math.max(maxY - minY, 1e-9));
+
+        screenX = new int[cityNum];
+        screenY = new int[cityNum];
+        tourX = new int[cityNum + 1];
+        tourY = new int[cityNum + 1];
+        for (int i = 0; i < cityNum; i++) {
+            screenX[i] = MARGIN + (int) ((citySet.getX(i) - minX) * scale);
+            screenY[i] = MARGIN + (int) ((citySet.getY(i) - minY) * scale);
         }
 
+        cityLayer = new BufferedImage(tourLayer.getWidth(), tourLayer.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = cityLayer.createGraphics();
         g.setColor(Color.BLACK);
         g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 18));
-        int cityNum = solutions.elementAt(0).cities.size();
-        CitySet citySet = CitySet.getCitySet(cityNum);
-        for (City city : citySet.cities)
-            g.drawString(Integer.toString(city.getId()), city.getX(), city.getY());
-
-        int cnt = 1;
-        for (Path path : solutions)
-            System.out.println("iteration: " + cnt++ + "\n" + path);
+        for (int i = 0; i < cityNum; i++) {
+            if (cityNum <= MAX_LABELED_CITIES)
+                g.drawString(Integer.toString(i + 1), screenX[i], screenY[i]);
+            else
+                g.fillRect(screenX[i], screenY[i], 1, 1);
+        }
+        g.dispose();
+    }
+
+    private void paintSimulation(Graphics2D g) {
+        g.drawImage(tourLayer, 0, 0, null);
+        if (cityLayer != null)
+            g.drawImage(cityLayer, 0, 0, null);
+
+        chart.paint(g, MARGIN, WINDOW_HEIGHT - CHART_HEIGHT, WINDOW_WIDTH - 2 * MARGIN, CHART_HEIGHT - MARGIN);
     }
 }